@@ -398,6 +398,14 @@ public enum ConfigNodes {
 	NWS_PLOT_MANAGEMENT_REVERT_TIME(
 			"new_world_settings.plot_management.revert_on_unclaim.speed",
 			"1s"),
+	NWS_PLOT_MANAGEMENT_REVERT_TICK_BUDGET(
+			"new_world_settings.plot_management.revert_on_unclaim.tick_budget",
+			"5",
+			"# How many milliseconds of each server tick may be spent reverting",
+			"# unclaimed plots. Plots in loaded chunks are worked through as fast",
+			"# as this allows, many blocks at a time.",
+			"# Set to 0 to instead revert one block per plot every speed interval.",
+			"# Like the speed setting this is used in all worlds."),
 	NWS_PLOT_MANAGEMENT_REVERT_IGNORE(
 			"new_world_settings.plot_management.revert_on_unclaim.block_ignore",
 			"GOLD_ORE,LAPIS_ORE,LAPIS_BLOCK,GOLD_BLOCK,IRON_ORE,IRON_BLOCK,MOSSY_COBBLESTONE,TORCH,SPAWNER,DIAMOND_ORE,DIAMOND_BLOCK,ACACIA_SIGN,BIRCH_SIGN,DARK_OAK_SIGN,JUNGLE_SIGN,OAK_SIGN,SPRUCE_SIGN,ACACIA_WALL_SIGN,BIRCH_WALL_SIGN,DARK_OAK_WALL_SIGN,JUNGLE_WALL_SIGN,OAK_WALL_SIGN,SPRUCE_WALL_SIGN,GLOWSTONE,EMERALD_ORE,EMERALD_BLOCK,WITHER_SKELETON_SKULL,WITHER_SKELETON_WALL_SKULL,SHULKER_BOX,WHITE_SHULKER_BOX,ORANGE_SHULKER_BOX,MAGENTA_SHULKER_BOX,LIGHT_BLUE_SHULKER_BOX,LIGHT_GRAY_SHULKER_BOX,YELLOW_SHULKER_BOX,LIME_SHULKER_BOX,PINK_SHULKER_BOX,GRAY_SHULKER_BOX,CYAN_SHULKER_BOX,PURPLE_SHULKER_BOX,BLUE_SHULKER_BOX,BROWN_SHULKER_BOX,GREEN_SHULKER_BOX,RED_SHULKER_BOX,BLACK_SHULKER_BOX,BEACON,NETHER_GOLD_ORE,ANCIENT_DEBRIS,SOUL_TORCH,SOUL_WALL_TORCH,CRIMSON_SIGN,CRIMSON_WALL_SIGN,WARPED_SIGN,WARPED_WALL_SIGN,LODESTONE,RESPAWN_ANCHOR,NETHER_PORTAL,FURNACE,BLAST_FURNACE,SMOKER,BREWING_STAND,TNT,AIR,FIRE,NETHER_QUARTZ_ORE,ANCIENT_DEBRIS,NETHERITE_BLOCK,GILDED_BLACKSTONE,DEEPSLATE_IRON_ORE,DEEPSLATE_GOLD_ORE,DEEPSLATE_COAL_ORE,DEEPSLATE_REDSTONE_ORE,DEEPSLATE_DIAMOND_ORE,DEEPSLATE_EMERALD_ORE,DEEPSLATE_LAPIS_ORE,RAW_IRON_BLOCK,RAW_GOLD_ORE",
@@ -929,7 +937,8 @@ public enum ConfigNodes {
 			"plugin.database",
 			"",
 			"",
-			"# Valid load and save types are: flatfile and mysql."),
+			"# Valid load and save types are: flatfile, mysql and h2.",
+			"# h2 keeps an embedded SQL database in data/towny.mv.db, it needs no database server and ignores the sql connection details below."),
 	PLUGIN_DATABASE_LOAD("plugin.database.database_load", "flatfile"),
 	PLUGIN_DATABASE_SAVE("plugin.database.database_save", "flatfile"),
 	
@@ -938,6 +947,20 @@ public enum ConfigNodes {
 			"",
 			"# When true Towny will use a background task to gather UUIDs for residents who do not have UUIDs.",
 			"# This process will greatly improve your database's ability to convert from playernames to UUIDs in the future."),
+	PLUGIN_DATABASE_SAVE_MAX_LATENCY("plugin.database.save_max_latency",
+			"2s",
+			"",
+			"# How long a changed town, resident, nation, plot, world or jail may wait before it is written to the database.",
+			"# Every change made to an object within this window is collected into one single save of that object.",
+			"# Use 0 to write changes on the next pass of the save queue (every 5 ticks.)"),
+	PLUGIN_DATABASE_FLATFILE_TOWNBLOCK_STORAGE("plugin.database.flatfile_townblock_storage",
+			"files",
+			"",
+			"# How the flatfile database stores townblocks, either: files or log.",
+			"# files: one .data file per townblock, in data/townblocks/<world>/.",
+			"# log: townblocks are appended to a handful of large log files in data/townblocks-log/, which are compacted in the background.",
+			"# When switching to log, existing townblock files are copied into the log on the next startup",
+			"# and the old data/townblocks folder is renamed to data/townblocks-converted-<date>."),
 
 	PLUGIN_DATABASE_SQL_HEADER(
 			"plugin.database.sql",
@@ -951,6 +974,12 @@ public enum ConfigNodes {
 	PLUGIN_DATABASE_USERNAME("plugin.database.sql.username", "root"),
 	PLUGIN_DATABASE_PASSWORD("plugin.database.sql.password", ""),
 	PLUGIN_DATABASE_FLAGS("plugin.database.sql.flags", "?verifyServerCertificate=false&useSSL=false&useUnicode=true&characterEncoding=utf-8"),
+	PLUGIN_DATABASE_SQL_BATCH_SIZE("plugin.database.sql.batch_size",
+			"500",
+			"",
+			"# The maximum number of rows Towny sends to the database in one batch.",
+			"# Queued saves are grouped by table and written as INSERT ... ON DUPLICATE KEY UPDATE batches, one transaction per pass of the queue.",
+			"# Set to 0 to write every row with its own UPDATE statement, as older versions of Towny did."),
 
 	PLUGIN_DATABASE_POOLING_HEADER(
 		"plugin.database.sql.pooling",
@@ -1067,6 +1096,33 @@ public enum ConfigNodes {
 			"true",
 			"",
 			"# If true this will cause the log to be wiped at every startup."),
+	PLUGIN_ASYNC_LOGGING("plugin.async_logging", "", ""),
+	PLUGIN_ASYNC_LOGGING_ENABLED(
+			"plugin.async_logging.enabled",
+			"false",
+			"",
+			"# When true, the money and database logs are written by a background thread in batches,",
+			"# instead of writing to the file during every payment. Requires a restart to change."),
+	PLUGIN_ASYNC_LOGGING_QUEUE_SIZE(
+			"plugin.async_logging.queue_size",
+			"8192",
+			"",
+			"# How many log records can be waiting to be written."),
+	PLUGIN_ASYNC_LOGGING_OVERFLOW_POLICY(
+			"plugin.async_logging.overflow_policy",
+			"block",
+			"",
+			"# What to do with a record when the queue is full.",
+			"# block: wait for room in the queue, nothing is lost.",
+			"# write: write the record straight away from the thread which made it, nothing is lost.",
+			"# discard: drop the record, the number of dropped records is reported in the console."),
+	PLUGIN_MONEY_LOG_FORMAT(
+			"plugin.money_log_format",
+			"csv",
+			"",
+			"# csv: logs/money.csv, one line of date,reason,account,amount,other account per transaction.",
+			"# json: logs/money.jsonl, one JSON object per transaction with the time in epoch milliseconds,",
+			"# for loading into other tools. Requires a restart to change."),
 	PLUGIN_TOWNY_TOP_SIZE(
 		"plugin.towny_top_size",
 		"10",
@@ -1926,6 +1982,21 @@ public enum ConfigNodes {
 			"# Turn on/off whether all transactions that normally don't have a second party are to be done with a certain account.",
 			"# Eg: The money taken during Daily Taxes is just removed. With this on, the amount taken would be funneled into an account.",
 			"#     This also applies when a player collects money, like when the player is refunded money when a delayed teleport fails."),
+	ECO_BANK_LEDGER("economy.bank_ledger", "", ""),
+	ECO_BANK_LEDGER_ENABLED(
+			"economy.bank_ledger.enabled",
+			"false",
+			"",
+			"# When true, Towny keeps the balances of town and nation banks in memory and sends the combined change",
+			"# of each bank to your economy plugin every flush_interval, instead of calling the economy plugin for every payment.",
+			"# A bank's balance is read from the economy plugin again when it hasn't been used for a flush_interval,",
+			"# and everything outstanding is sent when Towny stops or reloads.",
+			"# Transaction events for town and nation banks are then thrown once per flush, with the combined change."),
+	ECO_BANK_LEDGER_FLUSH_INTERVAL(
+			"economy.bank_ledger.flush_interval",
+			"5s",
+			"",
+			"# How often the bank ledger sends its changes to the economy plugin."),
 
 	ECO_DAILY_TAXES("economy.daily_taxes", "", ""),
 	ECO_DAILY_TAXES_ENABLED(
@@ -0,0 +1,115 @@
+package com.palmergames.bukkit.config;
+
+import com.palmergames.util.TimeTools;
+
+/**
+ * An immutable copy of every {@link ConfigNodes} value, parsed once when the
+ * config is loaded so that the settings getters don't have to look up and
+ * re-parse the value string on every call.
+ *
+ * Values are stored in arrays indexed by {@link ConfigNodes#ordinal()}. A
+ * value which can't be parsed as a given type is flagged, leaving it to the
+ * caller to report the error as it did before.
+ */
+public final class ConfigSnapshot {
+
+	private static final ConfigNodes[] NODES = ConfigNodes.values();
+
+	private final String[] strings = new String[NODES.length];
+	private final boolean[] booleans = new boolean[NODES.length];
+	private final int[] ints = new int[NODES.length];
+	private final double[] doubles = new double[NODES.length];
+	private final long[] seconds = new long[NODES.length];
+
+	private final boolean[] validInts = new boolean[NODES.length];
+	private final boolean[] validDoubles = new boolean[NODES.length];
+	private final boolean[] validSeconds = new boolean[NODES.length];
+
+	/**
+	 * Reads and parses every node from the given config.
+	 *
+	 * @param config the loaded config.
+	 */
+	public ConfigSnapshot(CommentedConfiguration config) {
+
+		for (ConfigNodes node : NODES) {
+			int i = node.ordinal();
+			String value = config.getString(node.getRoot().toLowerCase(), node.getDefault());
+			strings[i] = value;
+			booleans[i] = Boolean.parseBoolean(value);
+
+			if (value == null)
+				continue;
+
+			try {
+				ints[i] = Integer.parseInt(value.trim());
+				validInts[i] = true;
+			} catch (NumberFormatException ignored) {
+			}
+
+			try {
+				doubles[i] = Double.parseDouble(value.trim());
+				validDoubles[i] = true;
+			} catch (NumberFormatException ignored) {
+			}
+
+			try {
+				seconds[i] = TimeTools.getSeconds(value);
+				validSeconds[i] = true;
+			} catch (NumberFormatException ignored) {
+			}
+		}
+	}
+
+	public String getString(ConfigNodes node) {
+
+		return strings[node.ordinal()];
+	}
+
+	public boolean getBoolean(ConfigNodes node) {
+
+		return booleans[node.ordinal()];
+	}
+
+	/**
+	 * @param node the node to read.
+	 * @return the value as an int, only meaningful if {@link #isInt(ConfigNodes)} is true.
+	 */
+	public int getInt(ConfigNodes node) {
+
+		return ints[node.ordinal()];
+	}
+
+	public boolean isInt(ConfigNodes node) {
+
+		return validInts[node.ordinal()];
+	}
+
+	/**
+	 * @param node the node to read.
+	 * @return the value as a double, only meaningful if {@link #isDouble(ConfigNodes)} is true.
+	 */
+	public double getDouble(ConfigNodes node) {
+
+		return doubles[node.ordinal()];
+	}
+
+	public boolean isDouble(ConfigNodes node) {
+
+		return validDoubles[node.ordinal()];
+	}
+
+	/**
+	 * @param node the node to read.
+	 * @return the value in seconds, only meaningful if {@link #isSeconds(ConfigNodes)} is true.
+	 */
+	public long getSeconds(ConfigNodes node) {
+
+		return seconds[node.ordinal()];
+	}
+
+	public boolean isSeconds(ConfigNodes node) {
+
+		return validSeconds[node.ordinal()];
+	}
+}
@@ -30,15 +30,17 @@ import com.palmergames.bukkit.towny.listeners.TownyPlayerListener;
 import com.palmergames.bukkit.towny.listeners.TownyServerListener;
 import com.palmergames.bukkit.towny.listeners.TownyVehicleListener;
 import com.palmergames.bukkit.towny.listeners.TownyWorldListener;
-import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.PlayerCache;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.object.economy.GovernmentAccountAuditor;
 import com.palmergames.bukkit.towny.permissions.BukkitPermSource;
 import com.palmergames.bukkit.towny.permissions.GroupManagerSource;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.permissions.VaultPermSource;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+import com.palmergames.bukkit.towny.tasks.NewDayJournal;
 import com.palmergames.bukkit.towny.tasks.OnPlayerLogin;
 import com.palmergames.bukkit.towny.utils.MoneyUtil;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
@@ -227,7 +229,10 @@ public class Towny extends JavaPlugin {
 		// Turn off timers.		
 		toggleTimersOff();
 
+		GovernmentAccountAuditor.writeAll();
+
 		TownyRegenAPI.cancelProtectionRegenTasks();
+		TownyRegenAPI.cancelPlotSnapshots();
 
 		playerCache.clear();
 		
@@ -240,6 +245,10 @@ public class Towny extends JavaPlugin {
 			// The saving task will not have started if this disable was fired by onEnable failing.			
 		}
 
+		// Write out the money and database logs still waiting in the background.
+		if (!error)
+			TownyLogger.getInstance().flush();
+
 		if (adventure != null) {
 			adventure.close();
 			adventure = null;
@@ -420,7 +429,11 @@ public class Towny extends JavaPlugin {
 
 		toggleTimersOff();
 		TownyTimerHandler.toggleTownyRepeatingTimer(true);
+		TownyTimerHandler.togglePlotRegen(true);
 		TownyTimerHandler.toggleDailyTimer(true);
+		// Finish a new day which was interrupted by the server stopping.
+		if (NewDayJournal.hasUnfinishedDay())
+			TownyTimerHandler.resumeNewDay();
 		TownyTimerHandler.toggleHourlyTimer(true);
 		TownyTimerHandler.toggleShortTimer(true);
 		TownyTimerHandler.toggleMobRemoval(true);
@@ -429,6 +442,7 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleCooldownTimer(TownySettings.getPVPCoolDownTime() > 0 || TownySettings.getSpawnCooldownTime() > 0);
 		TownyTimerHandler.toggleDrawSmokeTask(true);
 		TownyTimerHandler.toggleDrawSpointsTask(TownySettings.getVisualizedSpawnPointsEnabled());
+		TownyTimerHandler.toggleBankLedger(TownySettings.isBankLedgerEnabled());
 		if (!TownySettings.getUUIDPercent().equals("100%") && TownySettings.isGatheringResidentUUIDS())
 			TownyTimerHandler.toggleGatherResidentUUIDTask(true);
 	}
@@ -436,6 +450,7 @@ public class Towny extends JavaPlugin {
 	private void toggleTimersOff() {
 
 		TownyTimerHandler.toggleTownyRepeatingTimer(false);
+		TownyTimerHandler.togglePlotRegen(false);
 		TownyTimerHandler.toggleDailyTimer(false);
 		TownyTimerHandler.toggleHourlyTimer(false);
 		TownyTimerHandler.toggleShortTimer(false);
@@ -445,6 +460,7 @@ public class Towny extends JavaPlugin {
 		TownyTimerHandler.toggleCooldownTimer(false);
 		TownyTimerHandler.toggleDrawSmokeTask(false);
 		TownyTimerHandler.toggleDrawSpointsTask(false);
+		TownyTimerHandler.toggleBankLedger(false);
 	}
 
 	private void registerEvents() {
@@ -599,6 +615,9 @@ public class Towny extends JavaPlugin {
 			
 			if (cache != null)
 				cache.setLastTownBlock(WorldCoord.parseWorldCoord(player));
+		} else if (cache.isStale()) {
+			// Something the cached permissions depend on has changed.
+			cache.resetAndUpdate(WorldCoord.parseWorldCoord(player));
 		}
 
 		return cache;
@@ -606,12 +625,15 @@ public class Towny extends JavaPlugin {
 
 	/**
 	 * Resets all Online player caches, retaining their location info.
+	 * 
+	 * The caches are reset lazily, the next time each one is fetched. Where
+	 * only a TownBlock, Town or Resident has changed, calling
+	 * {@link com.palmergames.bukkit.towny.object.TownyObject#markModified()}
+	 * on it resets only the caches which depend on it.
 	 */
 	public void resetCache() {
 
-		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				getCache(player).resetAndUpdate(WorldCoord.parseWorldCoord(player)); // Automatically resets permissions.
+		PlayerCache.invalidateAll();
 	}
 
 	/**
@@ -621,10 +643,10 @@ public class Towny extends JavaPlugin {
 	 */
 	public void updateCache(WorldCoord worldCoord) {
 
-		for (Player player : BukkitTools.getOnlinePlayers())
-			if (player != null)
-				if (Coord.parseCoord(player).equals(worldCoord))
-					getCache(player).resetAndUpdate(worldCoord); // Automatically resets permissions.
+		// Only the caches made in this townblock depend on it, they reset when next fetched.
+		TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldCoord);
+		if (townBlock != null)
+			townBlock.markModified();
 	}
 
 	/**
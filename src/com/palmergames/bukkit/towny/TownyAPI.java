@@ -301,7 +301,7 @@ public class TownyAPI {
      * @return true if the {@link Block} is in the wilderness, false otherwise.
      */
     public boolean isWilderness(Block block) {
-        return isWilderness(block.getLocation());
+        return isWilderness(block.getWorld(), block.getX(), block.getZ());
     }
     
     /**
@@ -311,7 +311,20 @@ public class TownyAPI {
      * @return true if the {@link Location} is in the wilderness, false otherwise.
      */
     public boolean isWilderness(Location location) {
-        return isWilderness(WorldCoord.parseWorldCoord(location));
+        return isWilderness(location.getWorld(), location.getBlockX(), location.getBlockZ());
+    }
+
+    /**
+     * Check if the given block position is in the wilderness, without allocating a {@link WorldCoord}.
+     *
+     * @param world {@link World} the position is in.
+     * @param blockX block x coordinate.
+     * @param blockZ block z coordinate.
+     * @return true if the position is in the wilderness, false otherwise.
+     */
+    public boolean isWilderness(World world, int blockX, int blockZ) {
+        TownBlock townBlock = townyUniverse.getTownBlockOrNull(world, blockX, blockZ);
+        return townBlock == null || !townBlock.hasTown();
     }
     
     /**
@@ -368,8 +381,8 @@ public class TownyAPI {
      */
     @Nullable
     public Town getTown(Location location) {
-        WorldCoord worldCoord = WorldCoord.parseWorldCoord(location);
-		return worldCoord.getTownOrNull();
+        TownBlock townBlock = getTownBlock(location);
+		return townBlock == null ? null : townBlock.getTownOrNull();
     }
     
     /**
@@ -428,8 +441,20 @@ public class TownyAPI {
      */
     @Nullable
     public TownBlock getTownBlock(Location location) {
-        WorldCoord worldCoord = WorldCoord.parseWorldCoord(location);
-		return worldCoord.getTownBlockOrNull();
+		return townyUniverse.getTownBlockOrNull(location.getWorld(), location.getBlockX(), location.getBlockZ());
+    }
+
+    /**
+     * Get the {@link TownBlock} at a specific block position, without allocating a {@link WorldCoord}.
+     *
+     * @param world {@link World} the position is in.
+     * @param blockX block x coordinate.
+     * @param blockZ block z coordinate.
+     * @return {@link TownBlock} at this position, or {@code null} for none.
+     */
+    @Nullable
+    public TownBlock getTownBlock(World world, int blockX, int blockZ) {
+		return townyUniverse.getTownBlockOrNull(world, blockX, blockZ);
     }
     
     /** 
@@ -575,7 +600,7 @@ public class TownyAPI {
     public TownBlockStatus hasNationZone(WorldCoord worldCoord) {
     	
 		int distance;
-		final TownBlock nearestTownblock = TownyAPI.getInstance().getTownyWorld(worldCoord.getWorldName()).getClosestTownblockWithNationFromCoord(worldCoord);
+		final TownBlock nearestTownblock = TownyAPI.getInstance().getTownyWorld(worldCoord.getWorldName()).getNationZoneTownBlock(worldCoord);
 		
 		if (nearestTownblock == null) {
 			return TownBlockStatus.UNCLAIMED_ZONE;
@@ -653,7 +653,7 @@ public class TownyFormatter {
 
 		List<String> out = new ArrayList<>();
 		Town town = null;
-		boolean taxExempt = TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt");
+		boolean taxExempt = TownyPerms.getResolvedResidentPerms(resident).containsKey("towny.tax_exempt");
 		double plotTax = 0.0;
 		double townTax = 0.0;
 
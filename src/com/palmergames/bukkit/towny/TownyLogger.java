@@ -14,13 +14,33 @@ import org.apache.logging.log4j.core.layout.PatternLayout;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * @author Lukas Mansour (Articdive)
  */
 public class TownyLogger {
-	private static final TownyLogger instance = new TownyLogger();
 	private static final Logger LOGGER_MONEY = LogManager.getLogger("com.palmergames.bukkit.towny.money");
+	private static final Logger LOGGER_DATABASE = LogManager.getLogger("com.palmergames.bukkit.towny.database");
+	private static final DateTimeFormatter MONEY_DATE = DateTimeFormatter.ofPattern("dd MMM yyyy HH:mm:ss", Locale.getDefault()).withZone(ZoneId.systemDefault());
+	private static final DateTimeFormatter DATABASE_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss,SSS").withZone(ZoneId.systemDefault());
+	// Created after the loggers and formats it uses.
+	private static final TownyLogger instance = new TownyLogger();
+	
+	private final boolean moneyJson;
+	private final FileAppender townyMoneyAppender;
+	private final FileAppender townyDatabaseAppender;
+	// Null unless the money and database logs are written in the background.
+	private final AsyncLogWriter asyncWriter;
 	
 	@SuppressWarnings("deprecation") // Until Mojang updates their log4j included with minecraft we have to use the deprecated methods.
 	private TownyLogger() {
@@ -28,6 +48,8 @@ public class TownyLogger {
 		Configuration config = ctx.getConfiguration();
 		// Get log location.
 		String logFolderName = TownyUniverse.getInstance().getRootFolder() + File.separator + "logs";
+		moneyJson = TownySettings.isMoneyLogJson();
+		boolean async = TownySettings.isAsyncLogging();
 		
 		Appender townyMainAppender = FileAppender.newBuilder()
 			.withFileName(logFolderName + File.separator + "towny.log")
@@ -43,19 +65,21 @@ public class TownyLogger {
 				.withConfiguration(config)
 				.build())
 			.build();
-		Appender townyMoneyAppender = FileAppender.newBuilder()
-			.withFileName(logFolderName + File.separator + "money.csv")
+		// The date is part of each money and database record, so it is the time of the
+		// transaction and not the time a background writer got around to writing it.
+		// When written in the background these logs are buffered and flushed after every batch.
+		townyMoneyAppender = FileAppender.newBuilder()
+			.withFileName(logFolderName + File.separator + (moneyJson ? "money.jsonl" : "money.csv"))
 			.withName("Towny-Money")
 			.withAppend(TownySettings.isAppendingToLog())
 			.withIgnoreExceptions(false)
-			.withBufferedIo(false)
-			.withBufferSize(0)
+			.withBufferedIo(async)
+			.withBufferSize(async ? 8192 : 0)
+			.withImmediateFlush(!async)
 			.setConfiguration(config)
 			.withLayout(PatternLayout.newBuilder()
-				// The comma after the date is to seperate it in CSV, this is a really nice workaround
-				// And avoids having to use apache-csv to make it work with Log4J
 				.withCharset(StandardCharsets.UTF_8)
-				.withPattern("%d{dd MMM yyyy HH:mm:ss},%m%n")
+				.withPattern("%m%n")
 				.withConfiguration(config)
 				.build())
 			.build();
@@ -73,17 +97,18 @@ public class TownyLogger {
 				.withConfiguration(config)
 				.build())
 			.build();
-		Appender townyDatabaseAppender = FileAppender.newBuilder()
+		townyDatabaseAppender = FileAppender.newBuilder()
 			.withFileName(logFolderName + File.separator + "database.log")
 			.withName("Towny-Database")
 			.withAppend(TownySettings.isAppendingToLog())
 			.withIgnoreExceptions(false)
-			.withBufferedIo(false)
-			.withBufferSize(0)
+			.withBufferedIo(async)
+			.withBufferSize(async ? 8192 : 0)
+			.withImmediateFlush(!async)
 			.setConfiguration(config)
 			.withLayout(PatternLayout.newBuilder()
 				.withCharset(StandardCharsets.UTF_8)
-				.withPattern("%d [%t]: %m%n")
+				.withPattern("%m%n")
 				.withConfiguration(config)
 				.build())
 			.build();
@@ -111,8 +136,11 @@ public class TownyLogger {
 		// Database
 		LoggerConfig townyDatabaseConfig = LoggerConfig.createLogger(false, Level.ALL, "Towny-Database", null, new AppenderRef[0], null, config, null);
 		townyDatabaseConfig.addAppender(townyDatabaseAppender, Level.ALL, null);
+		config.addLogger("com.palmergames.bukkit.towny.database", townyDatabaseConfig);
 		
 		ctx.updateLoggers();
+		
+		asyncWriter = async ? new AsyncLogWriter(TownySettings.getAsyncLoggingQueueSize(), OverflowPolicy.parse(TownySettings.getAsyncLoggingOverflowPolicy())) : null;
 	}
 	
 	public void refreshDebugLogger() {
@@ -140,22 +168,243 @@ public class TownyLogger {
 			receiver = b.getName();
 		}
 		
-		if (reason == null) {
-			LOGGER_MONEY.info(String.format("%s,%s,%s,%s", "Unknown Reason", sender, amount, receiver));
-		} else {
-			LOGGER_MONEY.info(String.format("%s,%s,%s,%s", reason, sender, amount, receiver));
-		}
+		logMoneyTransaction(sender, amount, receiver, reason);
 	}
 	
 	public void logMoneyTransaction(String a, double amount, String b, String reason) {
-		if (reason == null) {
-			LOGGER_MONEY.info(String.format("%s,%s,%s,%s", "Unknown Reason", a, amount, b));
-		} else {
-			LOGGER_MONEY.info(String.format("%s,%s,%s,%s", reason, a, amount, b));
-		}
+		submit(new MoneyRecord(System.currentTimeMillis(), reason == null ? "Unknown Reason" : reason, a, amount, b));
+	}
+	
+	/**
+	 * Record a message in the database.log.
+	 * 
+	 * @param message the message to record.
+	 */
+	public void logDatabase(String message) {
+		submit(new DatabaseRecord(System.currentTimeMillis(), Thread.currentThread().getName(), message));
+	}
+	
+	private void submit(LogRecord record) {
+		if (asyncWriter == null)
+			record.write();
+		else
+			asyncWriter.submit(record);
+	}
+	
+	/**
+	 * Write out every record still waiting in the background and stop the
+	 * writer. Anything logged afterwards is written straight away.
+	 */
+	public void flush() {
+		if (asyncWriter != null)
+			asyncWriter.stop();
 	}
 
 	public static TownyLogger getInstance() {
 		return instance;
 	}
+	
+	private abstract static class LogRecord {
+		final long time;
+		
+		LogRecord(long time) {
+			this.time = time;
+		}
+		
+		abstract void write();
+	}
+	
+	private final class MoneyRecord extends LogRecord {
+		private final String reason;
+		private final String sender;
+		private final double amount;
+		private final String receiver;
+		
+		MoneyRecord(long time, String reason, String sender, double amount, String receiver) {
+			super(time);
+			this.reason = reason;
+			this.sender = sender;
+			this.amount = amount;
+			this.receiver = receiver;
+		}
+		
+		@Override
+		void write() {
+			if (moneyJson)
+				LOGGER_MONEY.info("{\"t\":" + time + ",\"reason\":" + json(reason) + ",\"from\":" + json(sender) + ",\"amount\":" + amount + ",\"to\":" + json(receiver) + "}");
+			else
+				// The comma after the date is to seperate it in CSV.
+				LOGGER_MONEY.info(MONEY_DATE.format(Instant.ofEpochMilli(time)) + "," + reason + "," + sender + "," + amount + "," + receiver);
+		}
+	}
+	
+	private static final class DatabaseRecord extends LogRecord {
+		private final String thread;
+		private final String message;
+		
+		DatabaseRecord(long time, String thread, String message) {
+			super(time);
+			this.thread = thread;
+			this.message = message;
+		}
+		
+		@Override
+		void write() {
+			LOGGER_DATABASE.info(DATABASE_DATE.format(Instant.ofEpochMilli(time)) + " [" + thread + "]: " + message);
+		}
+	}
+	
+	private static String json(String text) {
+		if (text == null)
+			return "null";
+		
+		StringBuilder out = new StringBuilder(text.length() + 2).append('"');
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '"':
+				case '\\':
+					out.append('\\').append(c);
+					break;
+				case '\n':
+					out.append("\\n");
+					break;
+				case '\r':
+					out.append("\\r");
+					break;
+				case '\t':
+					out.append("\\t");
+					break;
+				default:
+					if (c < 0x20)
+						out.append(String.format("\\u%04x", (int) c));
+					else
+						out.append(c);
+			}
+		}
+		return out.append('"').toString();
+	}
+	
+	private enum OverflowPolicy {
+		BLOCK, WRITE, DISCARD;
+		
+		static OverflowPolicy parse(String name) {
+			try {
+				return valueOf(name.trim().toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				TownyMessaging.sendErrorMsg("Unknown async logging overflow_policy '" + name + "', using block.");
+				return BLOCK;
+			}
+		}
+	}
+	
+	/**
+	 * Writes log records from a daemon thread, taking everything waiting in the
+	 * queue as one batch and flushing the files once per batch.
+	 */
+	private final class AsyncLogWriter implements Runnable {
+		private static final int BATCH_SIZE = 512;
+		
+		private final BlockingQueue<LogRecord> queue;
+		private final OverflowPolicy overflowPolicy;
+		private final AtomicLong discarded = new AtomicLong();
+		private final Thread thread;
+		private volatile boolean running = true;
+		
+		AsyncLogWriter(int queueSize, OverflowPolicy overflowPolicy) {
+			this.queue = new ArrayBlockingQueue<>(queueSize);
+			this.overflowPolicy = overflowPolicy;
+			this.thread = new Thread(this, "Towny-Log-Writer");
+			this.thread.setDaemon(true);
+			this.thread.start();
+		}
+		
+		void submit(LogRecord record) {
+			if (!running) {
+				writeNow(record);
+				return;
+			}
+			
+			if (queue.offer(record))
+				return;
+			
+			switch (overflowPolicy) {
+				case BLOCK:
+					try {
+						// Check now and then that the writer hasn't been stopped while waiting.
+						while (!queue.offer(record, 100, TimeUnit.MILLISECONDS)) {
+							if (!running) {
+								writeNow(record);
+								return;
+							}
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						writeNow(record);
+					}
+					break;
+				case WRITE:
+					writeNow(record);
+					break;
+				case DISCARD:
+					discarded.incrementAndGet();
+					break;
+			}
+		}
+		
+		private void writeNow(LogRecord record) {
+			record.write();
+			flushFiles();
+		}
+		
+		@Override
+		public void run() {
+			List<LogRecord> batch = new ArrayList<>(BATCH_SIZE);
+			while (running || !queue.isEmpty()) {
+				try {
+					LogRecord first = queue.poll(1, TimeUnit.SECONDS);
+					if (first == null)
+						continue;
+					batch.add(first);
+				} catch (InterruptedException e) {
+					// Stopping, write out what is left.
+				}
+				queue.drainTo(batch, BATCH_SIZE - batch.size());
+				
+				for (LogRecord record : batch) {
+					try {
+						record.write();
+					} catch (RuntimeException e) {
+						TownyMessaging.sendErrorMsg("Could not write a log record: " + e.getMessage());
+					}
+				}
+				batch.clear();
+				flushFiles();
+				
+				long lost = discarded.getAndSet(0);
+				if (lost > 0)
+					TownyMessaging.sendErrorMsg("The log queue was full, " + lost + " money and database log records were discarded.");
+			}
+		}
+		
+		void stop() {
+			running = false;
+			thread.interrupt();
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(10));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			// Anything the writer didn't get to.
+			LogRecord record;
+			while ((record = queue.poll()) != null)
+				record.write();
+			flushFiles();
+		}
+	}
+	
+	private void flushFiles() {
+		townyMoneyAppender.getManager().flush();
+		townyDatabaseAppender.getManager().flush();
+	}
 }
\ No newline at end of file
@@ -630,21 +630,21 @@ public class TownyMessaging {
 	}
 
 	public static void sendTownList(CommandSender sender, List<TextComponent> towns, ComparatorType compType, int page, int total) {
+		int iMin = Math.min((page - 1) * 10, towns.size());
 		int iMax = Math.min(page * 10, towns.size());
+		sendTownListPage(sender, towns.subList(iMin, iMax), compType, page, total);
+	}
 
-		TextComponent[] townsformatted;
-		
-		if ((page * 10) > towns.size()) {
-			townsformatted = new TextComponent[towns.size() % 10];
-		} else {
-			townsformatted = new TextComponent[10];
-		}
-		
-		// Populate the page with TextComponents.
-		for (int i = (page - 1) * 10; i < iMax; i++) {
-			townsformatted[i % 10] = towns.get(i);
-		}
-		
+	/**
+	 * Send one page of the town list.
+	 * 
+	 * @param sender - Sender to send the list to.
+	 * @param townsformatted - The lines on this page.
+	 * @param compType - The order of the list.
+	 * @param page - The page number.
+	 * @param total - The number of pages.
+	 */
+	public static void sendTownListPage(CommandSender sender, List<TextComponent> townsformatted, ComparatorType compType, int page, int total) {
 		Audience audience = Towny.getAdventure().sender(sender);
 		sender.sendMessage(ChatTools.formatTitle(Translation.of("town_plu")));
 		sender.sendMessage(Colors.Blue + Translation.of("town_name") + (TownySettings.isTownListRandom() ? "" : Colors.Gray + " - " + Colors.LightBlue + Translation.of(compType.getName())));
@@ -682,20 +682,21 @@ public class TownyMessaging {
 	}
 
 	public static void sendNationList(CommandSender sender, List<TextComponent> nations, ComparatorType compType, int page, int total) {
+		int iMin = Math.min((page - 1) * 10, nations.size());
 		int iMax = Math.min(page * 10, nations.size());
+		sendNationListPage(sender, nations.subList(iMin, iMax), compType, page, total);
+	}
 
-		TextComponent[] nationsformatted;
-		if ((page * 10) > nations.size()) {
-			nationsformatted = new TextComponent[nations.size() % 10];
-		} else {
-			nationsformatted = new TextComponent[10];
-		}
-		
-		// Populate the page with TextComponents.
-		for (int i = (page - 1) * 10; i < iMax; i++) {
-			nationsformatted[i % 10] = nations.get(i);
-		}
-
+	/**
+	 * Send one page of the nation list.
+	 * 
+	 * @param sender - Sender to send the list to.
+	 * @param nationsformatted - The lines on this page.
+	 * @param compType - The order of the list.
+	 * @param page - The page number.
+	 * @param total - The number of pages.
+	 */
+	public static void sendNationListPage(CommandSender sender, List<TextComponent> nationsformatted, ComparatorType compType, int page, int total) {
 		sender.sendMessage(ChatTools.formatTitle(Translation.of("nation_plu")));
 		sender.sendMessage(Colors.Blue + Translation.of("nation_name") + Colors.Gray + " - " + Colors.LightBlue + Translation.of(compType.getName()));
 		Audience audience = Towny.getAdventure().sender(sender);
@@ -2,6 +2,7 @@ package com.palmergames.bukkit.towny;
 
 import com.palmergames.bukkit.config.CommentedConfiguration;
 import com.palmergames.bukkit.config.ConfigNodes;
+import com.palmergames.bukkit.config.ConfigSnapshot;
 import com.palmergames.bukkit.towny.event.NationBonusCalculationEvent;
 import com.palmergames.bukkit.towny.event.NationUpkeepCalculationEvent;
 import com.palmergames.bukkit.towny.event.TownUpkeepCalculationEvent;
@@ -13,6 +14,7 @@ import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlockOwner;
 import com.palmergames.bukkit.towny.object.TownSpawnLevel.SpawnLevel;
+import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.TownyPermission.PermLevel;
 import com.palmergames.bukkit.towny.object.Translation;
@@ -58,6 +60,10 @@ public class TownySettings {
 
 	// private static Pattern namePattern = null;
 	private static CommentedConfiguration config, newConfig, playermap;
+	// Parsed copy of the config, replaced as a whole whenever the config changes.
+	private static volatile ConfigSnapshot snapshot;
+	// Widest nation zone of any nation level, worked out when the config or nation levels are loaded.
+	private static volatile int maxNationZoneSize = 0;
 	private static int uuidCount;
 
 	private static final SortedMap<Integer, Map<TownySettings.TownLevel, Object>> configTownLevel = Collections.synchronizedSortedMap(new TreeMap<Integer, Map<TownySettings.TownLevel, Object>>(Collections.reverseOrder()));
@@ -194,6 +200,7 @@ public class TownySettings {
 			}
 
 		}
+		updateMaxNationZoneSize();
 	}
 
 	public static Map<TownySettings.TownLevel, Object> getTownLevel(int numResidents) {
@@ -224,6 +231,25 @@ public class TownySettings {
 		return config;
 	}
 
+	/**
+	 * Re-reads every config node into a new {@link ConfigSnapshot} used by the
+	 * settings getters. Must be called after anything changes the config
+	 * directly, as the ConfigMigrator does.
+	 */
+	public static void compileConfig() {
+		snapshot = new ConfigSnapshot(config);
+		updateMaxNationZoneSize();
+	}
+
+	private static ConfigSnapshot getSnapshot() {
+		ConfigSnapshot current = snapshot;
+		if (current == null) {
+			current = new ConfigSnapshot(config);
+			snapshot = current;
+		}
+		return current;
+	}
+
 	public static int calcTownLevel(Town town) {
 //Creatorfromhell's PR for replacing SortedMap town and nation levels.
 //		Integer level = configTownLevel.floorKey(town.getNumResidents());
@@ -298,6 +324,7 @@ public class TownySettings {
 			setDefaults(version, file);
 
 			config.save();
+			compileConfig();
 			
 			loadWarMaterialsLists(); // TODO: move this to be with the other war stuff.
 			loadSwitchAndItemUseMaterialsLists();
@@ -393,32 +420,32 @@ public class TownySettings {
 
 	public static boolean getBoolean(ConfigNodes node) {
 
-		return Boolean.parseBoolean(config.getString(node.getRoot().toLowerCase(), node.getDefault()));
+		return getSnapshot().getBoolean(node);
 	}
 
 	public static double getDouble(ConfigNodes node) {
 
-		try {
-			return Double.parseDouble(config.getString(node.getRoot().toLowerCase(), node.getDefault()).trim());
-		} catch (NumberFormatException e) {
+		ConfigSnapshot current = getSnapshot();
+		if (!current.isDouble(node)) {
 			sendError(node.getRoot().toLowerCase() + " from config.yml");
 			return 0.0;
 		}
+		return current.getDouble(node);
 	}
 
 	public static int getInt(ConfigNodes node) {
 
-		try {
-			return Integer.parseInt(config.getString(node.getRoot().toLowerCase(), node.getDefault()).trim());
-		} catch (NumberFormatException e) {
+		ConfigSnapshot current = getSnapshot();
+		if (!current.isInt(node)) {
 			sendError(node.getRoot().toLowerCase() + " from config.yml");
 			return 0;
 		}
+		return current.getInt(node);
 	}
 
 	public static String getString(ConfigNodes node) {
 
-		return config.getString(node.getRoot().toLowerCase(), node.getDefault());
+		return getSnapshot().getString(node);
 	}
 
 	public static String getString(String root, String def) {
@@ -481,12 +508,12 @@ public class TownySettings {
 
 	public static long getSeconds(ConfigNodes node) {
 
-		try {
-			return TimeTools.getSeconds(getString(node));
-		} catch (NumberFormatException e) {
+		ConfigSnapshot current = getSnapshot();
+		if (!current.isSeconds(node)) {
 			sendError(node.getRoot().toLowerCase() + " from config.yml");
 			return 1;
 		}
+		return current.getSeconds(node);
 	}
 
 	public static Set<Material> getAllowedMaterials(ConfigNodes node) {
@@ -933,6 +960,10 @@ public class TownySettings {
 		return getString(ConfigNodes.PLUGIN_DATABASE_FLAGS);
 	}
 
+	public static int getSQLBatchSize() {
+		return getInt(ConfigNodes.PLUGIN_DATABASE_SQL_BATCH_SIZE);
+	}
+
 	public static int getMaxPoolSize() {
 		return getInt(ConfigNodes.PLUGIN_DATABASE_POOLING_MAX_POOL_SIZE);
 	}
@@ -945,6 +976,14 @@ public class TownySettings {
 		return getInt(ConfigNodes.PLUGIN_DATABASE_POOLING_CONNECTION_TIMEOUT);
 	}
 
+	public static long getSaveMaxLatency() {
+		return TimeTools.getMillis(getString(ConfigNodes.PLUGIN_DATABASE_SAVE_MAX_LATENCY));
+	}
+
+	public static boolean isFlatFileTownBlockLogEnabled() {
+		return getString(ConfigNodes.PLUGIN_DATABASE_FLATFILE_TOWNBLOCK_STORAGE).equalsIgnoreCase("log");
+	}
+
 	public static int getMaxTownBlocks(Town town) {
 
 		int ratio = getTownBlockRatio();
@@ -1229,6 +1268,14 @@ public class TownySettings {
 		return getSeconds(ConfigNodes.ECO_BANK_CACHE_TIMEOUT) * 1000;
 	}
 
+	public static boolean isBankLedgerEnabled() {
+		return getBoolean(ConfigNodes.ECO_BANK_LEDGER_ENABLED);
+	}
+
+	public static long getBankLedgerFlushInterval() {
+		return Math.max(1, getSeconds(ConfigNodes.ECO_BANK_LEDGER_FLUSH_INTERVAL));
+	}
+
 	public static boolean isRemovingVillagerBabiesWorld() {
 
 		return getBoolean(ConfigNodes.PROT_MOB_REMOVE_VILLAGER_BABIES_WORLD);
@@ -1481,6 +1528,7 @@ public class TownySettings {
 	private static void setProperty(String root, Object value) {
 
 		config.set(root.toLowerCase(), value.toString());
+		compileConfig();
 	}
 
 	private static void setNewProperty(String root, Object value) {
@@ -2079,6 +2127,11 @@ public class TownySettings {
 		return getSeconds(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_TIME);
 	}
 
+	public static int getPlotManagementTickBudget() {
+
+		return getInt(ConfigNodes.NWS_PLOT_MANAGEMENT_REVERT_TICK_BUDGET);
+	}
+
 	public static boolean isUsingPlotManagementWildEntityRegen() {
 
 		return getBoolean(ConfigNodes.NWS_PLOT_MANAGEMENT_WILD_MOB_REVERT_ENABLE);
@@ -2594,6 +2647,22 @@ public class TownySettings {
 		return !getBoolean(ConfigNodes.PLUGIN_RESET_LOG_ON_BOOT);
 	}
 	
+	public static boolean isAsyncLogging() {
+		return getBoolean(ConfigNodes.PLUGIN_ASYNC_LOGGING_ENABLED);
+	}
+
+	public static int getAsyncLoggingQueueSize() {
+		return Math.max(16, getInt(ConfigNodes.PLUGIN_ASYNC_LOGGING_QUEUE_SIZE));
+	}
+
+	public static String getAsyncLoggingOverflowPolicy() {
+		return getString(ConfigNodes.PLUGIN_ASYNC_LOGGING_OVERFLOW_POLICY);
+	}
+
+	public static boolean isMoneyLogJson() {
+		return getString(ConfigNodes.PLUGIN_MONEY_LOG_FORMAT).equalsIgnoreCase("json");
+	}
+	
 	public static int getTownyTopSize() {
 		return getInt(ConfigNodes.PLUGIN_TOWNY_TOP_SIZE);
 	}
@@ -2793,6 +2862,36 @@ public class TownySettings {
 	public static int getNationZonesCapitalBonusSize() {
 		return getInt(ConfigNodes.GNATION_SETTINGS_NATIONZONE_CAPITAL_BONUS_SIZE);
 	}
+
+	/**
+	 * @return the widest a nation zone can be, across every nation level and including the capital bonus.
+	 */
+	public static int getMaxNationZoneSize() {
+		return maxNationZoneSize;
+	}
+
+	/**
+	 * Works out the widest nation zone again, throwing away every world's
+	 * nation zones if it has changed.
+	 */
+	private static void updateMaxNationZoneSize() {
+		int max = 0;
+		synchronized (configNationLevel) {
+			for (Map<TownySettings.NationLevel, Object> level : configNationLevel.values()) {
+				try {
+					max = Math.max(max, Integer.parseInt(level.get(TownySettings.NationLevel.NATIONZONES_SIZE).toString()));
+				} catch (NumberFormatException ignored) {
+				}
+			}
+		}
+		max += Math.max(0, getNationZonesCapitalBonusSize());
+		if (max == maxNationZoneSize)
+			return;
+
+		maxNationZoneSize = max;
+		for (TownyWorld world : TownyUniverse.getInstance().getWorldMap().values())
+			world.clearNationZones();
+	}
 	
 	public static boolean isNationSpawnOnlyAllowedInCapital() { 
 		return getBoolean(ConfigNodes.GNATION_SETTINGS_CAPITAL_SPAWN);
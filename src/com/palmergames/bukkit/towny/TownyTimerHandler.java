@@ -1,5 +1,6 @@
 package com.palmergames.bukkit.towny;
 
+import com.palmergames.bukkit.towny.object.economy.BankLedger;
 import com.palmergames.bukkit.towny.tasks.CooldownTimerTask;
 import com.palmergames.bukkit.towny.tasks.DailyTimerTask;
 import com.palmergames.bukkit.towny.tasks.DrawSmokeTask;
@@ -7,6 +8,7 @@ import com.palmergames.bukkit.towny.tasks.DrawSpawnPointsTask;
 import com.palmergames.bukkit.towny.tasks.GatherResidentUUIDTask;
 import com.palmergames.bukkit.towny.tasks.HealthRegenTimerTask;
 import com.palmergames.bukkit.towny.tasks.MobRemovalTimerTask;
+import com.palmergames.bukkit.towny.tasks.PlotRegenTimerTask;
 import com.palmergames.bukkit.towny.tasks.RepeatingTimerTask;
 import com.palmergames.bukkit.towny.tasks.TeleportWarmupTimerTask;
 import com.palmergames.bukkit.towny.tasks.HourlyTimerTask;
@@ -35,6 +37,7 @@ public class TownyTimerHandler{
 	}
 	
 	private static int townyRepeatingTask = -1;
+	private static int plotRegenTask = -1;
 	private static int dailyTask = -1;
 	private static int hourlyTask = -1;
 	private static int shortTask = -1;
@@ -45,6 +48,7 @@ public class TownyTimerHandler{
 	private static int drawSmokeTask = -1;
 	private static int gatherResidentUUIDTask = -1;
 	private static int drawSpawnPointsTask = -1;
+	private static int bankLedgerTask = -1;
 
 	public static void newDay() {
 
@@ -60,6 +64,21 @@ public class TownyTimerHandler{
 		}
 	}
 
+	/**
+	 * Carries on with a new day which was left unfinished when Towny stopped,
+	 * if its next new day isn't due yet.
+	 */
+	public static void resumeNewDay() {
+
+		if (TownySettings.isEconomyAsync()) {
+			if (BukkitTools.scheduleAsyncDelayedTask(new DailyTimerTask(plugin, true),0L) == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule the unfinished newDay.");
+		} else {
+			if (BukkitTools.scheduleSyncDelayedTask(new DailyTimerTask(plugin, true),0L) == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule the unfinished newDay.");
+		}
+	}
+
 	public static void newHour() {
 		if (!isHourlyTimerRunning())
 			toggleHourlyTimer(true);
@@ -80,10 +99,23 @@ public class TownyTimerHandler{
 		}
 	}
 
+	public static void togglePlotRegen(boolean on) {
+
+		if (on && !isPlotRegenRunning()) {
+			plotRegenTask = BukkitTools.scheduleSyncRepeatingTask(new PlotRegenTimerTask(plugin), 0, 1);
+			if (plotRegenTask == -1)
+				TownyMessaging.sendErrorMsg("Could not schedule plot regen loop.");
+		} else if (!on && isPlotRegenRunning()) {
+			BukkitTools.getScheduler().cancelTask(plotRegenTask);
+			plotRegenTask = -1;
+		}
+	}
+
 	public static void toggleMobRemoval(boolean on) {
 
 		if (on && !isMobRemovalRunning()) {
-			mobRemoveTask = BukkitTools.scheduleSyncRepeatingTask(new MobRemovalTimerTask(plugin, BukkitTools.getServer()), 0, TimeTools.convertToTicks(TownySettings.getMobRemovalSpeed()));
+			// Runs every tick, spreading each sweep of the loaded chunks over the mob removal interval.
+			mobRemoveTask = BukkitTools.scheduleSyncRepeatingTask(new MobRemovalTimerTask(plugin, BukkitTools.getServer()), 0, 1);
 			if (mobRemoveTask == -1)
 				TownyMessaging.sendErrorMsg("Could not schedule mob removal loop.");
 		} else if (!on && isMobRemovalRunning()) {
@@ -211,12 +243,37 @@ public class TownyTimerHandler{
 		}
 	}
 
+	public static void toggleBankLedger(boolean on) {
+		if (on && !isBankLedgerRunning()) {
+			BankLedger.start();
+			long interval = TimeTools.convertToTicks(TownySettings.getBankLedgerFlushInterval());
+			if (TownySettings.isEconomyAsync())
+				bankLedgerTask = BukkitTools.scheduleAsyncRepeatingTask(BankLedger::flush, interval, interval);
+			else
+				bankLedgerTask = BukkitTools.scheduleSyncRepeatingTask(BankLedger::flush, interval, interval);
+			if (bankLedgerTask == -1) {
+				TownyMessaging.sendErrorMsg("Could not schedule bank ledger loop.");
+				BankLedger.stop();
+			}
+		} else if (!on && isBankLedgerRunning()) {
+			BukkitTools.getScheduler().cancelTask(bankLedgerTask);
+			bankLedgerTask = -1;
+			// Send everything still outstanding to the economy plugin before carrying on without the ledger.
+			BankLedger.stop();
+		}
+	}
+
 	public static boolean isTownyRepeatingTaskRunning() {
 
 		return townyRepeatingTask != -1;
 
 	}
 
+	public static boolean isPlotRegenRunning() {
+
+		return plotRegenTask != -1;
+	}
+
 	public static boolean isMobRemovalRunning() {
 
 		return mobRemoveTask != -1;
@@ -267,6 +324,11 @@ public class TownyTimerHandler{
 		return drawSpawnPointsTask != -1;
 	}
 	
+	public static boolean isBankLedgerRunning() {
+		
+		return bankLedgerTask != -1;
+	}
+	
 	/**
 	 * Calculates the time in seconds until the next new day event.
 	 * TimeZone specific, including daylight savings.
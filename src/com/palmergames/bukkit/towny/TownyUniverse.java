@@ -2,6 +2,7 @@ package com.palmergames.bukkit.towny;
 
 import com.palmergames.annotations.Unmodifiable;
 import com.palmergames.bukkit.config.migration.ConfigMigrator;
+import com.palmergames.bukkit.towny.db.SQL_Dialect;
 import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.db.TownyDatabaseHandler;
 import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
@@ -12,6 +13,7 @@ import com.palmergames.bukkit.towny.exceptions.InvalidNameException;
 import com.palmergames.bukkit.towny.exceptions.KeyAlreadyRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlotGroup;
 import com.palmergames.bukkit.towny.object.Resident;
@@ -21,6 +23,7 @@ import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.object.WorldCoord;
+import com.palmergames.bukkit.towny.object.comparators.TownyLeaderboards;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.object.metadata.MetadataLoader;
@@ -31,6 +34,7 @@ import com.palmergames.bukkit.towny.tasks.CleanupTask;
 import com.palmergames.bukkit.towny.war.eventwar.War;
 import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.NameValidation;
+import com.palmergames.util.LongObjectMap;
 import com.palmergames.util.Trie;
 import org.apache.commons.lang.Validate;
 import org.bukkit.Bukkit;
@@ -76,10 +80,12 @@ public class TownyUniverse {
     private final Map<String, Nation> nationNameMap = new ConcurrentHashMap<>();
 	private final Map<UUID, Nation> nationUUIDMap = new ConcurrentHashMap<>();
     private final Trie nationsTrie = new Trie();
+    private final TownyLeaderboards leaderboards = new TownyLeaderboards();
     
     private final Map<String, TownyWorld> worlds = new ConcurrentHashMap<>();
     private final Map<String, CustomDataField<?>> registeredMetadata = new HashMap<>();
 	private final Map<WorldCoord, TownBlock> townBlocks = new ConcurrentHashMap<>();
+	private final Map<String, LongObjectMap<TownBlock>> townBlockIndex = new ConcurrentHashMap<>();
 	private CompletableFuture<Void> backupFuture;
     
 	private final Map<Block, SpawnPoint> spawnPoints = new ConcurrentHashMap<>(); 
@@ -139,6 +145,7 @@ public class TownyUniverse {
         if (!TownySettings.getLastRunVersion().equals(towny.getVersion())) {
 			ConfigMigrator migrator = new ConfigMigrator(TownySettings.getConfig(), "config-migration.json");
 			migrator.migrate();
+			TownySettings.compileConfig();
 		}
         
         // Loads Town and Nation Levels after migration has occured.
@@ -200,8 +207,10 @@ public class TownyUniverse {
         residentNameMap.clear();
         residentUUIDMap.clear();
         townBlocks.clear();
+        townBlockIndex.clear();
         spawnPoints.clear();
         jailUUIDMap.clear();
+        leaderboards.clear();
     }
     
     /**
@@ -252,6 +261,10 @@ public class TownyUniverse {
                 this.dataSource = new TownySQLSource(towny, this);
                 break;
             }
+            case "h2": {
+                this.dataSource = new TownySQLSource(towny, this, SQL_Dialect.H2);
+                break;
+            }
             default: {
                 return false;
             }
@@ -279,6 +292,10 @@ public class TownyUniverse {
                     this.dataSource = new TownySQLSource(towny, this);
                     break;
                 }
+                case "h2": {
+                    this.dataSource = new TownySQLSource(towny, this, SQL_Dialect.H2);
+                    break;
+                }
                 default: {}
             }
 
@@ -485,6 +502,7 @@ public class TownyUniverse {
 
 		residentsTrie.addKey(resident.getName());
 		registerResidentUUID(resident);
+		leaderboards.update(resident);
 	}
 
 	/**
@@ -502,6 +520,7 @@ public class TownyUniverse {
 		}
 
 		residentsTrie.removeKey(resident.getName());
+		leaderboards.remove(resident);
 
 		if (resident.getUUID() != null) {
 			if (residentUUIDMap.remove(resident.getUUID()) == null) {
@@ -536,6 +555,13 @@ public class TownyUniverse {
 	public Trie getResidentsTrie() {
 		return residentsTrie;
 	}
+
+	/**
+	 * @return the leaderboards used to list towns, nations and residents in order.
+	 */
+	public TownyLeaderboards getLeaderboards() {
+		return leaderboards;
+	}
 	
     public List<Resident> getJailedResidentMap() {
         return jailedResidents;
@@ -666,6 +692,7 @@ public class TownyUniverse {
 		
 		townsTrie.addKey(town.getName());
 		registerTownUUID(town);
+		leaderboards.add(town);
 	}
 
 	/**
@@ -684,6 +711,7 @@ public class TownyUniverse {
 		}
 		
 		townsTrie.removeKey(town.getName());
+		leaderboards.remove(town);
 		
 		if (town.getUUID() != null) {
 			if (townUUIDMap.remove(town.getUUID()) == null) {
@@ -806,6 +834,7 @@ public class TownyUniverse {
 
 		nationsTrie.addKey(nation.getName());
 		registerNationUUID(nation);
+		leaderboards.add(nation);
 	}
 
 	/**
@@ -824,6 +853,7 @@ public class TownyUniverse {
 		}
 
 		nationsTrie.removeKey(nation.getName());
+		leaderboards.remove(nation);
 
 		if (nation.getUUID() != null) {
 			if (nationUUIDMap.remove(nation.getUUID()) == null) {
@@ -1032,21 +1062,70 @@ public class TownyUniverse {
 	 * @throws NotRegisteredException if there is no homeblock to get.
 	 */
 	public TownBlock getTownBlock(WorldCoord worldCoord) throws NotRegisteredException {
-		if (hasTownBlock(worldCoord))
-			return townBlocks.get(worldCoord);
-		else 
+		TownBlock townBlock = getTownBlockOrNull(worldCoord);
+		if (townBlock == null)
 			throw new NotRegisteredException();
+		return townBlock;
 	}
 	
 	@Nullable
 	public TownBlock getTownBlockOrNull(WorldCoord worldCoord) {
-		return townBlocks.get(worldCoord);
+		return getIndexedTownBlock(worldCoord.getWorldName(), worldCoord.getX(), worldCoord.getZ());
+	}
+
+	/**
+	 * Gets the TownBlock covering the given block position without allocating a WorldCoord.
+	 * 
+	 * @param world world the block is in.
+	 * @param blockX block x coordinate.
+	 * @param blockZ block z coordinate.
+	 * @return townblock at the position.
+	 * @throws NotRegisteredException if there is no townblock at the position.
+	 */
+	public TownBlock getTownBlock(World world, int blockX, int blockZ) throws NotRegisteredException {
+		TownBlock townBlock = getTownBlockOrNull(world, blockX, blockZ);
+		if (townBlock == null)
+			throw new NotRegisteredException();
+		return townBlock;
+	}
+
+	/**
+	 * Gets the TownBlock covering the given block position without allocating a WorldCoord.
+	 * 
+	 * @param world world the block is in.
+	 * @param blockX block x coordinate.
+	 * @param blockZ block z coordinate.
+	 * @return townblock at the position or null.
+	 */
+	@Nullable
+	public TownBlock getTownBlockOrNull(World world, int blockX, int blockZ) {
+		return getIndexedTownBlock(world.getName(), Coord.toCell(blockX), Coord.toCell(blockZ));
+	}
+
+	/**
+	 * Does the given block position lie in a TownBlock? Allocation-free.
+	 * 
+	 * @param world world the block is in.
+	 * @param blockX block x coordinate.
+	 * @param blockZ block z coordinate.
+	 * @return true if the position is covered by a townblock.
+	 */
+	public boolean hasTownBlock(World world, int blockX, int blockZ) {
+		return getTownBlockOrNull(world, blockX, blockZ) != null;
+	}
+
+	@Nullable
+	private TownBlock getIndexedTownBlock(String worldName, int cellX, int cellZ) {
+		LongObjectMap<TownBlock> worldIndex = townBlockIndex.get(worldName);
+		return worldIndex == null ? null : worldIndex.get(LongObjectMap.pack(cellX, cellZ));
 	}
 
 	/**
 	 * Get Universe-wide ConcurrentHashMap of WorldCoords and their TownBlocks.
 	 * Populated at load time from townblocks folder's files.
 	 * 
+	 * Use {@link #addTownBlock(TownBlock)} and {@link #removeTownBlock(TownBlock)}
+	 * rather than modifying this map directly, so the per-world index stays in sync.
 	 * 
 	 * @return townblocks hashmap read from townblock files.
 	 */	
@@ -1055,9 +1134,13 @@ public class TownyUniverse {
 	}
 	
 	public void addTownBlock(TownBlock townBlock) {
-		if (hasTownBlock(townBlock.getWorldCoord()))
+		WorldCoord worldCoord = townBlock.getWorldCoord();
+		if (townBlocks.putIfAbsent(worldCoord, townBlock) != null)
 			return;
-		townBlocks.put(townBlock.getWorldCoord(), townBlock);
+		townBlockIndex.computeIfAbsent(worldCoord.getWorldName(), k -> new LongObjectMap<>())
+			.put(LongObjectMap.pack(worldCoord.getX(), worldCoord.getZ()), townBlock);
+		if (townBlock.getWorld() != null)
+			townBlock.getWorld().indexTownBlock(townBlock);
 	}
 
 	/**
@@ -1066,7 +1149,7 @@ public class TownyUniverse {
 	 * @return true if Coord is a townblock
 	 */	
 	public boolean hasTownBlock(WorldCoord worldCoord) {
-		return townBlocks.containsKey(worldCoord);
+		return getTownBlockOrNull(worldCoord) != null;
 	}
 
 	/**
@@ -1100,7 +1183,16 @@ public class TownyUniverse {
 	 */
 	private boolean removeTownBlock(WorldCoord worldCoord) {
 
-		return townBlocks.remove(worldCoord) != null;
+		TownBlock townBlock = townBlocks.remove(worldCoord);
+		if (townBlock == null)
+			return false;
+
+		LongObjectMap<TownBlock> worldIndex = townBlockIndex.get(worldCoord.getWorldName());
+		if (worldIndex != null)
+			worldIndex.remove(LongObjectMap.pack(worldCoord.getX(), worldCoord.getZ()));
+		if (townBlock.getWorld() != null)
+			townBlock.getWorld().unindexTownBlock(townBlock);
+		return true;
 	}
 
 	/*
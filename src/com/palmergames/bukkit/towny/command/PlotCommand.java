@@ -947,8 +947,8 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 					townBlock.save();
 
 					TownyMessaging.sendMsg(player, Translation.of("msg_set_perms_reset_single"));
-					// Reset all caches as this can affect everyone.
-					plugin.resetCache();
+					// Reset the caches made in this townblock.
+					townBlock.markModified();
 
 					return permChange;
 
@@ -1053,8 +1053,8 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 			TownBlockSettingsChangedEvent event = new TownBlockSettingsChangedEvent(townBlock);
 			Bukkit.getServer().getPluginManager().callEvent(event);
 
-			// Reset all caches as this can affect everyone.
-			plugin.resetCache();
+			// Reset the caches made in this townblock.
+			townBlock.markModified();
 			return permChange;
 		}
 	}
@@ -1671,6 +1671,7 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 							tb.getPermissions().change(permChange);
 
 							tb.setChanged(true);
+							tb.markModified();
 							tb.save();
 
 							// Change settings event
@@ -1678,8 +1679,6 @@ public class PlotCommand extends BaseCommand implements CommandExecutor {
 							Bukkit.getServer().getPluginManager().callEvent(event);
 						}
 
-						plugin.resetCache();
-						
 						TownyPermission perm = Iterables.getFirst(plotGroup.getTownBlocks(), null).getPermissions();
 						TownyMessaging.sendMessage(player, Translation.of("msg_set_perms"));
 						TownyMessaging.sendMessage(player, (Colors.Green + " Perm: " + ((townBlockOwner instanceof Resident) ? perm.getColourString().replace("n", "t") : perm.getColourString().replace("f", "r"))));
@@ -1231,12 +1231,11 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 			return;
 		}
 		
-		List<Town> townsToSort = TownyUniverse.getInstance().getDataSource().getTowns();
 		int page = 1;
 		boolean pageSet = false;
 		boolean comparatorSet = false;
 		ComparatorType type = ComparatorType.RESIDENTS;
-		int total = (int) Math.ceil(((double) townsToSort.size()) / ((double) 10));
+		int total = (int) Math.ceil(((double) TownyUniverse.getInstance().getTowns().size()) / ((double) 10));
 		for (int i = 1; i < split.length; i++) {
 			if (split[i].equalsIgnoreCase("by")) { // Is a case of someone using /n list by {comparator}
 				if (comparatorSet) {
@@ -1295,7 +1294,7 @@ public class TownCommand extends BaseCommand implements CommandExecutor {
 		try {
 			if (!TownySettings.isTownListRandom()) {
 				Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-					TownyMessaging.sendTownList(sender, ComparatorCaches.getTownListCache(finalType), finalType, pageNumber, totalNumber);
+					TownyMessaging.sendTownListPage(sender, ComparatorCaches.getTownListPage(finalType, pageNumber), finalType, pageNumber, totalNumber);
 				});
 			} else { 
 				// Make a randomly sorted output.
@@ -12,6 +12,7 @@ import com.palmergames.bukkit.towny.TownyTimerHandler;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.TownyCommandAddonAPI.CommandType;
 import com.palmergames.bukkit.towny.confirmations.Confirmation;
+import com.palmergames.bukkit.towny.db.SQL_Dialect;
 import com.palmergames.bukkit.towny.db.TownyDataSource;
 import com.palmergames.bukkit.towny.db.TownyFlatFileSource;
 import com.palmergames.bukkit.towny.event.NationPreRenameEvent;
@@ -557,7 +558,7 @@ public class TownyAdminCommand extends BaseCommand implements CommandExecutor {
 				return true;				
 				
 			} else if (split[0].equalsIgnoreCase("mysqldump")) {
-				if (TownySettings.getSaveDatabase().equalsIgnoreCase("mysql") && TownySettings.getLoadDatabase().equalsIgnoreCase("mysql")) {
+				if (SQL_Dialect.fromDatabaseType(TownySettings.getSaveDatabase()) != null && SQL_Dialect.fromDatabaseType(TownySettings.getLoadDatabase()) != null) {
 					TownyDataSource dataSource = new TownyFlatFileSource(plugin, townyUniverse);
 					dataSource.saveAll();
 					TownyMessaging.sendMsg(getSender(), Translation.of("msg_mysql_dump_success"));
@@ -22,6 +22,9 @@ import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlockOwner;
 import com.palmergames.bukkit.towny.object.TownyObject;
 import com.palmergames.bukkit.towny.object.Translation;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorType;
+import com.palmergames.bukkit.towny.object.comparators.Leaderboard;
+import com.palmergames.bukkit.towny.object.comparators.TownyLeaderboards;
 import com.palmergames.bukkit.towny.permissions.PermissionNodes;
 import com.palmergames.bukkit.towny.permissions.TownyPermissionSource;
 import com.palmergames.bukkit.towny.utils.NameUtil;
@@ -401,7 +404,8 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 	}	
 	
 	private void TopCommand(Player player, String[] args) {
-		TownyUniverse universe = TownyUniverse.getInstance();
+		TownyLeaderboards leaderboards = TownyUniverse.getInstance().getLeaderboards();
+		int maxListing = TownySettings.getTownyTopSize() == -1 ? Integer.MAX_VALUE : TownySettings.getTownyTopSize();
 		if (args.length == 0 || args[0].equalsIgnoreCase("?")) {
 			towny_top.add(ChatTools.formatTitle("/towny top"));
 			towny_top.add(ChatTools.formatCommand("", "/towny top", "residents [all/town/nation]", ""));
@@ -409,47 +413,38 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 			towny_top.add(ChatTools.formatCommand("", "/towny top", "balance [all/town/nation]", ""));
 		} else if (args[0].equalsIgnoreCase("residents"))
 			if (args.length == 1 || args[1].equalsIgnoreCase("all")) {
-				List<ResidentList> list = new ArrayList<>(universe.getDataSource().getTowns());
-				list.addAll(universe.getNations());
 				towny_top.add(ChatTools.formatTitle("Most Residents"));
-				towny_top.addAll(getMostResidents(list));
+				towny_top.addAll(getTopCounts(Leaderboard.getTop(maxListing, leaderboards.getTownLeaderboard(ComparatorType.RESIDENTS), leaderboards.getNationLeaderboard(ComparatorType.RESIDENTS))));
 			} else if (args[1].equalsIgnoreCase("town")) {
 				towny_top.add(ChatTools.formatTitle("Most Residents in a Town"));
-				towny_top.addAll(getMostResidents(new ArrayList<>(universe.getDataSource().getTowns())));
+				towny_top.addAll(getTopCounts(Leaderboard.getTop(maxListing, leaderboards.getTownLeaderboard(ComparatorType.RESIDENTS))));
 			} else if (args[1].equalsIgnoreCase("nation")) {
 				towny_top.add(ChatTools.formatTitle("Most Residents in a Nation"));
-				towny_top.addAll(getMostResidents(new ArrayList<>(universe.getNations())));
+				towny_top.addAll(getTopCounts(Leaderboard.getTop(maxListing, leaderboards.getNationLeaderboard(ComparatorType.RESIDENTS))));
 			} else
 				sendErrorMsg(player, "Invalid sub command.");
 		else if (args[0].equalsIgnoreCase("land"))
 			if (args.length == 1 || args[1].equalsIgnoreCase("all")) {
-				List<TownBlockOwner> list = new ArrayList<>(universe.getResidents());
-				list.addAll(universe.getDataSource().getTowns());
 				towny_top.add(ChatTools.formatTitle("Most Land Owned"));
-				towny_top.addAll(getMostLand(list));
+				towny_top.addAll(getTopCounts(Leaderboard.getTop(maxListing, leaderboards.getResidentLandLeaderboard(), leaderboards.getTownLeaderboard(ComparatorType.TOWNBLOCKS))));
 			} else if (args[1].equalsIgnoreCase("resident")) {
 				towny_top.add(ChatTools.formatTitle("Most Land Owned by Resident"));
-				towny_top.addAll(getMostLand(new ArrayList<>(universe.getResidents())));
+				towny_top.addAll(getTopCounts(Leaderboard.getTop(maxListing, leaderboards.getResidentLandLeaderboard())));
 			} else if (args[1].equalsIgnoreCase("town")) {
 				towny_top.add(ChatTools.formatTitle("Most Land Owned by Town"));
-				towny_top.addAll(getMostLand(new ArrayList<>(universe.getDataSource().getTowns())));
+				towny_top.addAll(getTopCounts(Leaderboard.getTop(maxListing, leaderboards.getTownLeaderboard(ComparatorType.TOWNBLOCKS))));
 			} else
 				sendErrorMsg(player, "Invalid sub command.");
 		else if (args[0].equalsIgnoreCase("balance")) {
 			if (args.length == 1 || args[1].equalsIgnoreCase("all")) {
-				List<Government> list = new ArrayList<>();
-				list.addAll(universe.getTowns());
-				list.addAll(universe.getNations());
 				towny_top.add(ChatTools.formatTitle("Top Bank Balances"));
-				towny_top.addAll(getTopBankBalance(list));
+				towny_top.addAll(getTopBalances(Leaderboard.getTop(maxListing, leaderboards.getTownLeaderboard(ComparatorType.BALANCE), leaderboards.getNationLeaderboard(ComparatorType.BALANCE))));
 			} else if (args[1].equalsIgnoreCase("town")) {
-				List<Government> list = new ArrayList<>(universe.getTowns());
 				towny_top.add(ChatTools.formatTitle("Top Bank Balances by Town"));
-				towny_top.addAll(getTopBankBalance(list));
+				towny_top.addAll(getTopBalances(Leaderboard.getTop(maxListing, leaderboards.getTownLeaderboard(ComparatorType.BALANCE))));
 			} else if (args[1].equalsIgnoreCase("nation")) {
-				List<Government> list = new ArrayList<>(universe.getNations());
 				towny_top.add(ChatTools.formatTitle("Top Bank Balances by Nation"));
-				towny_top.addAll(getTopBankBalance(list));
+				towny_top.addAll(getTopBalances(Leaderboard.getTop(maxListing, leaderboards.getNationLeaderboard(ComparatorType.BALANCE))));
 			} else {
 				sendErrorMsg(player, "Invalid sub command.");
 			}
@@ -565,6 +560,24 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 		return output;
 	}
 	
+	public List<String> getTopBalances(List<Leaderboard.Entry<? extends TownyObject>> entries) {
+		final List<String> output = new ArrayList<>();
+		for (Leaderboard.Entry<? extends TownyObject> entry : entries)
+			output.add(String.format(Colors.LightGray + "%-20s " + Colors.Gold + "|" + Colors.Blue + " %s", entry.getObject().getFormattedName(), TownyEconomyHandler.getFormattedBalance(entry.getScore())));
+		return output;
+	}
+
+	public List<String> getTopCounts(List<Leaderboard.Entry<? extends TownyObject>> entries) {
+		List<String> output = new ArrayList<>();
+		for (Leaderboard.Entry<? extends TownyObject> entry : entries)
+			output.add(String.format(Colors.Blue + "%30s " + Colors.Gold + "|" + Colors.LightGray + " %10d", entry.getObject().getFormattedName(), (int) entry.getScore()));
+		return output;
+	}
+
+	/**
+	 * @deprecated sorts every government given, use {@link #getTopBalances(List)} with {@link Leaderboard#getTop(int, Leaderboard...)}.
+	 */
+	@Deprecated
 	public List<String> getTopBankBalance(final List<Government> governments) {
 		final int maxListing = TownySettings.getTownyTopSize();
 		final List<String> output = new ArrayList<>();
@@ -584,6 +597,10 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 		return output;
 	}
 
+	/**
+	 * @deprecated sorts every list given, use {@link #getTopCounts(List)} with {@link Leaderboard#getTop(int, Leaderboard...)}.
+	 */
+	@Deprecated
 	public List<String> getMostResidents(List<ResidentList> list) {
 		final int maxListing = TownySettings.getTownyTopSize();
 
@@ -604,6 +621,10 @@ public class TownyCommand extends BaseCommand implements CommandExecutor {
 		return output;
 	}
 
+	/**
+	 * @deprecated sorts every owner given, use {@link #getTopCounts(List)} with {@link Leaderboard#getTop(int, Leaderboard...)}.
+	 */
+	@Deprecated
 	public List<String> getMostLand(List<TownBlockOwner> list) {
 		final int maxListing = TownySettings.getTownyTopSize();
 
@@ -0,0 +1,212 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyLogger;
+import com.palmergames.bukkit.towny.TownyMessaging;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Writes queued {@link SQL_Task}s in JDBC batches.
+ *
+ * Updates are grouped by table and column set, each group is written with a cached
+ * upsert statement from the source's {@link SQL_Dialect} using addBatch/executeBatch,
+ * and every flush runs inside a single transaction. With the MySQL driver's
+ * rewriteBatchedStatements flag each batch is sent as one multi-row insert.
+ *
+ * Each table has at most one group open at a time. When a table's column set
+ * changes, such as a resident saved with and then without its jail columns, the
+ * open groups are written first, so two saves of the same row are never
+ * written out of order.
+ *
+ * Deletes are executed in queue order, after any upserts queued before them.
+ */
+public class SQL_BatchWriter {
+
+	private final TownySQLSource source;
+	private final SQL_Dialect dialect;
+	private final String tb_prefix;
+	private final int batchSize;
+
+	/*
+	 * Prepared statements are only valid for the connection they were created on.
+	 */
+	private Connection statementConnection = null;
+	private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+	/**
+	 * @param source - SQL source used to run deletes and single row fallbacks.
+	 * @param dialect - Dialect used to build the upsert statements.
+	 * @param tb_prefix - Upper case table prefix.
+	 * @param batchSize - Maximum number of rows sent per executeBatch.
+	 */
+	public SQL_BatchWriter(TownySQLSource source, SQL_Dialect dialect, String tb_prefix, int batchSize) {
+		this.source = source;
+		this.dialect = dialect;
+		this.tb_prefix = tb_prefix;
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	/**
+	 * Write the given tasks, in order, to the database.
+	 *
+	 * @param cntx - Open connection to write to.
+	 * @param tasks - Tasks taken from the query queue.
+	 */
+	public void write(Connection cntx, List<SQL_Task> tasks) {
+
+		// Insertion ordered so tables are written in the order they were first queued.
+		Map<String, List<SQL_Task>> pending = new LinkedHashMap<>();
+		// The statement key of the group open for each table.
+		Map<String, String> openGroups = new HashMap<>();
+
+		for (SQL_Task task : tasks) {
+			if (task.update) {
+				String table = task.tb_name.toUpperCase();
+				String statementKey = getStatementKey(task);
+				String openKey = openGroups.get(table);
+				if (openKey != null && !openKey.equals(statementKey)) {
+					// A new column set for this table, write what was queued before it first.
+					flush(cntx, pending);
+					openGroups.clear();
+				}
+				openGroups.put(table, statementKey);
+				pending.computeIfAbsent(statementKey, k -> new ArrayList<>()).add(task);
+			} else {
+				flush(cntx, pending);
+				openGroups.clear();
+				source.QueueDeleteDB(task.tb_name, task.args);
+			}
+		}
+		flush(cntx, pending);
+	}
+
+	/**
+	 * Close all cached statements.
+	 */
+	public void close() {
+		for (PreparedStatement stmt : statements.values()) {
+			try {
+				stmt.close();
+			} catch (SQLException ignored) {
+			}
+		}
+		statements.clear();
+		statementConnection = null;
+	}
+
+	private void flush(Connection cntx, Map<String, List<SQL_Task>> pending) {
+
+		if (pending.isEmpty())
+			return;
+
+		if (cntx != statementConnection) {
+			close();
+			statementConnection = cntx;
+		}
+
+		int rows = 0;
+		try {
+			cntx.setAutoCommit(false);
+
+			for (Map.Entry<String, List<SQL_Task>> group : pending.entrySet()) {
+				List<SQL_Task> groupTasks = group.getValue();
+				List<String> columns = getColumns(groupTasks.get(0));
+				PreparedStatement stmt = getStatement(cntx, group.getKey(), groupTasks.get(0), columns);
+
+				int inBatch = 0;
+				for (SQL_Task task : groupTasks) {
+					for (int count = 0; count < columns.size(); count++)
+						setParameter(stmt, count + 1, task.args.get(columns.get(count)));
+
+					stmt.addBatch();
+					rows++;
+					if (++inBatch == batchSize) {
+						stmt.executeBatch();
+						inBatch = 0;
+					}
+				}
+				if (inBatch > 0)
+					stmt.executeBatch();
+			}
+
+			cntx.commit();
+			TownyMessaging.sendDebugMsg("SQL: Batched " + rows + " rows across " + pending.size() + " statements.");
+
+		} catch (SQLException e) {
+
+			TownyMessaging.sendErrorMsg("SQL: Batch write failed, retrying row by row: " + e.getMessage());
+			TownyLogger.getInstance().logDatabase("Batch write failed, retrying row by row: " + e.getMessage());
+			try {
+				cntx.rollback();
+			} catch (SQLException ignored) {
+			}
+			// The statements may be left in an unusable state.
+			close();
+			restoreAutoCommit(cntx);
+
+			// Fall back to the single row path so one bad row doesn't lose the whole batch.
+			for (List<SQL_Task> groupTasks : pending.values())
+				for (SQL_Task task : groupTasks)
+					source.QueueUpdateDB(task.tb_name, task.args, task.keys);
+
+		} finally {
+			restoreAutoCommit(cntx);
+			pending.clear();
+		}
+	}
+
+	private PreparedStatement getStatement(Connection cntx, String statementKey, SQL_Task task, List<String> columns) throws SQLException {
+
+		PreparedStatement stmt = statements.get(statementKey);
+		if (stmt != null)
+			return stmt;
+
+		stmt = cntx.prepareStatement(dialect.getUpsert(tb_prefix + task.tb_name.toUpperCase(), columns, task.keys));
+		statements.put(statementKey, stmt);
+		return stmt;
+	}
+
+	private static void setParameter(PreparedStatement stmt, int index, Object element) throws SQLException {
+
+		if (element == null) {
+
+			stmt.setString(index, null);
+
+		} else if (element instanceof String) {
+
+			stmt.setString(index, (String) element);
+
+		} else if (element instanceof Boolean) {
+
+			stmt.setString(index, ((Boolean) element) ? "1" : "0");
+
+		} else {
+
+			stmt.setObject(index, element.toString());
+
+		}
+	}
+
+	private static List<String> getColumns(SQL_Task task) {
+		return new ArrayList<>(new TreeSet<>(task.args.keySet()));
+	}
+
+	private static String getStatementKey(SQL_Task task) {
+		return task.tb_name.toUpperCase() + ":" + String.join(",", new TreeSet<>(task.args.keySet()));
+	}
+
+	private static void restoreAutoCommit(Connection cntx) {
+		try {
+			cntx.setAutoCommit(true);
+		} catch (SQLException ignored) {
+		}
+	}
+}
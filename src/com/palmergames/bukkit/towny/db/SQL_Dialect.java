@@ -0,0 +1,211 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownySettings;
+
+import java.io.File;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The differences between the SQL databases {@link TownySQLSource} can store
+ * its data in. Table definitions in {@link SQL_Schema} and the statements built
+ * by the source are shared, only the parts which can't be written the same way
+ * for every database are asked of the dialect.
+ */
+public enum SQL_Dialect {
+
+	/**
+	 * A MySQL (or MariaDB) server, using the connection details from the config.
+	 */
+	MYSQL("MySQL", "com.mysql.jdbc.Driver", 1060) {
+		@Override
+		public String getJdbcUrl(String dataFolderPath) {
+			return "jdbc:mysql://" + TownySettings.getSQLHostName() + ":" + TownySettings.getSQLPort() + "/" + TownySettings.getSQLDBName() + TownySettings.getSQLFlags();
+		}
+
+		@Override
+		public String qualifyTable(String db_name, String table) {
+			return "`" + db_name + "`.`" + table + "`";
+		}
+
+		@Override
+		public String getReplaceInto() {
+			return "REPLACE INTO";
+		}
+
+		@Override
+		public String getUpsert(String table, List<String> columns, List<String> keys) {
+			StringBuilder code = new StringBuilder("INSERT INTO " + table + " (");
+			StringBuilder valuecode = new StringBuilder(" VALUES (");
+			StringBuilder updatecode = new StringBuilder(" ON DUPLICATE KEY UPDATE ");
+
+			boolean firstUpdate = true;
+			for (int count = 0; count < columns.size(); count++) {
+				String column = columns.get(count);
+				code.append("`").append(column).append("`");
+				valuecode.append("?");
+
+				if (count < (columns.size() - 1)) {
+					code.append(", ");
+					valuecode.append(",");
+				} else {
+					code.append(")");
+					valuecode.append(")");
+				}
+
+				// Key columns identify the row, they never need updating.
+				if (keys != null && keys.contains(column))
+					continue;
+
+				if (!firstUpdate)
+					updatecode.append(", ");
+				updatecode.append("`").append(column).append("` = VALUES(`").append(column).append("`)");
+				firstUpdate = false;
+			}
+
+			code.append(valuecode);
+			// A table made of only key columns has nothing to update, re-assigning the first key keeps the statement valid.
+			if (firstUpdate)
+				updatecode.append("`").append(columns.get(0)).append("` = `").append(columns.get(0)).append("`");
+			code.append(updatecode);
+			return code.toString();
+		}
+	},
+
+	/**
+	 * An embedded H2 database kept in the data folder, needing no database server.
+	 * H2 is run in its MySQL compatibility mode so the MySQL column types and
+	 * back-quoted names in {@link SQL_Schema} can be used as they are.
+	 */
+	H2("H2", "org.h2.Driver", 42121) {
+		@Override
+		public String getJdbcUrl(String dataFolderPath) {
+			return "jdbc:h2:file:" + new File(dataFolderPath, "towny").getAbsolutePath()
+				+ ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+		}
+
+		@Override
+		public String qualifyTable(String db_name, String table) {
+			// The embedded database only has the one schema.
+			return "`" + table + "`";
+		}
+
+		@Override
+		public String getReplaceInto() {
+			return "MERGE INTO";
+		}
+
+		@Override
+		public String getUpsert(String table, List<String> columns, List<String> keys) {
+			StringBuilder code = new StringBuilder("MERGE INTO " + table + " (");
+			StringBuilder valuecode = new StringBuilder(" VALUES (");
+
+			for (int count = 0; count < columns.size(); count++) {
+				code.append("`").append(columns.get(count)).append("`");
+				valuecode.append("?");
+
+				if (count < (columns.size() - 1)) {
+					code.append(", ");
+					valuecode.append(",");
+				} else {
+					code.append(")");
+					valuecode.append(")");
+				}
+			}
+
+			// Without a KEY clause H2 matches rows on the primary key.
+			if (keys != null && !keys.isEmpty()) {
+				code.append(" KEY (");
+				for (int count = 0; count < keys.size(); count++) {
+					if (count > 0)
+						code.append(", ");
+					code.append("`").append(keys.get(count)).append("`");
+				}
+				code.append(")");
+			}
+
+			code.append(valuecode);
+			return code.toString();
+		}
+	};
+
+	private final String name;
+	private final String driverClass;
+	private final int duplicateColumnError;
+
+	SQL_Dialect(String name, String driverClass, int duplicateColumnError) {
+		this.name = name;
+		this.driverClass = driverClass;
+		this.duplicateColumnError = duplicateColumnError;
+	}
+
+	/**
+	 * @return the name shown to admins, also used for the connection pool.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	public String getDriverClass() {
+		return driverClass;
+	}
+
+	/**
+	 * @param dataFolderPath - Towny's data folder, where embedded databases are kept.
+	 * @return the JDBC url to connect to.
+	 */
+	public abstract String getJdbcUrl(String dataFolderPath);
+
+	/**
+	 * @return true when the database runs inside the server rather than being connected to.
+	 */
+	public boolean isEmbedded() {
+		return this != MYSQL;
+	}
+
+	/**
+	 * @param db_name - Configured database name.
+	 * @param table - Table name, including the prefix.
+	 * @return the table name to use in ALTER TABLE statements.
+	 */
+	public abstract String qualifyTable(String db_name, String table);
+
+	/**
+	 * @return the statement which inserts a row or replaces the row with the same primary key.
+	 */
+	public abstract String getReplaceInto();
+
+	/**
+	 * Build a prepared statement which inserts a row or updates the row with the same keys.
+	 * Parameters are the given columns, in order.
+	 *
+	 * @param table - Table name, including the prefix.
+	 * @param columns - Columns being written.
+	 * @param keys - Columns identifying the row, or null to use the primary key.
+	 * @return the upsert statement.
+	 */
+	public abstract String getUpsert(String table, List<String> columns, List<String> keys);
+
+	/**
+	 * @param e - Exception thrown by an ALTER TABLE ... ADD/DROP COLUMN.
+	 * @return true when the column already existed, which is expected on every startup.
+	 */
+	public boolean isDuplicateColumn(SQLException e) {
+		return e.getErrorCode() == duplicateColumnError;
+	}
+
+	/**
+	 * @param type - Database type from the config.
+	 * @return the dialect used by the given database type, or null if it isn't an SQL type.
+	 */
+	public static SQL_Dialect fromDatabaseType(String type) {
+		switch (type.toLowerCase()) {
+			case "mysql":
+				return MYSQL;
+			case "h2":
+				return H2;
+			default:
+				return null;
+		}
+	}
+}
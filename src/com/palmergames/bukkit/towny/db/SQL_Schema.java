@@ -237,8 +237,9 @@ public class SQL_Schema {
      *
      * @param cntx    a database connection
      * @param db_name the name of a database
+     * @param dialect the dialect of the database
      */
-    public static void initTables(Connection cntx, String db_name) {
+    public static void initTables(Connection cntx, String db_name, SQL_Dialect dialect) {
 
 		/*
          *  Fetch WORLDS Table schema.
@@ -263,15 +264,15 @@ public class SQL_Schema {
 		List<String> worldColumns = getWorldColumns();
 		for (String column : worldColumns) {
 			try {
-				world_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "WORLDS` "
-						+ "ADD COLUMN " + column;
+				world_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "WORLDS")
+						+ " ADD COLUMN " + column;
 
 
 				PreparedStatement ps = cntx.prepareStatement(world_update);
 				ps.executeUpdate();
 
 			} catch (SQLException ee) {
-				if (ee.getErrorCode() != 1060)
+				if (!dialect.isDuplicateColumn(ee))
 					TownyMessaging.sendErrorMsg("Error updating table WORLDS :" + ee.getMessage());
 			}
 		}
@@ -300,14 +301,14 @@ public class SQL_Schema {
 		List<String> nationColumns = getNationColumns();
 		for (String column : nationColumns) {
 			try {
-				nation_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "NATIONS` "
-						+ "ADD COLUMN " + column;
+				nation_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "NATIONS")
+						+ " ADD COLUMN " + column;
 
 				PreparedStatement ps = cntx.prepareStatement(nation_update);
 				ps.executeUpdate();
 
 			} catch (SQLException ee) {
-				if (ee.getErrorCode() != 1060)
+				if (!dialect.isDuplicateColumn(ee))
 					TownyMessaging.sendErrorMsg("Error updating table NATIONS :" + ee.getMessage());
 			}
 		}
@@ -337,14 +338,14 @@ public class SQL_Schema {
 		List<String> townColumns = getTownColumns();
 		for (String column : townColumns) {
 			try {
-				town_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "TOWNS` "
-						+ "ADD COLUMN " + column;
+				town_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "TOWNS")
+						+ " ADD COLUMN " + column;
 
 				PreparedStatement ps = cntx.prepareStatement(town_update);
 				ps.executeUpdate();
 
 			} catch (SQLException ee) {
-				if (ee.getErrorCode() != 1060)
+				if (!dialect.isDuplicateColumn(ee))
 					TownyMessaging.sendErrorMsg("Error updating table TOWNS :" + ee.getMessage());
 			}
 		}
@@ -373,14 +374,14 @@ public class SQL_Schema {
 		List<String> residentColumns = getResidentColumns();
 		for (String column : residentColumns) {
 			try {
-				resident_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "RESIDENTS` "
-						+ "ADD COLUMN " + column;
+				resident_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "RESIDENTS")
+						+ " ADD COLUMN " + column;
 
 				PreparedStatement ps = cntx.prepareStatement(resident_update);
 				ps.executeUpdate();
 
 			} catch (SQLException ee) {
-				if (ee.getErrorCode() != 1060)
+				if (!dialect.isDuplicateColumn(ee))
 					TownyMessaging.sendErrorMsg("Error updating table RESIDENTS :" + ee.getMessage());
 			}
 		}
@@ -409,14 +410,14 @@ public class SQL_Schema {
         List<String> townBlockColumns = getTownBlockColumns();
         for (String column : townBlockColumns) {
             try {
-                townblocks_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "TOWNBLOCKS` "
-                        + "ADD COLUMN " + column;
+                townblocks_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "TOWNBLOCKS")
+                        + " ADD COLUMN " + column;
 
                 PreparedStatement ps = cntx.prepareStatement(townblocks_update);
                 ps.executeUpdate();
 
             } catch (SQLException ee) {
-                if (ee.getErrorCode() != 1060)
+                if (!dialect.isDuplicateColumn(ee))
                     TownyMessaging.sendErrorMsg("Error updating table TOWNBLOCKS :" + ee.getMessage());
             }
         }
@@ -444,13 +445,13 @@ public class SQL_Schema {
         List<String> plotGroupColumns = getPlotGroupColumns();
         for (String column : plotGroupColumns) {
         	try {
-				plotGroups_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "PLOTGROUPS` "
-					+ "ADD COLUMN " + column;
+				plotGroups_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "PLOTGROUPS")
+					+ " ADD COLUMN " + column;
 
 				PreparedStatement ps = cntx.prepareStatement(plotGroups_update);
 				ps.executeUpdate();
 			} catch (SQLException ee) {
-				if (ee.getErrorCode() != 1060)
+				if (!dialect.isDuplicateColumn(ee))
 					TownyMessaging.sendErrorMsg("Error updating table PLOTGROUPS :" + ee.getMessage());
 			}
 			TownyMessaging.sendDebugMsg("Table PLOTGROUPS is updated!");
@@ -480,14 +481,14 @@ public class SQL_Schema {
 		List<String> jailColumns = getJailsColumns();
 		for (String column : jailColumns) {
 			try {
-				jail_update = "ALTER TABLE `" + db_name + "`.`" + tb_prefix + "JAILS` "
-						+ "ADD COLUMN " + column;
+				jail_update = "ALTER TABLE " + dialect.qualifyTable(db_name, tb_prefix + "JAILS")
+						+ " ADD COLUMN " + column;
 
 				PreparedStatement ps = cntx.prepareStatement(jail_update);
 				ps.executeUpdate();
 
 			} catch (SQLException ee) {
-				if (ee.getErrorCode() != 1060)
+				if (!dialect.isDuplicateColumn(ee))
 					TownyMessaging.sendErrorMsg("Error updating table JAILS :" + ee.getMessage());
 			}
 		}
@@ -500,8 +501,9 @@ public class SQL_Schema {
      *
      * @param cntx - Connection.
      * @param db_name - Name of database.
+     * @param dialect - Dialect of the database.
      */
-    public static void cleanup(Connection cntx, String db_name) {
+    public static void cleanup(Connection cntx, String db_name, SQL_Dialect dialect) {
     	
     	List<ColumnUpdate> cleanups = new ArrayList<ColumnUpdate>();
     	cleanups.add(ColumnUpdate.of("TOWNS", "residents"));
@@ -517,7 +519,7 @@ public class SQL_Schema {
     	cleanups.add(ColumnUpdate.of("TOWNS", "jailSpawns"));
 
     	for (ColumnUpdate update : cleanups)
-    		dropColumn(cntx, db_name, update.getTable(), update.getColumn());
+    		dropColumn(cntx, db_name, dialect, update.getTable(), update.getColumn());
     }
     
     /**
@@ -525,10 +527,11 @@ public class SQL_Schema {
      * 
      * @param cntx database connection.
      * @param db_name database name.
+     * @param dialect database dialect.
      * @param table table name.
      * @param column column to drop from the given table.
      */
-    private static void dropColumn(Connection cntx, String db_name, String table, String column) {
+    private static void dropColumn(Connection cntx, String db_name, SQL_Dialect dialect, String table, String column) {
     	String update;
     	
     	try {
@@ -537,7 +540,7 @@ public class SQL_Schema {
         	if (!rs.next())
         		return;
         	
-    		update = "ALTER TABLE `" + db_name + "`.`" + table + "` DROP COLUMN `" + column + "`";
+    		update = "ALTER TABLE " + dialect.qualifyTable(db_name, table) + " DROP COLUMN `" + column + "`";
     		
     		Statement s = cntx.createStatement();
     		s.executeUpdate(update);
@@ -545,7 +548,7 @@ public class SQL_Schema {
     		TownyMessaging.sendDebugMsg("Table " + table + " has dropped the " + column + " column.");
         	
     	} catch (SQLException ee) {
-    		if (ee.getErrorCode() != 1060)
+    		if (!dialect.isDuplicateColumn(ee))
     			TownyMessaging.sendErrorMsg("Error updating table " + table + ":" + ee.getMessage());
     	}
     }
@@ -0,0 +1,469 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.util.LongObjectMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * Stores townblock data as records appended to a series of log files
+ * (segments), rather than as one file per townblock.
+ *
+ * Every save appends a record holding the townblock's data, every delete
+ * appends a tombstone. An in-memory index points each townblock at its
+ * newest record, and is rebuilt by reading the segments in order when the
+ * store is opened. Once a segment is full a new one is started; full
+ * segments which are mostly made of outdated records are compacted by
+ * copying their live records to the end of the log and deleting them. A
+ * tombstone is only copied while an older segment still holds a record of
+ * the townblock it deletes, otherwise it is dropped.
+ *
+ * Each record is laid out as: type byte, world name length (short) and
+ * UTF-8 bytes, x, z, data length and UTF-8 data, then a CRC32 of all
+ * of the preceding bytes. A record cut short by a crash fails its check
+ * and is dropped, along with anything after it in the segment.
+ */
+public class TownBlockLogStore {
+
+	private static final Map<String, TownBlockLogStore> openStores = new HashMap<>();
+
+	private static final byte RECORD_PUT = 1;
+	private static final byte RECORD_DELETE = 2;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".log";
+	private static final long SEGMENT_SIZE = 16L * 1024 * 1024;
+	// A full segment is compacted once less than this share of it is still live.
+	private static final double COMPACT_LIVE_RATIO = 0.5;
+
+	/**
+	 * Used to walk the townblocks held in the store.
+	 */
+	@FunctionalInterface
+	public interface KeyConsumer {
+		void accept(String world, int x, int z);
+	}
+
+	private static final class Location {
+		final int segment;
+		final long offset;
+		final int length;
+		final int x, z;
+
+		Location(int segment, long offset, int length, int x, int z) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+			this.x = x;
+			this.z = z;
+		}
+	}
+
+	private static final class Segment {
+		final int id;
+		final File file;
+		final FileChannel channel;
+		long size = 0;
+		long liveBytes = 0;
+		// Townblocks this segment holds a record of, live or not.
+		final Map<String, LongObjectMap<Boolean>> putKeys = new HashMap<>();
+
+		Segment(int id, File file) throws IOException {
+			this.id = id;
+			this.file = file;
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+
+		boolean holds(String world, int x, int z) {
+			LongObjectMap<Boolean> worldKeys = putKeys.get(world);
+			return worldKeys != null && worldKeys.containsKey(LongObjectMap.pack(x, z));
+		}
+	}
+
+	private static final class Record {
+		byte type;
+		String world;
+		int x, z;
+		byte[] data;
+		int length;
+	}
+
+	private final File folder;
+	private final Map<String, LongObjectMap<Location>> index = new HashMap<>();
+	private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+	private Segment active;
+	private boolean closed = false;
+
+	/**
+	 * Opens the store kept in the given folder, or returns it if it is already open.
+	 *
+	 * @param folder - Folder holding the segments.
+	 * @return the store.
+	 * @throws IOException if the segments could not be read.
+	 */
+	public static TownBlockLogStore open(File folder) throws IOException {
+		synchronized (openStores) {
+			String key = folder.getCanonicalPath();
+			TownBlockLogStore store = openStores.get(key);
+			if (store == null) {
+				store = new TownBlockLogStore(folder);
+				openStores.put(key, store);
+			}
+			return store;
+		}
+	}
+
+	private TownBlockLogStore(File folder) throws IOException {
+		this.folder = folder;
+		if (!folder.isDirectory() && !folder.mkdirs())
+			throw new IOException("Could not create " + folder.getPath());
+
+		File[] files = folder.listFiles(file -> file.getName().startsWith(SEGMENT_PREFIX) && file.getName().endsWith(SEGMENT_SUFFIX));
+		TreeMap<Integer, File> found = new TreeMap<>();
+		if (files != null)
+			for (File file : files) {
+				String name = file.getName();
+				try {
+					found.put(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+				} catch (NumberFormatException ignored) {
+				}
+			}
+
+		for (Map.Entry<Integer, File> entry : found.entrySet()) {
+			Segment segment = new Segment(entry.getKey(), entry.getValue());
+			segments.put(segment.id, segment);
+			scan(segment);
+		}
+
+		active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+	}
+
+	/**
+	 * Reads every record of a segment into the index.
+	 */
+	private void scan(Segment segment) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment.file.toPath()));
+		long offset = 0;
+		Record record;
+		while ((record = readRecord(buffer)) != null) {
+			if (record.type == RECORD_PUT)
+				index(record.world, new Location(segment.id, offset, record.length, record.x, record.z));
+			else
+				unindex(record.world, record.x, record.z);
+			segment.size += record.length;
+			offset += record.length;
+		}
+
+		if (offset < buffer.capacity()) {
+			TownyMessaging.sendErrorMsg("Townblock log " + segment.file.getName() + " has " + (buffer.capacity() - offset) + " unreadable bytes at its end, they have been dropped.");
+			segment.channel.truncate(offset);
+		}
+	}
+
+	/**
+	 * @return the record at the buffer's position, or null if there is no complete, intact record there.
+	 */
+	private static Record readRecord(ByteBuffer buffer) {
+		int start = buffer.position();
+		try {
+			Record record = new Record();
+			record.type = buffer.get();
+			if (record.type != RECORD_PUT && record.type != RECORD_DELETE)
+				return null;
+			byte[] world = new byte[buffer.getShort() & 0xFFFF];
+			buffer.get(world);
+			record.world = new String(world, StandardCharsets.UTF_8);
+			record.x = buffer.getInt();
+			record.z = buffer.getInt();
+			int dataLength = buffer.getInt();
+			if (dataLength < 0 || dataLength > buffer.remaining())
+				return null;
+			record.data = new byte[dataLength];
+			buffer.get(record.data);
+
+			CRC32 crc = new CRC32();
+			crc.update(buffer.array(), start, buffer.position() - start);
+			if ((int) crc.getValue() != buffer.getInt())
+				return null;
+
+			record.length = buffer.position() - start;
+			return record;
+		} catch (RuntimeException e) {
+			// Ran off the end of the buffer.
+			return null;
+		}
+	}
+
+	private static byte[] writeRecord(byte type, String world, int x, int z, byte[] data) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length + world.length() + 32);
+		DataOutputStream out = new DataOutputStream(bytes);
+		byte[] worldBytes = world.getBytes(StandardCharsets.UTF_8);
+		out.writeByte(type);
+		out.writeShort(worldBytes.length);
+		out.write(worldBytes);
+		out.writeInt(x);
+		out.writeInt(z);
+		out.writeInt(data.length);
+		out.write(data);
+
+		CRC32 crc = new CRC32();
+		crc.update(bytes.toByteArray());
+		out.writeInt((int) crc.getValue());
+		return bytes.toByteArray();
+	}
+
+	private Segment newSegment(int id) throws IOException {
+		Segment segment = new Segment(id, new File(folder, String.format("%s%06d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+		segments.put(id, segment);
+		return segment;
+	}
+
+	/**
+	 * Appends a record to the active segment, starting a new segment first if it is full.
+	 *
+	 * @return the offset the record was written at.
+	 */
+	private long append(byte[] record) throws IOException {
+		if (active.size >= SEGMENT_SIZE) {
+			active.channel.force(false);
+			active = newSegment(active.id + 1);
+		}
+
+		long offset = active.size;
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		while (buffer.hasRemaining())
+			active.channel.write(buffer, offset + buffer.position());
+		active.size += record.length;
+		return offset;
+	}
+
+	private void index(String world, Location location) {
+		Segment segment = segments.get(location.segment);
+		segment.putKeys.computeIfAbsent(world, k -> new LongObjectMap<>()).put(LongObjectMap.pack(location.x, location.z), Boolean.TRUE);
+		Location old = index.computeIfAbsent(world, k -> new LongObjectMap<>()).put(LongObjectMap.pack(location.x, location.z), location);
+		if (old != null)
+			segments.get(old.segment).liveBytes -= old.length;
+		segment.liveBytes += location.length;
+	}
+
+	private void unindex(String world, int x, int z) {
+		LongObjectMap<Location> worldIndex = index.get(world);
+		if (worldIndex == null)
+			return;
+		Location old = worldIndex.remove(LongObjectMap.pack(x, z));
+		if (old != null)
+			segments.get(old.segment).liveBytes -= old.length;
+	}
+
+	private Location getLocation(String world, int x, int z) {
+		LongObjectMap<Location> worldIndex = index.get(world);
+		return worldIndex == null ? null : worldIndex.get(LongObjectMap.pack(x, z));
+	}
+
+	private void checkOpen() throws IOException {
+		if (closed)
+			throw new IOException("The townblock log in " + folder.getPath() + " has been closed.");
+	}
+
+	/**
+	 * @param world - World name.
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @return true if the store holds data for the townblock.
+	 */
+	public synchronized boolean contains(String world, int x, int z) {
+		return getLocation(world, x, z) != null;
+	}
+
+	/**
+	 * Reads a townblock's data, in the same key=value format as a townblock file.
+	 *
+	 * @param world - World name.
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @return the townblock's keys and values, or null if the store holds nothing for it.
+	 * @throws IOException if the record could not be read.
+	 */
+	public synchronized HashMap<String, String> read(String world, int x, int z) throws IOException {
+		checkOpen();
+		Location location = getLocation(world, x, z);
+		if (location == null)
+			return null;
+
+		Record record = readRecord(world, x, z, location);
+		Properties properties = new Properties();
+		properties.load(new StringReader(new String(record.data, StandardCharsets.UTF_8)));
+		HashMap<String, String> keys = new HashMap<>();
+		for (String key : properties.stringPropertyNames())
+			keys.put(key, properties.getProperty(key));
+		return keys;
+	}
+
+	private Record readRecord(String world, int x, int z, Location location) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(location.length);
+		FileChannel channel = segments.get(location.segment).channel;
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, location.offset + buffer.position()) < 0)
+				break;
+		buffer.flip();
+
+		Record record = readRecord(buffer);
+		if (record == null || record.type != RECORD_PUT)
+			throw new IOException("Corrupt townblock log record for " + world + " " + x + "," + z);
+		return record;
+	}
+
+	/**
+	 * Appends a townblock's data to the log.
+	 *
+	 * @param world - World name.
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @param data - Townblock data in the same key=value format as a townblock file.
+	 * @throws IOException if the record could not be written.
+	 */
+	public synchronized void put(String world, int x, int z, String data) throws IOException {
+		checkOpen();
+		byte[] record = writeRecord(RECORD_PUT, world, x, z, data.getBytes(StandardCharsets.UTF_8));
+		long offset = append(record);
+		index(world, new Location(active.id, offset, record.length, x, z));
+	}
+
+	/**
+	 * Appends a tombstone for a townblock, if the store holds it.
+	 *
+	 * @param world - World name.
+	 * @param x - Townblock x.
+	 * @param z - Townblock z.
+	 * @return the townblock's data as it was before being deleted, or null if the store didn't hold it.
+	 * @throws IOException if the tombstone could not be written.
+	 */
+	public synchronized String delete(String world, int x, int z) throws IOException {
+		checkOpen();
+		Location location = getLocation(world, x, z);
+		if (location == null)
+			return null;
+
+		Record record = readRecord(world, x, z, location);
+		append(writeRecord(RECORD_DELETE, world, x, z, new byte[0]));
+		unindex(world, x, z);
+		return new String(record.data, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Passes every townblock held in the store to the consumer.
+	 *
+	 * @param consumer - Called with the world name and coords of each townblock.
+	 */
+	public synchronized void forEachKey(KeyConsumer consumer) {
+		for (Map.Entry<String, LongObjectMap<Location>> world : index.entrySet())
+			world.getValue().forEachValue(location -> consumer.accept(world.getKey(), location.x, location.z));
+	}
+
+	/**
+	 * Compacts the full segment with the least live data, if little enough of it is live.
+	 * At most one segment is compacted per call, to keep each call short.
+	 *
+	 * @throws IOException if the segment could not be compacted.
+	 */
+	public synchronized void compactIfNeeded() throws IOException {
+		checkOpen();
+		Segment candidate = null;
+		for (Segment segment : segments.values()) {
+			if (segment == active || segment.size == 0)
+				continue;
+			if (candidate == null || (double) segment.liveBytes / segment.size < (double) candidate.liveBytes / candidate.size)
+				candidate = segment;
+		}
+		if (candidate == null || (double) candidate.liveBytes / candidate.size >= COMPACT_LIVE_RATIO)
+			return;
+
+		compact(candidate);
+	}
+
+	private void compact(Segment segment) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment.file.toPath()));
+		long offset = 0;
+		int moved = 0;
+		Record record;
+		while ((record = readRecord(buffer)) != null) {
+			byte[] bytes = new byte[record.length];
+			System.arraycopy(buffer.array(), (int) offset, bytes, 0, record.length);
+
+			if (record.type == RECORD_PUT) {
+				Location location = getLocation(record.world, record.x, record.z);
+				if (location != null && location.segment == segment.id && location.offset == offset) {
+					long newOffset = append(bytes);
+					index(record.world, new Location(active.id, newOffset, record.length, record.x, record.z));
+					moved++;
+				}
+			} else if (getLocation(record.world, record.x, record.z) == null && isHeldBefore(segment.id, record.world, record.x, record.z)) {
+				// Tombstones only matter while an older segment still holds a record they delete.
+				append(bytes);
+			}
+			offset += record.length;
+		}
+
+		// The copies must be on disk before the only other copy is deleted.
+		active.channel.force(false);
+		segment.channel.close();
+		segments.remove(segment.id);
+		Files.deleteIfExists(segment.file.toPath());
+		TownyMessaging.sendDebugMsg("Compacted townblock log " + segment.file.getName() + ", keeping " + moved + " records.");
+	}
+
+	/**
+	 * @return true if a segment older than the given one holds a record of the townblock.
+	 */
+	private boolean isHeldBefore(int segmentId, String world, int x, int z) {
+		for (Segment older : segments.headMap(segmentId, false).values())
+			if (older.holds(world, x, z))
+				return true;
+		return false;
+	}
+
+	/**
+	 * Writes everything appended so far to disk.
+	 *
+	 * @throws IOException if the segment could not be synced.
+	 */
+	public synchronized void flush() throws IOException {
+		checkOpen();
+		active.channel.force(false);
+	}
+
+	/**
+	 * Syncs and closes every segment. The store has to be opened again to be used.
+	 */
+	public void close() {
+		synchronized (openStores) {
+			synchronized (this) {
+				if (closed)
+					return;
+				closed = true;
+				for (Segment segment : segments.values()) {
+					try {
+						segment.channel.force(false);
+						segment.channel.close();
+					} catch (IOException e) {
+						TownyMessaging.sendErrorMsg("Could not close townblock log " + segment.file.getName() + ": " + e.getMessage());
+					}
+				}
+				openStores.values().remove(this);
+			}
+		}
+	}
+}
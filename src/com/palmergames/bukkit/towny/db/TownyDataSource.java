@@ -9,6 +9,7 @@ import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlotGroup;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Savable;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownyWorld;
@@ -24,6 +25,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
 import java.util.concurrent.locks.ReentrantLock;
 
 /*
@@ -105,6 +107,14 @@ public abstract class TownyDataSource {
 
 	abstract public boolean loadPlotGroups();
 
+	/**
+	 * Marks an object as needing to be saved. The object will be written once
+	 * by the next flush of the save pipeline, however many times it was marked.
+	 * 
+	 * @param savable object to save.
+	 */
+	abstract public void scheduleSave(Savable savable);
+
 	abstract public boolean savePlotGroupList();
 
 	abstract public boolean saveWorldList();
@@ -157,13 +167,32 @@ public abstract class TownyDataSource {
 
 	}
 
+	/**
+	 * Runs the loader over each object in turn, stopping at the first one
+	 * which fails. Sources which can read their objects ahead of time
+	 * override this.
+	 * 
+	 * @param type - Name of the objects being loaded, used in log messages.
+	 * @param objects - Objects to load.
+	 * @param loader - Loads a single object, returning false on failure.
+	 * @param <T> - Type of object loaded.
+	 * @return true if every object loaded.
+	 */
+	protected <T> boolean loadEach(String type, Collection<T> objects, Predicate<T> loader) {
+
+		for (T object : objects)
+			if (!loader.test(object))
+				return false;
+		return true;
+	}
+
 	public boolean loadResidents() {
 
 		TownyMessaging.sendDebugMsg("Loading Residents");
 
 		TownySettings.setUUIDCount(0);
 		
-		for (Resident resident : universe.getResidents()) {
+		return loadEach("residents", universe.getResidents(), resident -> {
 			if (!loadResident(resident)) {
 				System.out.println("[Towny] Loading Error: Could not read resident data '" + resident.getName() + "'.");
 				return false;
@@ -173,54 +202,55 @@ public abstract class TownyDataSource {
 				TownySettings.incrementUUIDCount();
 			else
 				GatherResidentUUIDTask.addResident(resident);
-		}
-		return true;
+			return true;
+		});
 	}
 
 	public boolean loadTowns() {
 
 		TownyMessaging.sendDebugMsg("Loading Towns");
-		for (Town town : getTowns())
+		return loadEach("towns", getTowns(), town -> {
 			if (!loadTown(town)) {
 				System.out.println("[Towny] Loading Error: Could not read town data '" + town.getName() + "'.");
 				return false;
 			}
-		return true;
+			return true;
+		});
 	}
 
 	public boolean loadNations() {
 
 		TownyMessaging.sendDebugMsg("Loading Nations");
-		for (Nation nation : universe.getNations())
+		return loadEach("nations", universe.getNations(), nation -> {
 			if (!loadNation(nation)) {
 				System.out.println("[Towny] Loading Error: Could not read nation data '" + nation.getName() + "'.");
 				return false;
 			}
-		return true;
+			return true;
+		});
 	}
 
 	public boolean loadWorlds() {
 
 		TownyMessaging.sendDebugMsg("Loading Worlds");
-		for (TownyWorld world : getWorlds())
+		return loadEach("worlds", getWorlds(), world -> {
 			if (!loadWorld(world)) {
 				System.out.println("[Towny] Loading Error: Could not read world data '" + world.getName() + "'.");
 				return false;
-			} else {
-				// Push all Towns belonging to this world
 			}
-		return true;
+			return true;
+		});
 	}
 	
 	public boolean loadJails() {
 		TownyMessaging.sendDebugMsg("Loading Jails");
-		for (Jail jail : getAllJails()) {
+		return loadEach("jails", getAllJails(), jail -> {
 			if (!loadJail(jail)) {
 				System.out.println("[Towny] Loading Error: Could not read jail data '" + jail.getUUID() + "'.");
 				return false;
 			}
-		}
-		return true;
+			return true;
+		});
 	}
 
 	/*
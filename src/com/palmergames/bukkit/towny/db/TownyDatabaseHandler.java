@@ -25,6 +25,7 @@ import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.PlotGroup;
 import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Savable;
 import com.palmergames.bukkit.towny.object.Town;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.object.TownBlockType;
@@ -35,6 +36,7 @@ import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.object.metadata.DataFieldIO;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.object.jail.UnJailReason;
+import com.palmergames.bukkit.towny.regen.BlockPalette;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.tasks.DeleteFileTask;
@@ -66,12 +68,15 @@ import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.zip.ZipFile;
 
@@ -88,6 +93,17 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 	Logger logger = LogManager.getLogger(TownyDatabaseHandler.class);
 	protected final Queue<Runnable> queryQueue = new ConcurrentLinkedQueue<>();
 	private final BukkitTask task;
+	private final BukkitTask flushTask;
+	
+	/*
+	 * Objects waiting to be serialised by the next flush, along with the time
+	 * the oldest of them was marked dirty, or 0 when nothing is waiting.
+	 */
+	private final Set<Savable> dirtyObjects = ConcurrentHashMap.newKeySet();
+	private final AtomicLong oldestDirtyTime = new AtomicLong();
+	private final AtomicLong scheduledSaves = new AtomicLong();
+	private final AtomicLong coalescedSaves = new AtomicLong();
+	private final AtomicLong writtenSaves = new AtomicLong();
 	
 	protected TownyDatabaseHandler(Towny plugin, TownyUniverse universe) {
 		super(plugin, universe);
@@ -109,6 +125,16 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 				TownyMessaging.sendErrorMsg("Could not create flatfile default files and folders.");
 			}
 		
+		/*
+		 * Serialise dirty objects on the main thread, where they are changed, so
+		 * that only finished lines are handed to the async queue.
+		 */
+		flushTask = BukkitTools.getScheduler().runTaskTimer(plugin, () -> {
+			long oldest = oldestDirtyTime.get();
+			if (oldest != 0 && System.currentTimeMillis() - oldest >= TownySettings.getSaveMaxLatency())
+				flushDirtyObjects();
+		}, 5L, 5L);
+
 		/*
 		 * Start our Async queue for pushing data to the flatfile database.
 		 */
@@ -126,6 +152,9 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		// Cancel the repeating task as its not needed anymore.
 		task.cancel();
 		
+		// Serialise anything still waiting in the save pipeline.
+		finishSavePipeline();
+		
 		// Make sure that *all* tasks are saved before shutting down.
 		while (!queryQueue.isEmpty()) {
 			Runnable operation = this.queryQueue.poll();
@@ -133,6 +162,116 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		}
 	}
 	
+	/*
+	 * Coalescing save pipeline.
+	 */
+	
+	@Override
+	public void scheduleSave(Savable savable) {
+		scheduledSaves.incrementAndGet();
+		if (!dirtyObjects.add(savable))
+			coalescedSaves.incrementAndGet();
+		oldestDirtyTime.compareAndSet(0, System.currentTimeMillis());
+	}
+
+	/**
+	 * Removes an object from the save pipeline, used when the object is being deleted
+	 * so that a pending save cannot recreate it afterwards.
+	 * 
+	 * @param savable object which no longer needs saving.
+	 */
+	protected void cancelScheduledSave(Savable savable) {
+		dirtyObjects.remove(savable);
+	}
+
+	/**
+	 * Stops the timed flushes and serialises whatever is still dirty, used when
+	 * the database is shutting down.
+	 */
+	protected void finishSavePipeline() {
+		flushTask.cancel();
+		flushDirtyObjects();
+	}
+
+	/**
+	 * Serialises every dirty object once, handing the result to the database's write queue.
+	 * 
+	 * Must be called on the main thread, the objects are read as they are
+	 * while nothing else can change them, and a delete queued after a flush
+	 * is always written after the flush's saves.
+	 */
+	protected void flushDirtyObjects() {
+		// Cleared first, anything marked dirty while we flush starts the clock again.
+		oldestDirtyTime.set(0);
+		if (dirtyObjects.isEmpty())
+			return;
+
+		long start = System.currentTimeMillis();
+		int written = 0;
+		Iterator<Savable> iterator = dirtyObjects.iterator();
+		while (iterator.hasNext()) {
+			Savable savable = iterator.next();
+			// Removed before serialising, so a change made while we write marks it dirty again.
+			iterator.remove();
+			try {
+				if (saveObject(savable))
+					written++;
+			} catch (Exception e) {
+				logger.warn("Unable to save " + savable + ": " + e.getMessage());
+			}
+		}
+		writtenSaves.addAndGet(written);
+
+		TownyMessaging.sendDebugMsg("Save pipeline flushed " + written + " objects in " + (System.currentTimeMillis() - start) + "ms. "
+			+ "Scheduled: " + scheduledSaves.get() + ", coalesced: " + coalescedSaves.get() + ", written: " + writtenSaves.get() + ".");
+	}
+
+	private boolean saveObject(Savable savable) {
+		if (savable instanceof Resident)
+			return saveResident((Resident) savable);
+		if (savable instanceof Town)
+			return saveTown((Town) savable);
+		if (savable instanceof Nation)
+			return saveNation((Nation) savable);
+		if (savable instanceof TownBlock)
+			return saveTownBlock((TownBlock) savable);
+		if (savable instanceof TownyWorld)
+			return saveWorld((TownyWorld) savable);
+		if (savable instanceof PlotGroup)
+			return savePlotGroup((PlotGroup) savable);
+		if (savable instanceof Jail)
+			return saveJail((Jail) savable);
+		return false;
+	}
+
+	/**
+	 * @return number of times an object was marked for saving.
+	 */
+	public long getScheduledSaveCount() {
+		return scheduledSaves.get();
+	}
+
+	/**
+	 * @return number of saves absorbed by an object which was already waiting to be saved.
+	 */
+	public long getCoalescedSaveCount() {
+		return coalescedSaves.get();
+	}
+
+	/**
+	 * @return number of objects actually serialised by the save pipeline.
+	 */
+	public long getWrittenSaveCount() {
+		return writtenSaves.get();
+	}
+
+	/**
+	 * @return number of objects currently waiting to be saved.
+	 */
+	public int getPendingSaveCount() {
+		return dirtyObjects.size();
+	}
+	
 	@Override
 	public boolean backup() throws IOException {
 
@@ -714,7 +853,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		// Move the plot to be restored
 		if (townBlock.getWorld().isUsingPlotManagementRevert()) {
 			PlotBlockData plotData = TownyRegenAPI.getPlotChunkSnapshot(townBlock);
-			if (plotData != null && !plotData.getBlockList().isEmpty()) {
+			if (plotData != null && !plotData.isEmpty()) {
 				TownyRegenAPI.addPlotChunk(plotData, true);
 			}
 		}
@@ -808,6 +947,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 		
 		plugin.resetCache();
 		deleteTown(town);
+		town.deleteBankHistory();
 		
 		BukkitTools.getPluginManager().callEvent(new DeleteTownEvent(town, mayor.getUUID()));
 		
@@ -863,6 +1003,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
 
 		//Delete nation and save towns
 		deleteNation(nation);
+		nation.deleteBankHistory();
 		List<Town> toSave = new ArrayList<>(nation.getTowns());
 		nation.clear();
 
@@ -1339,7 +1480,8 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
      */
     private PlotBlockData loadDataStream(PlotBlockData plotBlockData, InputStream stream) {
     	int version = 0;
-    	List<String> blockArr = new ArrayList<>();
+    	// Blocks are de-duplicated into a palette as they are read, whatever version the file is.
+    	BlockPalette.Builder blocks = new BlockPalette.Builder(0);
     	String value;
         try (DataInputStream fin = new DataInputStream(stream)) {
             
@@ -1364,8 +1506,8 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
                 // First entry is the plot height
                 fin.reset();
                 plotBlockData.setHeight(fin.readInt());
-                blockArr.add(fin.readUTF());
-                blockArr.add(fin.readUTF());
+                blocks.add(fin.readUTF());
+                blocks.add(fin.readUTF());
             }
             
             /*
@@ -1373,6 +1515,28 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
              */
             switch (version) {
                 
+                case 5: {
+                    
+                    // Palette of distinct blocks, followed by runs of palette indexes.
+                    int paletteSize = fin.readInt();
+                    for (int i = 0; i < paletteSize; i++)
+                        blocks.addPalette(fin.readUTF());
+                    
+                    int blockCount = fin.readInt();
+                    int read = 0;
+                    while (read < blockCount) {
+                        int paletteIndex = fin.readInt();
+                        int run = fin.readInt();
+                        if (run <= 0)
+                            throw new IOException("Invalid block run length " + run + " in plot snapshot.");
+                        for (int i = 0; i < run; i++)
+                            blocks.addIndex(paletteIndex);
+                        read += run;
+                    }
+                    
+                    break;
+                }
+                
                 default:
                 case 4:
                 case 3:
@@ -1380,7 +1544,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
                     
                     // load remainder of file
                     while ((value = fin.readUTF()) != null) {
-                        blockArr.add(value);
+                        blocks.add(value);
                     }
                     
                     break;
@@ -1390,7 +1554,7 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
                     // load remainder of file
                     int temp = 0;
                     while ((temp = fin.readInt()) >= 0) {
-                        blockArr.add(temp + "");
+                        blocks.add(temp + "");
                     }
                     
                     break;
@@ -1399,12 +1563,15 @@ public abstract class TownyDatabaseHandler extends TownyDataSource {
             
             
         } catch (EOFException ignored) {
-        } catch (IOException e) {
+        } catch (IOException | IllegalArgumentException e) {
             e.printStackTrace();
         }
         
-        plotBlockData.setBlockList(blockArr);
+        plotBlockData.setBlocks(blocks.build());
         plotBlockData.resetBlockListRestored();
+        // Version 4 blocks are stored the same way as version 5, any re-save will use the smaller format.
+        if (version == 4)
+            plotBlockData.setVersion(5);
         return plotBlockData;
     }
     
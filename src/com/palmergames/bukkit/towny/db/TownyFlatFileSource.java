@@ -28,18 +28,31 @@ import org.bukkit.World;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 public final class TownyFlatFileSource extends TownyDatabaseHandler {
 
+	// How many object files are read ahead, in parallel, before they are loaded.
+	private static final int LOAD_BATCH_SIZE = 2048;
+
 	private final String newLine = System.getProperty("line.separator");
+	// Files read ahead by loadEach, waiting to be picked up by the object loaders.
+	private final Map<File, HashMap<String, String>> readAhead = new ConcurrentHashMap<>();
+	// Log the townblocks are stored in, or null when they are stored as one file each.
+	private final TownBlockLogStore townBlockLog;
 	
 	public TownyFlatFileSource(Towny plugin, TownyUniverse universe) {
 		super(plugin, universe);
@@ -65,6 +78,24 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		)) {
 			TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_cannot_create_defaults"));
 		}
+
+		TownBlockLogStore log = null;
+		if (TownySettings.isFlatFileTownBlockLogEnabled()) {
+			try {
+				log = TownBlockLogStore.open(new File(dataFolderPath + File.separator + "townblocks-log"));
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Could not open the townblock log, townblocks will be stored as files: " + e.getMessage());
+			}
+		}
+		this.townBlockLog = log;
+	}
+
+	@Override
+	public void finishTasks() {
+		
+		super.finishTasks();
+		if (townBlockLog != null)
+			townBlockLog.close();
 	}
 	
 	public enum elements {
@@ -112,6 +143,86 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	public String getJailFilename(Jail jail) {
 		return dataFolderPath + File.separator + "jails" + File.separator + jail.getUUID() + ".txt";
 	}
+
+	/**
+	 * @param object - Object which is loaded from a flatfile.
+	 * @return the file the object is loaded from, or null if it isn't one loadEach reads ahead.
+	 */
+	private File getObjectFile(Object object) {
+		
+		if (object instanceof Resident)
+			return new File(getResidentFilename((Resident) object));
+		if (object instanceof Town)
+			return new File(getTownFilename((Town) object));
+		if (object instanceof Nation)
+			return new File(getNationFilename((Nation) object));
+		if (object instanceof TownyWorld)
+			return new File(getWorldFilename((TownyWorld) object));
+		if (object instanceof TownBlock)
+			return townBlockLog == null ? new File(getTownBlockFilename((TownBlock) object)) : null;
+		if (object instanceof Jail)
+			return new File(getJailFilename((Jail) object));
+		return null;
+	}
+
+	/**
+	 * Loads objects in batches. The files of each batch are read and parsed
+	 * in parallel first, then the objects are loaded one at a time on this
+	 * thread, where they are linked to each other, taking their keys from
+	 * the files already read.
+	 */
+	@Override
+	protected <T> boolean loadEach(String type, Collection<T> objects, Predicate<T> loader) {
+
+		long readTime = 0, linkTime = 0;
+		int count = 0;
+		try {
+			Iterator<T> iterator = objects.iterator();
+			List<T> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+			List<File> files = new ArrayList<>(LOAD_BATCH_SIZE);
+			while (iterator.hasNext()) {
+				batch.clear();
+				files.clear();
+				while (iterator.hasNext() && batch.size() < LOAD_BATCH_SIZE) {
+					T object = iterator.next();
+					batch.add(object);
+					File file = getObjectFile(object);
+					if (file != null)
+						files.add(file);
+				}
+
+				long start = System.nanoTime();
+				readAhead.putAll(FileMgmt.loadFilesIntoHashMaps(files));
+				long read = System.nanoTime();
+				readTime += read - start;
+
+				for (T object : batch) {
+					if (!loader.test(object))
+						return false;
+					count++;
+				}
+				linkTime += System.nanoTime() - read;
+				readAhead.clear();
+			}
+		} finally {
+			readAhead.clear();
+		}
+
+		plugin.getLogger().info(String.format("Loaded %d %s in %dms (reading %dms, linking %dms).", count, type, (readTime + linkTime) / 1000000, readTime / 1000000, linkTime / 1000000));
+		return true;
+	}
+
+	/**
+	 * Gets the keys of an object file, from the files read ahead by loadEach if it is there.
+	 * 
+	 * @param file - File from which the HashMap will be made.
+	 * @return HashMap - Used for loading keys and values from object files.
+	 */
+	private HashMap<String, String> loadKeys(File file) {
+		
+		HashMap<String, String> keys = readAhead.remove(file);
+		return keys != null ? keys : FileMgmt.loadFileIntoHashMap(file);
+	}
 	
 	/*
 	 * Load keys
@@ -122,6 +233,9 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		
 		TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_townblock_list"));
 
+		if (townBlockLog != null)
+			return loadTownBlockListFromLog();
+
 		File townblocksFolder = new File(dataFolderPath + File.separator + "townblocks");
 		File[] worldFolders = townblocksFolder.listFiles(File::isDirectory);
 		TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_folders_found", worldFolders.length));
@@ -379,6 +493,81 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		return list;
 	}
 
+	/**
+	 * Registers every townblock held in the townblock log, first copying any
+	 * townblock files left over from the one-file-per-townblock layout into it.
+	 * 
+	 * @return true if the townblocks were registered.
+	 */
+	private boolean loadTownBlockListFromLog() {
+
+		try {
+			convertTownBlockFiles();
+
+			int[] total = {0};
+			townBlockLog.forEachKey((worldName, x, z) -> {
+				TownyWorld world;
+				try {
+					world = getWorld(worldName);
+				} catch (NotRegisteredException e) {
+					try {
+						newWorld(worldName);
+						world = getWorld(worldName);
+					} catch (AlreadyRegisteredException | NotRegisteredException e1) {
+						return;
+					}
+				}
+				TownyUniverse.getInstance().addTownBlock(new TownBlock(x, z, world));
+				total[0]++;
+			});
+			TownyMessaging.sendDebugMsg("Townblock log holds " + total[0] + " townblocks.");
+			return true;
+		} catch (Exception e) {
+			e.printStackTrace();
+			return false;
+		}
+	}
+
+	/**
+	 * Copies the townblock files in data/townblocks into the townblock log, then
+	 * renames the folder so that they are not converted again.
+	 */
+	private void convertTownBlockFiles() throws IOException {
+
+		File townblocksFolder = new File(dataFolderPath + File.separator + "townblocks");
+		File[] worldFolders = townblocksFolder.listFiles(File::isDirectory);
+		if (worldFolders == null)
+			return;
+
+		int converted = 0;
+		for (File worldFolder : worldFolders) {
+			File[] townBlockFiles = worldFolder.listFiles(file -> file.getName().endsWith(".data"));
+			if (townBlockFiles == null)
+				continue;
+			for (File townBlockFile : townBlockFiles) {
+				String[] coords = townBlockFile.getName().split("_");
+				try {
+					// Files saved under a different town_block_size are never loaded, so are not converted.
+					if (Integer.parseInt(coords[2].split("\\.")[0]) != TownySettings.getTownBlockSize())
+						continue;
+					townBlockLog.put(worldFolder.getName(), Integer.parseInt(coords[0]), Integer.parseInt(coords[1]), FileMgmt.convertFileToString(townBlockFile));
+					converted++;
+				} catch (NumberFormatException | ArrayIndexOutOfBoundsException ignored) {
+				}
+			}
+		}
+		if (converted == 0)
+			return;
+
+		// Only give up the old layout once the log is safely on disk.
+		townBlockLog.flush();
+		File renamed = new File(dataFolderPath + File.separator + "townblocks-converted-" + FileMgmt.getFileTimeStamp());
+		if (!townblocksFolder.renameTo(renamed))
+			TownyMessaging.sendErrorMsg("Could not rename " + townblocksFolder.getPath() + ", its townblocks will be copied into the log again on the next startup.");
+		FileMgmt.checkOrCreateFolder(townblocksFolder.getPath());
+		plugin.getLogger().info("Converted " + converted + " townblock files into the townblock log.");
+	}
+
 	/**
 	 * Util method for gathering towny object .txt files from their parent folder.
 	 * ex: "residents" 
@@ -402,7 +591,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileResident.exists() && fileResident.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_resident", resident.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileResident);
+				HashMap<String, String> keys = loadKeys(fileResident);
 				
 				line = keys.get("lastOnline");
 				if (line != null)
@@ -536,7 +725,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileTown.exists() && fileTown.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_town", town.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTown);
+				HashMap<String, String> keys = loadKeys(fileTown);
 
 				line = keys.get("mayor");
 				if (line != null)
@@ -920,7 +1109,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileNation.exists() && fileNation.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_nation", nation.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileNation);
+				HashMap<String, String> keys = loadKeys(fileNation);
 				
 				line = keys.get("capital");
 				String cantLoadCapital = Translation.of("flatfile_err_nation_could_not_load_capital_disband", nation.getName());
@@ -1093,7 +1282,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		if (fileWorld.exists() && fileWorld.isFile()) {
 			TownyMessaging.sendDebugMsg(Translation.of("flatfile_dbg_loading_world", world.getName()));
 			try {
-				HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileWorld);
+				HashMap<String, String> keys = loadKeys(fileWorld);
 				
 				line = keys.get("claimable");
 				if (line != null)
@@ -1433,145 +1622,149 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public boolean loadTownBlocks() {
 		
+		return loadEach("townblocks", getAllTownBlocks(), this::loadTownBlock);
+	}
+
+	private boolean loadTownBlock(TownBlock townBlock) {
+		
 		String line = "";
-		String path;
+		String path = getTownBlockFilename(townBlock);
 		
+		File fileTownBlock = new File(path);
+		boolean stored = townBlockLog != null
+			? townBlockLog.contains(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ())
+			: fileTownBlock.exists() && fileTownBlock.isFile();
+		if (stored) {
 
-		for (TownBlock townBlock : getAllTownBlocks()) {
-			path = getTownBlockFilename(townBlock);
-			
-			File fileTownBlock = new File(path);
-			if (fileTownBlock.exists() && fileTownBlock.isFile()) {
-
-				try {
-					HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(fileTownBlock);			
+			try {
+				HashMap<String, String> keys = townBlockLog != null
+					? townBlockLog.read(townBlock.getWorld().getName(), townBlock.getX(), townBlock.getZ())
+					: loadKeys(fileTownBlock);
 
-					line = keys.get("town");
-					if (line != null) {
-						if (line.isEmpty()) {
-							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_missing_town_delete", path));
-							TownyUniverse.getInstance().removeTownBlock(townBlock);
-							deleteTownBlock(townBlock);
-							continue;
-						}
-						Town town = universe.getTown(line.trim());
-						
-						if (town == null) {
-							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_contains_unregistered_town_delete", line, path));
-							TownyUniverse.getInstance().removeTownBlock(townBlock);
-							deleteTownBlock(townBlock);
-							continue;
-						}
-						
-						townBlock.setTown(town, false);
-						try {
-							town.addTownBlock(townBlock);
-							TownyWorld townyWorld = townBlock.getWorld();
-							if (townyWorld != null && !townyWorld.hasTown(town))
-								townyWorld.addTown(town);
-						} catch (AlreadyRegisteredException ignored) {
-						}
-					} else {
-						// Town line is null, townblock is invalid.
+				line = keys.get("town");
+				if (line != null) {
+					if (line.isEmpty()) {
 						TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_missing_town_delete", path));
 						TownyUniverse.getInstance().removeTownBlock(townBlock);
 						deleteTownBlock(townBlock);
-						continue;
+						return true;
 					}
-
-					line = keys.get("name");
-					if (line != null)
-						try {
-							townBlock.setName(line.trim());
-						} catch (Exception ignored) {
-						}
+					Town town = universe.getTown(line.trim());
 					
-					line = keys.get("price");
-					if (line != null)
-						try {
-							townBlock.setPlotPrice(Double.parseDouble(line.trim()));
-						} catch (Exception ignored) {
-						}
-
-					line = keys.get("resident");
-					if (line != null && !line.isEmpty()) {
-						Resident res = universe.getResident(line.trim());
-						if (res != null) {
-							townBlock.setResident(res);
-						}
-						else {
-							TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_invalid_townblock_resident", townBlock.toString()));
-						}
+					if (town == null) {
+						TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_contains_unregistered_town_delete", line, path));
+						TownyUniverse.getInstance().removeTownBlock(townBlock);
+						deleteTownBlock(townBlock);
+						return true;
 					}
 					
-					line = keys.get("type");
-					if (line != null)
-						try {
-							townBlock.setType(Integer.parseInt(line));
-						} catch (Exception ignored) {
-						}
-					
-					line = keys.get("outpost");
-					if (line != null)
-						try {
-							townBlock.setOutpost(Boolean.parseBoolean(line));
-						} catch (Exception ignored) {
-						}
-					
-					line = keys.get("permissions");
-					if ((line != null) && !line.isEmpty())
-						try {
-							townBlock.setPermissions(line.trim());
-						} catch (Exception ignored) {
-						}
-					
-					line = keys.get("changed");
-					if (line != null)
-						try {
-							townBlock.setChanged(Boolean.parseBoolean(line.trim()));
-						} catch (Exception ignored) {
-						}
-					
-					line = keys.get("locked");
-					if (line != null)
-						try {
-							townBlock.setLocked(Boolean.parseBoolean(line.trim()));
-						} catch (Exception ignored) {
-						}
+					townBlock.setTown(town, false);
+					try {
+						town.addTownBlock(townBlock);
+						TownyWorld townyWorld = townBlock.getWorld();
+						if (townyWorld != null && !townyWorld.hasTown(town))
+							townyWorld.addTown(town);
+					} catch (AlreadyRegisteredException ignored) {
+					}
+				} else {
+					// Town line is null, townblock is invalid.
+					TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_missing_town_delete", path));
+					TownyUniverse.getInstance().removeTownBlock(townBlock);
+					deleteTownBlock(townBlock);
+					return true;
+				}
 
-					line = keys.get("claimedAt");
-					if (line != null)
-						try {
-							townBlock.setClaimedAt(Long.parseLong(line));
-						} catch (Exception ignored) {}
-					
-					line = keys.get("metadata");
-					if (line != null && !line.isEmpty())
-						MetadataLoader.getInstance().deserializeMetadata(townBlock, line.trim());
+				line = keys.get("name");
+				if (line != null)
+					try {
+						townBlock.setName(line.trim());
+					} catch (Exception ignored) {
+					}
+				
+				line = keys.get("price");
+				if (line != null)
+					try {
+						townBlock.setPlotPrice(Double.parseDouble(line.trim()));
+					} catch (Exception ignored) {
+					}
 
-					line = keys.get("groupID");
-					UUID groupID = null;
-					if (line != null && !line.isEmpty()) {
-						groupID = UUID.fromString(line.trim());
+				line = keys.get("resident");
+				if (line != null && !line.isEmpty()) {
+					Resident res = universe.getResident(line.trim());
+					if (res != null) {
+						townBlock.setResident(res);
 					}
-					
-					if (groupID != null) {
-						PlotGroup group = getPlotObjectGroup(townBlock.getTownOrNull().toString(), groupID);
-						townBlock.setPlotObjectGroup(group);
+					else {
+						TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_invalid_townblock_resident", townBlock.toString()));
+					}
+				}
+				
+				line = keys.get("type");
+				if (line != null)
+					try {
+						townBlock.setType(Integer.parseInt(line));
+					} catch (Exception ignored) {
+					}
+				
+				line = keys.get("outpost");
+				if (line != null)
+					try {
+						townBlock.setOutpost(Boolean.parseBoolean(line));
+					} catch (Exception ignored) {
+					}
+				
+				line = keys.get("permissions");
+				if ((line != null) && !line.isEmpty())
+					try {
+						townBlock.setPermissions(line.trim());
+					} catch (Exception ignored) {
+					}
+				
+				line = keys.get("changed");
+				if (line != null)
+					try {
+						townBlock.setChanged(Boolean.parseBoolean(line.trim()));
+					} catch (Exception ignored) {
+					}
+				
+				line = keys.get("locked");
+				if (line != null)
+					try {
+						townBlock.setLocked(Boolean.parseBoolean(line.trim()));
+					} catch (Exception ignored) {
 					}
 
-				} catch (Exception e) {
-					TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_exception_reading_townblock_file_at_line", path, line));
-					return false;
+				line = keys.get("claimedAt");
+				if (line != null)
+					try {
+						townBlock.setClaimedAt(Long.parseLong(line));
+					} catch (Exception ignored) {}
+				
+				line = keys.get("metadata");
+				if (line != null && !line.isEmpty())
+					MetadataLoader.getInstance().deserializeMetadata(townBlock, line.trim());
+
+				line = keys.get("groupID");
+				UUID groupID = null;
+				if (line != null && !line.isEmpty()) {
+					groupID = UUID.fromString(line.trim());
+				}
+				
+				if (groupID != null) {
+					PlotGroup group = getPlotObjectGroup(townBlock.getTownOrNull().toString(), groupID);
+					townBlock.setPlotObjectGroup(group);
 				}
 
-			} else {
-				TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_unknown_err", path));
-				TownyUniverse.getInstance().removeTownBlock(townBlock);
-				deleteTownBlock(townBlock);
+			} catch (Exception e) {
+				TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_exception_reading_townblock_file_at_line", path, line));
+				return false;
 			}
+
+		} else {
+			TownyMessaging.sendErrorMsg(Translation.of("flatfile_err_townblock_file_unknown_err", path));
+			TownyUniverse.getInstance().removeTownBlock(townBlock);
+			deleteTownBlock(townBlock);
 		}
-		
 		return true;
 	}
 
@@ -1581,7 +1774,7 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		String path = getJailFilename(jail);
 		File jailFile = new File(path);
 		if (jailFile.exists() && jailFile.isFile()) {
-			HashMap<String, String> keys = FileMgmt.loadFileIntoHashMap(jailFile);
+			HashMap<String, String> keys = loadKeys(jailFile);
 			
 			line = keys.get("townblock");
 			if (line != null) {
@@ -2075,7 +2268,8 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	@Override
 	public boolean saveTownBlock(TownBlock townBlock) {
 
-		FileMgmt.checkOrCreateFolder(dataFolderPath + File.separator + "townblocks" + File.separator + townBlock.getWorld().getName());
+		if (townBlockLog == null)
+			FileMgmt.checkOrCreateFolder(dataFolderPath + File.separator + "townblocks" + File.separator + townBlock.getWorld().getName());
 
 		List<String> list = new ArrayList<>();
 
@@ -2131,7 +2325,20 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 		/*
 		 *  Make sure we only save in async
 		 */
-		this.queryQueue.add(new FlatFileSaveTask(list, getTownBlockFilename(townBlock)));
+		if (townBlockLog != null) {
+			String worldName = townBlock.getWorld().getName();
+			int x = townBlock.getX(), z = townBlock.getZ();
+			String data = String.join("\n", list);
+			this.queryQueue.add(() -> {
+				try {
+					townBlockLog.put(worldName, x, z, data);
+					townBlockLog.compactIfNeeded();
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Could not write townblock " + worldName + " " + x + "," + z + " to the townblock log: " + e.getMessage());
+				}
+			});
+		} else
+			this.queryQueue.add(new FlatFileSaveTask(list, getTownBlockFilename(townBlock)));
 
 		return true;
 
@@ -2163,30 +2370,57 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deleteResident(Resident resident) {
+		cancelScheduledSave(resident);
 		File file = new File(getResidentFilename(resident));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteTown(Town town) {
+		cancelScheduledSave(town);
 		File file = new File(getTownFilename(town));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteNation(Nation nation) {
+		cancelScheduledSave(nation);
 		File file = new File(getNationFilename(nation));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteWorld(TownyWorld world) {
+		cancelScheduledSave(world);
 		File file = new File(getWorldFilename(world));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
 
 	@Override
 	public void deleteTownBlock(TownBlock townBlock) {
+		cancelScheduledSave(townBlock);
+
+		if (townBlockLog != null) {
+			String worldName = townBlock.getWorld().getName();
+			int x = townBlock.getX(), z = townBlock.getZ();
+			File archive = new File(getTownBlockFilename(townBlock));
+			queryQueue.add(() -> {
+				try {
+					String data = townBlockLog.delete(worldName, x, z);
+					if (data != null) {
+						// Keep the deleted townblock in the deleted folder, as is done with townblock files.
+						String name = townBlock.hasTown() ? townBlock.getTownOrNull().getName() : "";
+						File folder = new File(archive.getParent() + File.separator + "deleted" + (name.isEmpty() ? "" : File.separator + name));
+						FileMgmt.checkOrCreateFolder(folder.getPath());
+						FileMgmt.stringToFile(data, new File(folder, archive.getName()));
+					}
+					townBlockLog.compactIfNeeded();
+				} catch (IOException e) {
+					TownyMessaging.sendErrorMsg("Could not delete townblock " + worldName + " " + x + "," + z + " from the townblock log: " + e.getMessage());
+				}
+			});
+			return;
+		}
 
 		File file = new File(getTownBlockFilename(townBlock));
 		
@@ -2211,12 +2445,14 @@ public final class TownyFlatFileSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deletePlotGroup(PlotGroup group) {
+		cancelScheduledSave(group);
     	File file = new File(getPlotGroupFilename(group));
     	queryQueue.add(new DeleteFileTask(file, false));
 	}
 	
 	@Override
 	public void deleteJail(Jail jail) {
+		cancelScheduledSave(jail);
 		File file = new File(getJailFilename(jail));
 		queryQueue.add(new DeleteFileTask(file, false));
 	}
@@ -6,6 +6,7 @@
 package com.palmergames.bukkit.towny.db;
 
 import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyLogger;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
@@ -58,6 +59,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	private final Queue<SQL_Task> queryQueue = new ConcurrentLinkedQueue<>();
 	private BukkitTask task = null;
 
+	private final SQL_Dialect dialect;
 	private final String dsn;
 	private final String db_name;
 	private final String username;
@@ -68,9 +70,20 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	private final HikariConfig config;
 	private final HikariDataSource hikariDataSource;
+	private final SQL_BatchWriter batchWriter;
 
 	public TownySQLSource(Towny plugin, TownyUniverse universe) {
+		this(plugin, universe, SQL_Dialect.MYSQL);
+	}
+
+	/**
+	 * @param plugin - Towny.
+	 * @param universe - TownyUniverse.
+	 * @param dialect - The kind of database to connect to, {@link SQL_Dialect#H2} keeps an embedded database in the data folder.
+	 */
+	public TownySQLSource(Towny plugin, TownyUniverse universe, SQL_Dialect dialect) {
 		super(plugin, universe);
+		this.dialect = dialect;
 		if (!FileMgmt.checkOrCreateFolders(rootFolderPath, dataFolderPath,
 				dataFolderPath + File.separator + "plot-block-data")
 				|| !FileMgmt.checkOrCreateFiles(dataFolderPath + File.separator + "regen.txt",
@@ -84,41 +97,50 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		db_name = TownySettings.getSQLDBName();
 		tb_prefix = TownySettings.getSQLTablePrefix().toUpperCase();
 		
-		this.dsn = ("jdbc:mysql://" + TownySettings.getSQLHostName() + ":" + TownySettings.getSQLPort() + "/" + db_name + TownySettings.getSQLFlags());
+		this.dsn = dialect.getJdbcUrl(dataFolderPath);
 		this.config = new HikariConfig();
 		
-		config.setPoolName("Towny MySQL");
+		config.setPoolName("Towny " + dialect.getName());
 		config.setJdbcUrl(this.dsn);
 
-		username = TownySettings.getSQLUsername();
-		password = TownySettings.getSQLPassword();
+		/*
+		 * The embedded database is created by whoever connects first, so it
+		 * doesn't use the server login details.
+		 */
+		username = dialect.isEmbedded() ? "sa" : TownySettings.getSQLUsername();
+		password = dialect.isEmbedded() ? "" : TownySettings.getSQLPassword();
 
 		config.setUsername(username);
 		config.setPassword(password);
-
-		config.addDataSourceProperty("cachePrepStmts", "true");
-		config.addDataSourceProperty("prepStmtCacheSize", "250");
-		config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
-		config.addDataSourceProperty("useServerPrepStmts", "true");
-		config.addDataSourceProperty("useLocalSessionState", "true");
-		config.addDataSourceProperty("rewriteBatchedStatements", "true");
-		config.addDataSourceProperty("cacheResultSetMetadata", "true");
-		config.addDataSourceProperty("cacheServerConfiguration", "true");
-		config.addDataSourceProperty("elideSetAutoCommits", "true");
-		config.addDataSourceProperty("maintainTimeStats", "false");
-		config.addDataSourceProperty("cacheCallableStmts", "true");
+		if (dialect.isEmbedded())
+			config.setDriverClassName(dialect.getDriverClass());
+
+		if (dialect == SQL_Dialect.MYSQL) {
+			config.addDataSourceProperty("cachePrepStmts", "true");
+			config.addDataSourceProperty("prepStmtCacheSize", "250");
+			config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+			config.addDataSourceProperty("useServerPrepStmts", "true");
+			config.addDataSourceProperty("useLocalSessionState", "true");
+			config.addDataSourceProperty("rewriteBatchedStatements", "true");
+			config.addDataSourceProperty("cacheResultSetMetadata", "true");
+			config.addDataSourceProperty("cacheServerConfiguration", "true");
+			config.addDataSourceProperty("elideSetAutoCommits", "true");
+			config.addDataSourceProperty("maintainTimeStats", "false");
+			config.addDataSourceProperty("cacheCallableStmts", "true");
+		}
 
 		config.setMaximumPoolSize(TownySettings.getMaxPoolSize());
 		config.setMaxLifetime(TownySettings.getMaxLifetime());
 		config.setConnectionTimeout(TownySettings.getConnectionTimeout());
 
 		this.hikariDataSource = new HikariDataSource(config);
+		this.batchWriter = TownySettings.getSQLBatchSize() > 0 ? new SQL_BatchWriter(this, dialect, tb_prefix, TownySettings.getSQLBatchSize()) : null;
 
 		/*
 		 * Register the driver (if possible)
 		 */
 		try {
-			Driver driver = (Driver) Class.forName("com.mysql.jdbc.Driver").newInstance();
+			Driver driver = (Driver) Class.forName(dialect.getDriverClass()).newInstance();
 			DriverManager.registerDriver(driver);
 		} catch (Exception e) {
 			System.out.println("[Towny] Driver error: " + e);
@@ -141,26 +163,41 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		/*
 		 * Initialise database Schema.
 		 */
-		SQL_Schema.initTables(cntx, db_name);
+		SQL_Schema.initTables(cntx, db_name, dialect);
 
 		/*
 		 * Start our Async queue for pushing data to the database.
 		 */
-		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+		task = BukkitTools.getScheduler().runTaskTimerAsynchronously(plugin, this::processQueue, 5L, 5L);
+	}
 
-			while (!TownySQLSource.this.queryQueue.isEmpty()) {
+	/**
+	 * Run every queued SQL_Task, batched when a batch size is configured.
+	 */
+	private synchronized void processQueue() {
 
-				SQL_Task query = TownySQLSource.this.queryQueue.poll();
+		if (batchWriter != null) {
+			List<SQL_Task> tasks = new ArrayList<>();
+			SQL_Task query;
+			while ((query = queryQueue.poll()) != null)
+				tasks.add(query);
 
-				if (query.update) {
-					TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
-				} else {
-					TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
-				}
+			if (!tasks.isEmpty() && getContext())
+				batchWriter.write(cntx, tasks);
+			return;
+		}
 
+		while (!queryQueue.isEmpty()) {
+
+			SQL_Task query = queryQueue.poll();
+
+			if (query.update) {
+				QueueUpdateDB(query.tb_name, query.args, query.keys);
+			} else {
+				QueueDeleteDB(query.tb_name, query.args);
 			}
 
-		}, 5L, 5L);
+		}
 	}
 
 	@Override
@@ -168,16 +205,15 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		// Cancel the repeating task as its not needed anymore.
 		task.cancel();
 
+		// Serialise anything still waiting in the save pipeline.
+		finishSavePipeline();
+
 		// Make sure that *all* tasks are saved before shutting down.
-		while (!queryQueue.isEmpty()) {
-			SQL_Task query = TownySQLSource.this.queryQueue.poll();
+		processQueue();
+
+		if (batchWriter != null)
+			batchWriter.close();
 
-			if (query.update) {
-				TownySQLSource.this.QueueUpdateDB(query.tb_name, query.args, query.keys);
-			} else {
-				TownySQLSource.this.QueueDeleteDB(query.tb_name, query.args);
-			}
-		}
 		// Close the database sources on shutdown to get GC
 		hikariDataSource.close();
 	}
@@ -271,7 +307,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 				// Build the prepared statement string appropriate for
 				// the number of keys/values we are inserting.
 
-				code = new StringBuilder("REPLACE INTO " + tb_prefix + (tb_name.toUpperCase()) + " ");
+				code = new StringBuilder(dialect.getReplaceInto() + " " + tb_prefix + (tb_name.toUpperCase()) + " ");
 				StringBuilder keycode = new StringBuilder("(");
 				StringBuilder valuecode = new StringBuilder(" VALUES (");
 
@@ -364,6 +400,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		} catch (SQLException e) {
 
 			TownyMessaging.sendErrorMsg("SQL: " + e.getMessage() + " --> " + stmt.toString());
+			TownyLogger.getInstance().logDatabase("Update failed: " + e.getMessage() + " --> " + stmt.toString());
 
 		} finally {
 
@@ -449,7 +486,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 		if (!getContext())
 			return false;
 
-		SQL_Schema.cleanup(cntx, db_name);
+		SQL_Schema.cleanup(cntx, db_name, dialect);
 
 		return true;
 	}
@@ -2335,6 +2372,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deleteResident(Resident resident) {
+		cancelScheduledSave(resident);
 
 		HashMap<String, Object> res_hm = new HashMap<>();
 		res_hm.put("name", resident.getName());
@@ -2343,6 +2381,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	@Override
 	public void deleteTown(Town town) {
+		cancelScheduledSave(town);
 
 		HashMap<String, Object> twn_hm = new HashMap<>();
 		twn_hm.put("name", town.getName());
@@ -2351,6 +2390,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	@Override
 	public void deleteNation(Nation nation) {
+		cancelScheduledSave(nation);
 
 		HashMap<String, Object> nat_hm = new HashMap<>();
 		nat_hm.put("name", nation.getName());
@@ -2359,11 +2399,12 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	@Override
 	public void deleteWorld(TownyWorld world) {
-
+		cancelScheduledSave(world);
 	}
 
 	@Override
 	public void deleteTownBlock(TownBlock townBlock) {
+		cancelScheduledSave(townBlock);
 		HashMap<String, Object> twn_hm = new HashMap<>();
 		twn_hm.put("world", townBlock.getWorld().getName());
 		twn_hm.put("x", townBlock.getX());
@@ -2373,6 +2414,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 
 	@Override
 	public void deletePlotGroup(PlotGroup group) {
+		cancelScheduledSave(group);
 
 		HashMap<String, Object> pltgrp_hm = new HashMap<>();
 		pltgrp_hm.put("name", group.getName());
@@ -2381,6 +2423,7 @@ public final class TownySQLSource extends TownyDatabaseHandler {
 	
 	@Override
 	public void deleteJail(Jail jail) {
+		cancelScheduledSave(jail);
 		
 		HashMap<String, Object> jail_hm = new HashMap<>();
 		jail_hm.put("uuid", jail.getUUID());
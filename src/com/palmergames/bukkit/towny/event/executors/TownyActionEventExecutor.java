@@ -2,10 +2,12 @@ package com.palmergames.bukkit.towny.event.executors;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Entity;
@@ -25,6 +27,8 @@ import com.palmergames.bukkit.towny.event.actions.TownyItemuseEvent;
 import com.palmergames.bukkit.towny.event.actions.TownySwitchEvent;
 import com.palmergames.bukkit.towny.event.damage.TownyExplosionDamagesEntityEvent;
 import com.palmergames.bukkit.towny.object.PlayerCache;
+import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownBlockLookup;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.utils.PlayerCacheUtil;
@@ -91,13 +95,21 @@ public class TownyActionEventExecutor {
 	 * @return true if the explosion is allowed.
 	 */
 	private static boolean isAllowedExplosion(Location loc) {
-		boolean canExplode = false;
 		TownyWorld world = TownyAPI.getInstance().getTownyWorld(loc.getWorld().getName());
+		return isAllowedExplosion(world, world == null ? null : TownyAPI.getInstance().getTownBlock(loc));
+	}
+
+	/**
+	 * @param world - TownyWorld the explosion is in, or null if it isn't known.
+	 * @param townBlock - TownBlock being exploded, or null in the wilderness.
+	 * @return true if the explosion is allowed.
+	 */
+	private static boolean isAllowedExplosion(TownyWorld world, TownBlock townBlock) {
+		boolean canExplode = false;
 		if (world == null)
 			canExplode = false;
 		else {
-		
-			if (TownyAPI.getInstance().isWilderness(loc)) {
+			if (townBlock == null || !townBlock.hasTown()) {
 				/*
 				 * Handle occasions in the wilderness first.
 				 */
@@ -109,21 +121,36 @@ public class TownyActionEventExecutor {
 				/*
 				 * Must be inside of a town.
 				 */
-				canExplode = TownyAPI.getInstance().getTownBlock(loc).getPermissions().explosion;			
+				canExplode = townBlock.getPermissions().explosion;
 			}
 		}
 
 		return canExplode;
 	}
 	
+	/**
+	 * Every block of an explosion is in the same world, and most of them share
+	 * a townblock with many others. The world is looked up once and the
+	 * permission is decided once for each townblock, the lookup keeps the
+	 * decision so every other block in that townblock reuses it, in whatever
+	 * order the blocks come.
+	 */
 	private static List<Block> filterExplodingBlockList(List<Block> blocks) {
 
-		List<Block> approvedBlocks = new ArrayList<Block>();
+		List<Block> approvedBlocks = new ArrayList<Block>(blocks.size());
+		if (blocks.isEmpty())
+			return approvedBlocks;
 		
-		for (Block block : blocks) {
-			if (isAllowedExplosion(block.getLocation()))
+		World world = blocks.get(0).getWorld();
+		TownyWorld townyWorld = TownyAPI.getInstance().getTownyWorld(world.getName());
+		if (townyWorld == null)
+			return approvedBlocks;
+
+		TownBlockLookup lookup = new TownBlockLookup(world);
+		Predicate<TownBlock> allowed = townBlock -> isAllowedExplosion(townyWorld, townBlock);
+		for (Block block : blocks)
+			if (lookup.test(block, allowed))
 				approvedBlocks.add(block);
-		}
 		return approvedBlocks;
 	}
 	
@@ -140,11 +167,12 @@ public class TownyActionEventExecutor {
 	 */
 	private static boolean isAllowedBurn(Block block) {
 		TownyWorld townyWorld = TownyAPI.getInstance().getTownyWorld(block.getWorld().getName());
+		TownBlock townBlock = TownyAPI.getInstance().getTownBlock(block.getWorld(), block.getX(), block.getZ());
 			
 		/*
 		 *  Something being ignited in the wilderness.
 		 */
-		if (TownyAPI.getInstance().isWilderness(block)) {
+		if (townBlock == null || !townBlock.hasTown()) {
 			if (isNotPortal(block) && isNotCandle(block) && (!townyWorld.isForceFire() && !townyWorld.isFire()))
 				// Disallow because it is not above obsidian and neither Fire option is true.
 				return false;
@@ -154,7 +182,7 @@ public class TownyActionEventExecutor {
 		 */
 		} else {
 			if ((isNotPortal(block) && isNotCandle(block) && isNotFireSpreadBypassMat(block))          // Allows for NetherPortal/Netherrack/Soul_Sand/Soul_Soil ignition.
-			&& (!townyWorld.isForceFire() && !TownyAPI.getInstance().getTownBlock(block.getLocation()).getPermissions().fire)) // Normal fire rules. 
+			&& (!townyWorld.isForceFire() && !townBlock.getPermissions().fire)) // Normal fire rules. 
 				// Disallow because it is not above obsidian or on a FireSpreadBypassMat, and neither Fire option is true.
 				return false;
 		}
@@ -332,7 +360,7 @@ public class TownyActionEventExecutor {
 		 * Fire a TownyBurnEvent to let Towny's war system
 		 * and other plugins have a say in the results.
 		 */
-		TownyBurnEvent event = new TownyBurnEvent(block, block.getLocation(), TownyAPI.getInstance().getTownBlock(block.getLocation()), cancelled);
+		TownyBurnEvent event = new TownyBurnEvent(block, block.getLocation(), TownyAPI.getInstance().getTownBlock(block.getWorld(), block.getX(), block.getZ()), cancelled);
 		BukkitTools.getPluginManager().callEvent(event);
 		
 		/*
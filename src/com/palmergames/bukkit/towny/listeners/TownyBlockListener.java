@@ -6,15 +6,19 @@ import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.executors.TownyActionEventExecutor;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
+import com.palmergames.bukkit.towny.object.Coord;
 import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownBlockLookup;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
 import com.palmergames.bukkit.towny.utils.BorderUtil;
 import com.palmergames.bukkit.util.BlockUtil;
+import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.ItemLists;
 
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.BlockState;
@@ -37,11 +41,25 @@ import org.bukkit.event.block.BlockPistonRetractEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.block.EntityBlockFormEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TownyBlockListener implements Listener {
 
+	private static final int FLOW_MEMO_BITS = 10;
+	private static final byte FLOW_ALLOWED = 1;
+	private static final byte FLOW_DENIED = 2;
+
 	private final Towny plugin;
+	/*
+	 * Decisions on fluids flowing from one townblock into the next, made this tick.
+	 * Fluid farms flow across the same few borders many times a tick, the memo is
+	 * cleared on the next tick so that claims changing are picked up.
+	 */
+	private final long[] flowKeys = new long[1 << FLOW_MEMO_BITS];
+	private final byte[] flowDecisions = new byte[1 << FLOW_MEMO_BITS];
+	private World flowWorld = null;
+	private boolean flowClearScheduled = false;
 
 	public TownyBlockListener(Towny instance) {
 
@@ -179,16 +197,16 @@ public class TownyBlockListener implements Listener {
 			return;
 		}
 
-		if (!canBlockMove(event.getBlock(), event.isSticky() ? event.getBlock().getRelative(event.getDirection().getOppositeFace()) : event.getBlock().getRelative(event.getDirection())))
+		if (!canBlockMove(event.getBlock(), event.isSticky() ? event.getBlock().getRelative(event.getDirection().getOppositeFace()) : event.getBlock().getRelative(event.getDirection()))) {
 			event.setCancelled(true);
+			return;
+		}
 
-		List<Block> blocks = event.getBlocks();
-		
-		if (!blocks.isEmpty()) {
-			//check each block to see if it's going to pass a plot boundary
-			for (Block block : blocks) {
-				if (!canBlockMove(block, block.getRelative(event.getDirection())))
-					event.setCancelled(true);
+		//check each block to see if it's going to pass a plot boundary, one is enough to stop the piston.
+		for (Block block : event.getBlocks()) {
+			if (!canBlockMove(block, block.getRelative(event.getDirection()))) {
+				event.setCancelled(true);
+				return;
 			}
 		}
 	}
@@ -201,16 +219,16 @@ public class TownyBlockListener implements Listener {
 			return;
 		}
 		
-		if (!canBlockMove(event.getBlock(), event.getBlock().getRelative(event.getDirection())))
+		if (!canBlockMove(event.getBlock(), event.getBlock().getRelative(event.getDirection()))) {
 			event.setCancelled(true);
-		
-		List<Block> blocks = event.getBlocks();
+			return;
+		}
 
-		if (!blocks.isEmpty()) {
-			//check each block to see if it's going to pass a plot boundary
-			for (Block block : blocks) {
-				if (!canBlockMove(block, block.getRelative(event.getDirection())))
-					event.setCancelled(true);
+		//check each block to see if it's going to pass a plot boundary, one is enough to stop the piston.
+		for (Block block : event.getBlocks()) {
+			if (!canBlockMove(block, block.getRelative(event.getDirection()))) {
+				event.setCancelled(true);
+				return;
 			}
 		}
 	}
@@ -224,26 +242,82 @@ public class TownyBlockListener implements Listener {
 	 * @return true if block the block can move.
 	 */
 	private boolean canBlockMove(Block block, Block blockTo) {
-		WorldCoord from = WorldCoord.parseWorldCoord(block);
-		WorldCoord to = WorldCoord.parseWorldCoord(blockTo);
-
-		if (from.equals(to) || TownyAPI.getInstance().isWilderness(to))
+		//Moving within one townblock is always allowed, no need to look anything up.
+		if (Coord.toCell(block.getX()) == Coord.toCell(blockTo.getX()) && Coord.toCell(block.getZ()) == Coord.toCell(blockTo.getZ()))
 			return true;
 
-		try {
-			TownBlock currentTownBlock = from.getTownBlock();
-			TownBlock destinationTownBlock = to.getTownBlock();
+		World world = block.getWorld();
+		TownyUniverse universe = TownyUniverse.getInstance();
+		return canMoveBetween(universe.getTownBlockOrNull(world, block.getX(), block.getZ()), universe.getTownBlockOrNull(world, blockTo.getX(), blockTo.getZ()));
+	}
 
-			//Both townblocks are owned by the same resident.
-			if (currentTownBlock.hasResident() && destinationTownBlock.hasResident() && currentTownBlock.getResidentOrNull() == destinationTownBlock.getResidentOrNull())
-				return true;
+	/**
+	 * @param currentTownBlock - townblock being moved out of, or null in the wilderness.
+	 * @param destinationTownBlock - townblock being moved into, or null in the wilderness.
+	 * 
+	 * @return true if blocks can move from one townblock to the other.
+	 */
+	private static boolean canMoveBetween(TownBlock currentTownBlock, TownBlock destinationTownBlock) {
+		if (destinationTownBlock == null || !destinationTownBlock.hasTown())
+			return true;
 
-			//Both townblocks are owned by the same town.
-			return currentTownBlock.getTown() == destinationTownBlock.getTown() && !currentTownBlock.hasResident() && !destinationTownBlock.hasResident();
-		} catch (NotRegisteredException e) {
-			//The 'from' townblock is wilderness.
+		//The 'from' townblock is wilderness.
+		if (currentTownBlock == null)
 			return false;
+
+		//Both townblocks are owned by the same resident.
+		if (currentTownBlock.hasResident() && destinationTownBlock.hasResident() && currentTownBlock.getResidentOrNull() == destinationTownBlock.getResidentOrNull())
+			return true;
+
+		//Both townblocks are owned by the same town.
+		return currentTownBlock.hasTown() && currentTownBlock.getTownOrNull() == destinationTownBlock.getTownOrNull() && !currentTownBlock.hasResident() && !destinationTownBlock.hasResident();
+	}
+
+	/**
+	 * {@link #canBlockMove(Block, Block)} for fluids, remembering the decision
+	 * for each border crossed until the next tick.
+	 * 
+	 * @param block - block the fluid is flowing from.
+	 * @param blockTo - block the fluid is flowing to.
+	 * 
+	 * @return true if the fluid can flow.
+	 */
+	private boolean canFluidFlow(Block block, Block blockTo) {
+		int fromX = Coord.toCell(block.getX());
+		int fromZ = Coord.toCell(block.getZ());
+		int dX = Coord.toCell(blockTo.getX()) - fromX;
+		int dZ = Coord.toCell(blockTo.getZ()) - fromZ;
+		if (dX == 0 && dZ == 0)
+			return true;
+
+		//Only flowing into a neighbouring townblock is remembered.
+		if (dX < -1 || dX > 1 || dZ < -1 || dZ > 1)
+			return canBlockMove(block, blockTo);
+
+		World world = block.getWorld();
+		if (world != flowWorld) {
+			Arrays.fill(flowDecisions, (byte) 0);
+			flowWorld = world;
+		}
+
+		long key = ((long) fromX << 36) | ((fromZ & 0xFFFFFFFL) << 8) | ((dX + 1) * 3 + (dZ + 1));
+		int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - FLOW_MEMO_BITS));
+		if (flowDecisions[index] != 0 && flowKeys[index] == key)
+			return flowDecisions[index] == FLOW_ALLOWED;
+
+		boolean allowed = canBlockMove(block, blockTo);
+		flowKeys[index] = key;
+		flowDecisions[index] = allowed ? FLOW_ALLOWED : FLOW_DENIED;
+
+		if (!flowClearScheduled) {
+			flowClearScheduled = true;
+			BukkitTools.getScheduler().runTask(plugin, () -> {
+				Arrays.fill(flowDecisions, (byte) 0);
+				flowWorld = null;
+				flowClearScheduled = false;
+			});
 		}
+		return allowed;
 	}
 	
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
@@ -280,9 +354,10 @@ public class TownyBlockListener implements Listener {
 		 */
 		if (townyWorld.isUsingPlotManagementWildBlockRevert() && townyWorld.isProtectingExplosionBlock(material)) {
 			int count = 0;
+			TownBlockLookup lookup = new TownBlockLookup(event.getBlock().getWorld());
 			for (Block block : blocks) {
 				// Only regenerate in the wilderness.
-				if (!TownyAPI.getInstance().isWilderness(block))
+				if (!lookup.isWilderness(block))
 					continue;
 				count++;
 				// Cancel the event outright if this will cause a revert to start on an already operating revert.
@@ -324,7 +399,7 @@ public class TownyBlockListener implements Listener {
 		if (!TownySettings.getPreventFluidGriefingEnabled() || event.getBlock().getType() == Material.DRAGON_EGG)
 			return;
 		
-		if (!canBlockMove(event.getBlock(), event.getToBlock()))
+		if (!canFluidFlow(event.getBlock(), event.getToBlock()))
 			event.setCancelled(true);
 	}
 
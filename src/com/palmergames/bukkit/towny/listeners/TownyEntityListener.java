@@ -8,6 +8,7 @@ import com.palmergames.bukkit.towny.event.mobs.MobSpawnRemovalEvent;
 import com.palmergames.bukkit.towny.event.executors.TownyActionEventExecutor;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.TownBlock;
+import com.palmergames.bukkit.towny.object.TownBlockLookup;
 import com.palmergames.bukkit.towny.object.TownBlockType;
 import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
@@ -319,9 +320,9 @@ public class TownyEntityListener implements Listener {
 
 		for (Block block : blocks) {
 						
-			if (!TownyAPI.getInstance().isWilderness(block.getLocation())) {
+			TownBlock townBlock = TownyAPI.getInstance().getTownBlock(block.getWorld(), block.getX(), block.getZ());
+			if (townBlock != null && townBlock.hasTown()) {
 			
-				TownBlock townBlock = TownyAPI.getInstance().getTownBlock(block.getLocation());				
 				// Not Wartime
 				if (!TownyAPI.getInstance().isWarTime())
 					if (CombatUtil.preventPvP(townyWorld, townBlock) && detrimental) {
@@ -625,9 +626,10 @@ public class TownyEntityListener implements Listener {
 		Entity entity = event.getEntity();
 		if (townyWorld.isUsingPlotManagementWildEntityRevert() && entity != null && townyWorld.isProtectingExplosionEntity(entity)) {
 			int count = 0;
+			TownBlockLookup lookup = new TownBlockLookup(event.getLocation().getWorld());
 			for (Block block : blocks) {
 				// Only regenerate in the wilderness.
-				if (!TownyAPI.getInstance().isWilderness(block))
+				if (!lookup.isWilderness(block))
 					return;
 				count++;
 				// Cancel the event outright if this will cause a revert to start on an already operating revert.
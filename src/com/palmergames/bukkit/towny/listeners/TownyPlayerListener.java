@@ -82,6 +82,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Handle events for all Player related events
@@ -123,6 +124,10 @@ public class TownyPlayerListener implements Listener {
 		if (BukkitTools.scheduleSyncDelayedTask(new OnPlayerLogin(Towny.getPlugin(), player), 0L) == -1) {
 			TownyMessaging.sendErrorMsg("Could not schedule OnLogin.");
 		}
+
+		// Move the player's town and nation on the online lists, once the login has updated the resident.
+		UUID uuid = player.getUniqueId();
+		BukkitTools.scheduleSyncDelayedTask(() -> TownyUniverse.getInstance().getLeaderboards().updateOnline(uuid, true), 1L);
 	}
 
 	@EventHandler(priority = EventPriority.NORMAL)
@@ -149,6 +154,10 @@ public class TownyPlayerListener implements Listener {
 
 		plugin.deleteCache(event.getPlayer());
 		TownyPerms.removeAttachment(event.getPlayer().getName());
+
+		// Move the player's town and nation on the online lists, once the player has gone.
+		UUID uuid = event.getPlayer().getUniqueId();
+		BukkitTools.scheduleSyncDelayedTask(() -> TownyUniverse.getInstance().getLeaderboards().updateOnline(uuid, false), 1L);
 	}
 	
 	@EventHandler(priority = EventPriority.NORMAL)
@@ -401,9 +410,9 @@ public class TownyPlayerListener implements Listener {
 				boolean isOwner = false;
 				boolean isInnPlot = false;
 
-				if (!TownyAPI.getInstance().isWilderness(block.getLocation())) {
+				TownBlock townblock = TownyAPI.getInstance().getTownBlock(block.getWorld(), block.getX(), block.getZ());
+				if (townblock != null && townblock.hasTown()) {
 					
-					TownBlock townblock = TownyAPI.getInstance().getTownBlock(block.getLocation());
 					Resident resident = TownyUniverse.getInstance().getResident(event.getPlayer().getUniqueId());
 					Town town = townblock.getTownOrNull();
 					if (resident == null || town == null)
@@ -3,11 +3,13 @@ package com.palmergames.bukkit.towny.object;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.GovernmentTagChangeEvent;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.invites.Invite;
 import com.palmergames.bukkit.towny.invites.InviteHandler;
 import com.palmergames.bukkit.towny.invites.exceptions.TooManyInvitesException;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorType;
 import com.palmergames.bukkit.towny.object.economy.AccountAuditor;
 import com.palmergames.bukkit.towny.object.economy.BankEconomyHandler;
 import com.palmergames.bukkit.towny.object.economy.BankAccount;
@@ -46,7 +48,7 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 	private long registered;
 	private double spawnCost = TownySettings.getSpawnTravelCost();
 	protected double taxes;
-	private final AccountAuditor accountAuditor = new GovernmentAccountAuditor();
+	private final AccountAuditor accountAuditor = new GovernmentAccountAuditor(this);
 	
 	protected Government(String name) {
 		super(name);
@@ -116,6 +118,7 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 	 */
 	public final void setPublic(boolean isPublic) { 
 		this.isPublic = isPublic; 
+		TownyUniverse.getInstance().getLeaderboards().updateFlag(this, ComparatorType.PUBLIC);
 	}
 
 	/**
@@ -136,6 +139,7 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 	 */
 	public final void setOpen(boolean isOpen) { 
 		this.isOpen = isOpen; 
+		TownyUniverse.getInstance().getLeaderboards().updateFlag(this, ComparatorType.OPEN);
 	}
 
 	/**
@@ -315,6 +319,14 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 
 	public abstract Collection<TownBlock> getTownBlocks();
 	
+	/**
+	 * Deletes the bank history log of this town or nation, once it has been removed.
+	 */
+	public void deleteBankHistory() {
+		if (accountAuditor instanceof GovernmentAccountAuditor)
+			((GovernmentAccountAuditor) accountAuditor).deleteLog();
+	}
+
 	/**
 	 * Opens a book gui of bank transactions for the player to browse.
 	 * 
@@ -322,7 +334,8 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 	 * @param desiredPages The number of pages requested.
 	 */
 	public void generateBankHistoryBook(Player player, int desiredPages) {
-		int size = getAccount().getAuditor().getAuditHistory().size();
+		AccountAuditor auditor = getAccount().getAuditor();
+		int size = auditor.getAuditHistorySize();
 
 		if (size < 1) {
 			TownyMessaging.sendErrorMsg(player, "No pages to display!");
@@ -333,10 +346,9 @@ public abstract class Government extends TownyObject implements BankEconomyHandl
 			desiredPages = 1;
 		desiredPages = Math.min(desiredPages, size);
 		
-		List<String> pages = new ArrayList<>(desiredPages);
-		for (int i = 1; i <= desiredPages; i++) {
-			pages.add(getAccount().getAuditor().getAuditHistory().get(size-i));
-		}
+		// Newest transaction first.
+		List<String> pages = new ArrayList<>(auditor.getAuditHistory(size - desiredPages, desiredPages));
+		Collections.reverse(pages);
 
 		player.openBook(BookFactory.makeBook("Bank History", getName(), pages));
 	}
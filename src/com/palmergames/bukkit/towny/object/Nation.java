@@ -168,6 +168,7 @@ public class Nation extends Government {
 
 	public void addTown(Town town) {
 		towns.add(town);
+		TownyUniverse.getInstance().getLeaderboards().updateTowns(this, town, 1);
 	}
 
 	/**
@@ -328,6 +329,7 @@ public class Nation extends Government {
 	private void remove(Town town) {
 
 		towns.remove(town);
+		TownyUniverse.getInstance().getLeaderboards().updateTowns(this, town, -1);
 	}
 
 	private void removeAllTowns() {
@@ -588,7 +590,7 @@ public class Nation extends Government {
 	
 	@Override
 	public void save() {
-		TownyUniverse.getInstance().getDataSource().saveNation(this);
+		TownyUniverse.getInstance().getDataSource().scheduleSave(this);
 	}
 	
 	/**
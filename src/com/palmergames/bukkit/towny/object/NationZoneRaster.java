@@ -0,0 +1,118 @@
+package com.palmergames.bukkit.towny.object;
+
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.util.LongObjectMap;
+import com.palmergames.util.SpatialGrid;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers, for each townblock coord of a world, the nearest townblock
+ * belonging to a town with a nation, so that nation zone checks don't have to
+ * search the world's townblocks every time.
+ *
+ * Coords are grouped into 16x16 tiles which are filled in the first time one
+ * of their coords is looked up. Only townblocks which could be close enough
+ * for their nation zone to reach the coord are considered, so a tile only has
+ * to be thrown away when something changes within the widest nation zone of
+ * it. Tiles with no such townblocks nearby share a single empty tile.
+ *
+ * The widest nation zone is taken from the settings when the raster is made
+ * or cleared, the settings clear every raster when it changes.
+ */
+public class NationZoneRaster {
+
+	private static final int TILE_SHIFT = 4;
+	private static final int TILE_SIZE = 1 << TILE_SHIFT;
+	private static final int TILE_MASK = TILE_SIZE - 1;
+	private static final TownBlock[] EMPTY_TILE = new TownBlock[0];
+
+	private final SpatialGrid<TownBlock> townBlockGrid;
+	private final LongObjectMap<TownBlock[]> tiles = new LongObjectMap<>();
+	// The widest nation zone the stored tiles were filled in for.
+	private int radius;
+
+	NationZoneRaster(SpatialGrid<TownBlock> townBlockGrid) {
+		this.townBlockGrid = townBlockGrid;
+		this.radius = TownySettings.getMaxNationZoneSize();
+	}
+
+	/**
+	 * Gets the nearest townblock belonging to a town with a nation, if it is
+	 * near enough that a nation zone could reach the given coord.
+	 *
+	 * @param x - townblock x.
+	 * @param z - townblock z.
+	 * @return the nearest nation townblock, or null if no nation zone can reach the coord.
+	 */
+	@Nullable
+	public synchronized TownBlock getNearestNationTownBlock(int x, int z) {
+		int tileX = x >> TILE_SHIFT, tileZ = z >> TILE_SHIFT;
+		long key = LongObjectMap.pack(tileX, tileZ);
+		TownBlock[] tile = tiles.get(key);
+		if (tile == null) {
+			tile = fillTile(tileX, tileZ);
+			tiles.put(key, tile);
+		}
+		return tile == EMPTY_TILE ? null : tile[((x & TILE_MASK) << TILE_SHIFT) | (z & TILE_MASK)];
+	}
+
+	/**
+	 * Throws away every tile a nation zone around the given townblock coord could reach.
+	 *
+	 * @param x - townblock x.
+	 * @param z - townblock z.
+	 */
+	public synchronized void invalidate(int x, int z) {
+		if (tiles.isEmpty())
+			return;
+
+		for (int tileX = (x - radius) >> TILE_SHIFT; tileX <= (x + radius) >> TILE_SHIFT; tileX++)
+			for (int tileZ = (z - radius) >> TILE_SHIFT; tileZ <= (z + radius) >> TILE_SHIFT; tileZ++)
+				tiles.remove(LongObjectMap.pack(tileX, tileZ));
+	}
+
+	/**
+	 * Throws away every tile, picking up the current widest nation zone.
+	 */
+	public synchronized void clear() {
+		tiles.clear();
+		radius = TownySettings.getMaxNationZoneSize();
+	}
+
+	private TownBlock[] fillTile(int tileX, int tileZ) {
+		int minX = tileX << TILE_SHIFT, minZ = tileZ << TILE_SHIFT;
+
+		List<TownBlock> candidates = new ArrayList<>();
+		townBlockGrid.forEachWithin(minX - radius, minZ - radius, minX + TILE_MASK + radius, minZ + TILE_MASK + radius, townBlock -> {
+			Town town = townBlock.getTownOrNull();
+			if (town != null && town.hasNation())
+				candidates.add(townBlock);
+		});
+		if (candidates.isEmpty())
+			return EMPTY_TILE;
+
+		// Nation zone distances are truncated, so anything closer than radius + 1 can be inside a zone.
+		long reachSquared = (long) (radius + 1) * (radius + 1);
+		TownBlock[] tile = new TownBlock[TILE_SIZE * TILE_SIZE];
+		for (int dx = 0; dx < TILE_SIZE; dx++) {
+			for (int dz = 0; dz < TILE_SIZE; dz++) {
+				int x = minX + dx, z = minZ + dz;
+				TownBlock nearest = null;
+				long nearestSquared = reachSquared;
+				for (TownBlock townBlock : candidates) {
+					long distX = townBlock.getX() - x, distZ = townBlock.getZ() - z;
+					long distanceSquared = distX * distX + distZ * distZ;
+					if (distanceSquared < nearestSquared) {
+						nearest = townBlock;
+						nearestSquared = distanceSquared;
+					}
+				}
+				tile[(dx << TILE_SHIFT) | dz] = nearest;
+			}
+		}
+		return tile;
+	}
+}
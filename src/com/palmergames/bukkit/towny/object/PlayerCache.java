@@ -1,29 +1,58 @@
 package com.palmergames.bukkit.towny.object;
 
+import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class PlayerCache {
 
-	private final HashMap<Material, Boolean> buildMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> destroyMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> switchMatPermission = new HashMap<>();
-	private final HashMap<Material, Boolean> itemUseMatPermission = new HashMap<>();
+	// Bumped by invalidateAll(), making every cache stale at once.
+	private static final AtomicLong cacheEpoch = new AtomicLong();
+
+	/*
+	 * Cached permissions are held as two bits per Material ordinal, one bitset
+	 * for each ActionType: the low bit is set once the permission is known,
+	 * the high bit holds whether it is allowed.
+	 */
+	private static final int MATERIAL_COUNT = Material.values().length;
+	private static final int WORDS_PER_ACTION = (MATERIAL_COUNT * 2 + 63) >>> 6;
+	private static final long KNOWN = 1L;
+	private static final long ALLOWED = 2L;
+
+	// Indexed by ActionType#getIndex(), each bitset is only created once the action is first cached.
+	private static final int ACTION_COUNT = ActionType.values().length;
+	private final long[][] matPermissions = new long[ACTION_COUNT][];
 
 	private WorldCoord lastWorldCoord;
 	private String blockErrMsg;
 	private Location lastLocation;
+	private UUID playerUUID;
+
+	/*
+	 * The objects the cached permissions were worked out from, along with their
+	 * modification stamps at the time. If any of them change the cache is stale.
+	 */
+	private long epoch;
+	private TownBlock stampedTownBlock;
+	private long townBlockStamp;
+	private Town stampedTown;
+	private long townStamp;
+	private Resident stampedResident;
+	private long residentStamp;
 
 	//TODO: cache last entity attacked
 
 	public PlayerCache(TownyWorld world, Player player) {
 
-		this(new WorldCoord(world.getName(), Coord.parseCoord(player)));
+		this.playerUUID = player.getUniqueId();
+		this.setLastTownBlock(new WorldCoord(world.getName(), Coord.parseCoord(player)));
 		setLastLocation(player.getLocation());
 	}
 
@@ -32,6 +61,15 @@ public class PlayerCache {
 		this.setLastTownBlock(worldCoord);
 	}
 
+	/**
+	 * Makes every PlayerCache stale, each one is reset the next time it is
+	 * fetched through {@link com.palmergames.bukkit.towny.Towny#getCache(Player)}.
+	 */
+	public static void invalidateAll() {
+
+		cacheEpoch.incrementAndGet();
+	}
+
 	/**
 	 * Update the cache with new coordinates.
 	 * 
@@ -40,6 +78,52 @@ public class PlayerCache {
 	public void setLastTownBlock(WorldCoord worldCoord) {
 
 		this.lastWorldCoord = worldCoord;
+		recordStamps();
+	}
+
+	/**
+	 * Records the modification stamps of the objects the permissions for
+	 * lastWorldCoord are worked out from.
+	 */
+	private void recordStamps() {
+
+		epoch = cacheEpoch.get();
+		stampedTownBlock = lastWorldCoord == null ? null : TownyUniverse.getInstance().getTownBlockOrNull(lastWorldCoord);
+		townBlockStamp = stampedTownBlock == null ? 0 : stampedTownBlock.getModificationStamp();
+		stampedTown = stampedTownBlock == null ? null : stampedTownBlock.getTownOrNull();
+		townStamp = stampedTown == null ? 0 : stampedTown.getModificationStamp();
+		stampedResident = playerUUID == null ? null : TownyUniverse.getInstance().getResident(playerUUID);
+		residentStamp = stampedResident == null ? 0 : stampedResident.getModificationStamp();
+	}
+
+	/**
+	 * Checks whether anything the cached permissions were worked out from has
+	 * changed since: the TownBlock at lastWorldCoord (or it being claimed or
+	 * unclaimed), its Town, the player's Resident, or a call to
+	 * {@link #invalidateAll()}.
+	 * 
+	 * @return true if the cache needs resetting.
+	 */
+	public boolean isStale() {
+
+		if (epoch != cacheEpoch.get())
+			return true;
+
+		TownBlock townBlock = lastWorldCoord == null ? null : TownyUniverse.getInstance().getTownBlockOrNull(lastWorldCoord);
+		if (townBlock != stampedTownBlock)
+			return true;
+		if (townBlock != null) {
+			if (townBlock.getModificationStamp() != townBlockStamp)
+				return true;
+			Town town = townBlock.getTownOrNull();
+			if (town != stampedTown || (town != null && town.getModificationStamp() != townStamp))
+				return true;
+		}
+
+		if (playerUUID == null)
+			return false;
+		Resident resident = TownyUniverse.getInstance().getResident(playerUUID);
+		return resident != stampedResident || (resident != null && resident.getModificationStamp() != residentStamp);
 	}
 	
 	/**
@@ -85,93 +169,103 @@ public class PlayerCache {
 	 * @param material - Material to check
 	 * @param action - ActionType to check
 	 * @return true if permission to perform an ActionType based on the material is granted
-	 * @throws NullPointerException if passed an invalid or NULL ActionType
+	 * @throws NullPointerException if passed an invalid or NULL ActionType, or nothing is cached
 	 */
 	public boolean getCachePermission(Material material, ActionType action) throws NullPointerException {
 
-		switch (action) {
-
-		case BUILD: // BUILD
-			return getBuildPermission(material);
+		long bits = getBits(material, action);
+		if ((bits & KNOWN) == 0)
+			throw new NullPointerException();
 
-		case DESTROY: // DESTROY
-			return getDestroyPermission(material);
+		return (bits & ALLOWED) != 0;
+	}
 
-		case SWITCH: // SWITCH
-			return getSwitchPermission(material);
+	/**
+	 * Checks if a permission is cached, allowing {@link #getCachePermission(Material, ActionType)}
+	 * to be called without it throwing.
+	 * 
+	 * @param material - Material to check
+	 * @param action - ActionType to check
+	 * @return true if a permission is cached for this Material and ActionType.
+	 */
+	public boolean hasCachePermission(Material material, ActionType action) {
 
-		case ITEM_USE: // ITEM_USE
-			return getItemUsePermission(material);
+		return (getBits(material, action) & KNOWN) != 0;
+	}
 
-		default:
-			throw new NullPointerException();
+	/**
+	 * Caches a permission for a Material and ActionType, if one is not already cached.
+	 * 
+	 * @param material - Material to cache
+	 * @param action - ActionType to cache
+	 * @param value - true if the action is allowed
+	 */
+	public void setCachePermission(Material material, ActionType action, boolean value) {
 
+		long[] bitset = matPermissions[action.getIndex()];
+		if (bitset == null) {
+			bitset = new long[WORDS_PER_ACTION];
+			matPermissions[action.getIndex()] = bitset;
 		}
 
+		int bit = material.ordinal() << 1;
+		int word = bit >>> 6;
+		int shift = bit & 63;
+		// We have cached permissions for this block type already, keep them.
+		if ((bitset[word] & (KNOWN << shift)) != 0)
+			return;
+
+		bitset[word] |= (value ? KNOWN | ALLOWED : KNOWN) << shift;
+	}
+
+	private long getBits(Material material, ActionType action) {
+
+		long[] bitset = matPermissions[action.getIndex()];
+		if (bitset == null)
+			return 0;
+
+		int bit = material.ordinal() << 1;
+		return bitset[bit >>> 6] >>> (bit & 63);
 	}
 
 	public void setBuildPermission(Material material, Boolean value) {
 
-		updateMaps(buildMatPermission, material, value);
+		setCachePermission(material, ActionType.BUILD, value);
 
 	}
 	public void setDestroyPermission(Material material, Boolean value) {
 
-		updateMaps(destroyMatPermission, material, value);
+		setCachePermission(material, ActionType.DESTROY, value);
 	}
 	public void setSwitchPermission(Material material, Boolean value) {
 
-		updateMaps(switchMatPermission, material, value);
+		setCachePermission(material, ActionType.SWITCH, value);
 
 	}
 	public void setItemUsePermission(Material material, Boolean value) {
 
-		updateMaps(itemUseMatPermission, material, value);
+		setCachePermission(material, ActionType.ITEM_USE, value);
 		
 	}
 	
 	public boolean getBuildPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(buildMatPermission, material);
+		return getCachePermission(material, ActionType.BUILD);
 
 	}
 	public boolean getDestroyPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(destroyMatPermission, material);
+		return getCachePermission(material, ActionType.DESTROY);
 		
 	}
 	public boolean getSwitchPermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(switchMatPermission, material);
+		return getCachePermission(material, ActionType.SWITCH);
 		
 	}
 	public Boolean getItemUsePermission(Material material) throws NullPointerException {
 
-		return getBlockPermission(itemUseMatPermission, material);
-		
-	}
-	
-	private void updateMaps(HashMap<Material, Boolean> blockMap, Material material, Boolean value) {
-		
-		if (!blockMap.containsKey(material)) {
-			/*
-			 * We have no permissions cached for this block.
-			 */			
-			blockMap.put(material, value);
-		} else {
-			/*
-			 * We have cached permissions for this block type so just push updated data.
-			 */
-			blockMap.get(material);
-		}
-	}
-	
-	private boolean getBlockPermission(HashMap<Material, Boolean> blockMap, Material material) throws NullPointerException {
-		
-		if (!blockMap.containsKey(material))
-			throw new NullPointerException();
-		
-		return blockMap.get(material);
+		return getCachePermission(material, ActionType.ITEM_USE);
 		
 	}
 
@@ -181,11 +275,10 @@ public class PlayerCache {
 		townBlockStatus = null;
 		blockErrMsg = null;
 		
-		// Clear all maps
-		buildMatPermission.clear();
-		destroyMatPermission.clear();
-		switchMatPermission.clear();
-		itemUseMatPermission.clear();
+		// Clear all bitsets
+		for (long[] bitset : matPermissions)
+			if (bitset != null)
+				Arrays.fill(bitset, 0L);
 	}
 
 	public enum TownBlockStatus {
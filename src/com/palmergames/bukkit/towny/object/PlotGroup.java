@@ -147,6 +147,6 @@ public class PlotGroup extends ObjectGroup implements TownBlockOwner, Savable {
 
 	@Override
 	public void save() {
-		TownyUniverse.getInstance().getDataSource().savePlotGroup(this);
+		TownyUniverse.getInstance().getDataSource().scheduleSave(this);
 	}
 }
@@ -345,11 +345,13 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 		townRanks.clear();
 		nationRanks.clear();
 		TownyPerms.assignPermissions(this, null);
+		markModified();
 	}
 	
 	public void updatePermsForNationRemoval() {
 		nationRanks.clear();
 		TownyPerms.assignPermissions(this, null);
+		markModified();
 	}
 
 	public void setRegistered(long registered) {
@@ -763,13 +765,16 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 	public void addTownBlock(TownBlock townBlock) throws AlreadyRegisteredException {
 		if (hasTownBlock(townBlock))
 			throw new AlreadyRegisteredException();
-		else
+		else {
 			townBlocks.add(townBlock);
+			TownyUniverse.getInstance().getLeaderboards().update(this);
+		}
 	}
 
 	@Override
 	public void removeTownBlock(TownBlock townBlock) {
 		townBlocks.remove(townBlock);
+		TownyUniverse.getInstance().getLeaderboards().update(this);
 	}
 
 	@Override
@@ -815,7 +820,7 @@ public class Resident extends TownyObject implements InviteReceiver, EconomyHand
 
 	@Override
 	public void save() {
-		TownyUniverse.getInstance().getDataSource().saveResident(this);
+		TownyUniverse.getInstance().getDataSource().scheduleSave(this);
 	}
 
 	public long getJoinedTownAt() {
@@ -14,6 +14,7 @@ import com.palmergames.bukkit.towny.exceptions.EmptyTownException;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.SpawnPoint.SpawnPointType;
+import com.palmergames.bukkit.towny.object.comparators.ComparatorType;
 import com.palmergames.bukkit.towny.object.jail.Jail;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
@@ -112,6 +113,7 @@ public class Town extends Government implements TownBlockOwner {
 			townBlocks.put(townBlock.getWorldCoord(), townBlock);
 			if (townBlocks.size() < 2 && !hasHomeBlock())
 				setHomeBlock(townBlock);
+			TownyUniverse.getInstance().getLeaderboards().updateTownBlocks(this, 1);
 		}
 	}
 	
@@ -234,6 +236,7 @@ public class Town extends Government implements TownBlockOwner {
 
 		if (nation == null) {
 			this.nation = null;
+			invalidateNationZones();
 			return;
 		}
 
@@ -242,6 +245,7 @@ public class Town extends Government implements TownBlockOwner {
 
 		this.nation = nation;
 		nation.addTown(this);
+		invalidateNationZones();
 
 		if (updateJoinedAt)
 			setJoinedNationAt(System.currentTimeMillis());
@@ -250,6 +254,15 @@ public class Town extends Government implements TownBlockOwner {
 		BukkitTools.getPluginManager().callEvent(new NationAddTownEvent(this, nation));
 	}
 
+	/**
+	 * Forgets the nation zones around this town's townblocks, as they move with its nation.
+	 */
+	private void invalidateNationZones() {
+		for (TownBlock townBlock : getTownBlocks())
+			if (townBlock.getWorld() != null)
+				townBlock.getWorld().invalidateNationZones(townBlock);
+	}
+
 	private boolean residentsSorted = false;
 
 	@Override
@@ -314,6 +327,7 @@ public class Town extends Government implements TownBlockOwner {
 
 	void addResident(Resident resident) {
 		residents.add(resident);
+		TownyUniverse.getInstance().getLeaderboards().updateResidents(this, resident, 1);
 	}
 
 	public void addResidentCheck(Resident resident) throws AlreadyRegisteredException {
@@ -560,6 +574,7 @@ public class Town extends Government implements TownBlockOwner {
 	 */
 	public void setHomeBlock(@Nullable TownBlock homeBlock) {
 
+		updateHomeBlockIndex(this.homeBlock, homeBlock);
 		this.homeBlock = homeBlock;
 		
 		if (homeBlock == null)
@@ -607,6 +622,8 @@ public class Town extends Government implements TownBlockOwner {
 	 */
 	public void forceSetHomeBlock(TownBlock homeBlock) throws TownyException {
 
+		updateHomeBlockIndex(this.homeBlock, homeBlock);
+
 		if (homeBlock == null) {
 			this.homeBlock = null;
 			TownyMessaging.sendErrorMsg("town.forceSetHomeblock() is returning null.");
@@ -621,6 +638,19 @@ public class Town extends Government implements TownBlockOwner {
 
 	}
 
+	/**
+	 * Moves this town's entry in the TownyWorld homeblock indexes.
+	 */
+	private void updateHomeBlockIndex(@Nullable TownBlock oldHomeBlock, @Nullable TownBlock newHomeBlock) {
+
+		if (oldHomeBlock == newHomeBlock)
+			return;
+		if (oldHomeBlock != null && oldHomeBlock.getWorld() != null)
+			oldHomeBlock.getWorld().unindexHomeBlock(oldHomeBlock);
+		if (newHomeBlock != null && newHomeBlock.getWorld() != null)
+			newHomeBlock.getWorld().indexHomeBlock(newHomeBlock);
+	}
+
 	public TownBlock getHomeBlock() throws TownyException {
 
 		if (hasHomeBlock())
@@ -705,6 +735,7 @@ public class Town extends Government implements TownBlockOwner {
 		}
 		// Remove resident.
 		residents.remove(resident);
+		TownyUniverse.getInstance().getLeaderboards().updateResidents(this, resident, -1);
 	}
 	
 	/** 
@@ -809,6 +840,7 @@ public class Town extends Government implements TownBlockOwner {
 			} catch (TownyException ignored) {}
 				
 			townBlocks.remove(townBlock.getWorldCoord());
+			TownyUniverse.getInstance().getLeaderboards().updateTownBlocks(this, -1);
 			this.save();
 		}
 	}
@@ -816,6 +848,7 @@ public class Town extends Government implements TownBlockOwner {
 	@Override
 	public void setPermissions(String line) {
 		permissions.load(line);
+		markModified();
 	}
 
 	@Override
@@ -1317,6 +1350,7 @@ public class Town extends Government implements TownBlockOwner {
 	 */
 	public void setDebtBalance(double balance) {
 		this.debtBalance = balance;
+		TownyUniverse.getInstance().getLeaderboards().updateFlag(this, ComparatorType.BANKRUPT);
 	}
 
 	public boolean isRuined() {
@@ -1328,6 +1362,7 @@ public class Town extends Government implements TownBlockOwner {
 	
 	public void setRuined(boolean b) {
 		ruined = b;
+		TownyUniverse.getInstance().getLeaderboards().updateFlag(this, ComparatorType.RUINED);
 	}
 	
 	public void setRuinedTime(long time) {
@@ -1348,7 +1383,7 @@ public class Town extends Government implements TownBlockOwner {
 
 	@Override
 	public void save() {
-		TownyUniverse.getInstance().getDataSource().saveTown(this);
+		TownyUniverse.getInstance().getDataSource().scheduleSave(this);
 	}
 	
 	/**
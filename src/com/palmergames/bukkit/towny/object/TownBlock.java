@@ -56,6 +56,9 @@ public class TownBlock extends TownyObject {
 		if (hasTown())
 			this.town.removeTownBlock(this);
 		this.town = town;
+		markModified();
+		if (world != null)
+			world.invalidateNationZones(this);
 		try {
 			TownyUniverse.getInstance().addTownBlock(this);
 			town.addTownBlock(this);
@@ -93,6 +96,7 @@ public class TownBlock extends TownyObject {
 		if (hasResident())
 			this.resident.removeTownBlock(this);
 		this.resident = resident;
+		markModified();
 		try {
 			resident.addTownBlock(this);
 			successful = true;
@@ -159,6 +163,7 @@ public class TownBlock extends TownyObject {
 
 		//permissions.reset(); not needed, already done in permissions.load()
 		permissions.load(line);
+		markModified();
 	}
 
 	public TownyPermission getPermissions() {
@@ -263,6 +268,7 @@ public class TownBlock extends TownyObject {
 		
 		// Set the changed status.
 		this.setChanged(false);
+		markModified();
 				
 	}
 
@@ -353,6 +359,7 @@ public class TownBlock extends TownyObject {
 	public void setLocked(boolean locked) {
 
 		this.locked = locked;
+		markModified();
 	}
 
 	public void setWorld(TownyWorld world) {
@@ -443,7 +450,7 @@ public class TownBlock extends TownyObject {
 
 	@Override
 	public void save() {
-		TownyUniverse.getInstance().getDataSource().saveTownBlock(this);
+		TownyUniverse.getInstance().getDataSource().scheduleSave(this);
 	}
 
 	public long getClaimedAt() {
@@ -0,0 +1,98 @@
+package com.palmergames.bukkit.towny.object;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.Nullable;
+
+import com.palmergames.bukkit.towny.TownyUniverse;
+
+/**
+ * Finds the TownBlocks of many blocks in one world, such as the blocks of an
+ * explosion, looking each townblock cell up only once.
+ *
+ * The cells seen so far are kept in small arrays, which suits the handful of
+ * cells a group of nearby blocks covers. Alongside each townblock the lookup
+ * can keep a decision about it, such as whether an explosion may destroy
+ * blocks there, so that decision is also made once per cell.
+ *
+ * A lookup is meant to be used for one group of blocks and then thrown away,
+ * it doesn't see townblocks claimed or unclaimed, or permissions changed,
+ * after a cell was first looked up.
+ */
+public class TownBlockLookup {
+
+	private static final byte UNDECIDED = 0;
+	private static final byte ALLOWED = 1;
+	private static final byte DENIED = 2;
+
+	private final World world;
+	private long[] cells = new long[8];
+	private TownBlock[] townBlocks = new TownBlock[8];
+	private byte[] decisions = new byte[8];
+	private int size = 0;
+	// The cell found last, most blocks are in the same cell as the one before them.
+	private int last = -1;
+
+	public TownBlockLookup(World world) {
+		this.world = world;
+	}
+
+	/**
+	 * @param block a block in this lookup's world.
+	 * @return the townblock the block is in, or null if it isn't in one.
+	 */
+	@Nullable
+	public TownBlock getTownBlock(Block block) {
+		return townBlocks[indexOf(block.getX(), block.getZ())];
+	}
+
+	/**
+	 * @param block a block in this lookup's world.
+	 * @return true if the block isn't in a town.
+	 */
+	public boolean isWilderness(Block block) {
+		TownBlock townBlock = getTownBlock(block);
+		return townBlock == null || !townBlock.hasTown();
+	}
+
+	/**
+	 * Decides something about the townblock the block is in, once per cell.
+	 * Every call on a lookup must pass the same decision, the answer for a
+	 * cell is remembered the first time it is asked.
+	 * 
+	 * @param block a block in this lookup's world.
+	 * @param decision decides about a townblock, or null for the wilderness.
+	 * @return the decision for the block's townblock.
+	 */
+	public boolean test(Block block, Predicate<TownBlock> decision) {
+		int index = indexOf(block.getX(), block.getZ());
+		if (decisions[index] == UNDECIDED)
+			decisions[index] = decision.test(townBlocks[index]) ? ALLOWED : DENIED;
+		return decisions[index] == ALLOWED;
+	}
+
+	/**
+	 * @return the index of the block's cell, looking the cell up if it hasn't been seen yet.
+	 */
+	private int indexOf(int blockX, int blockZ) {
+		long cell = ((long) Coord.toCell(blockX) << 32) | (Coord.toCell(blockZ) & 0xFFFFFFFFL);
+		if (last >= 0 && cells[last] == cell)
+			return last;
+
+		for (int i = 0; i < size; i++)
+			if (cells[i] == cell)
+				return last = i;
+
+		if (size == cells.length) {
+			cells = Arrays.copyOf(cells, size * 2);
+			townBlocks = Arrays.copyOf(townBlocks, size * 2);
+			decisions = Arrays.copyOf(decisions, size * 2);
+		}
+		cells[size] = cell;
+		townBlocks[size] = TownyUniverse.getInstance().getTownBlockOrNull(world, blockX, blockZ);
+		return last = size++;
+	}
+}
@@ -13,9 +13,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class TownyObject implements Nameable, Savable {
+	// Shared by all TownyObjects so a stamp is never handed out twice.
+	private static final AtomicLong modificationCounter = new AtomicLong();
+	
 	private String name;
+	private volatile long modificationStamp = modificationCounter.incrementAndGet();
 	
 	private Map<String, CustomDataField<?>> metadata = null;
 	
@@ -32,6 +37,21 @@ public abstract class TownyObject implements Nameable, Savable {
 		return name;
 	}
 
+	/**
+	 * Marks this object as modified, so any {@link PlayerCache} permissions
+	 * worked out from it are recomputed the next time they are used.
+	 */
+	public void markModified() {
+		modificationStamp = modificationCounter.incrementAndGet();
+	}
+
+	/**
+	 * @return a stamp which changes every time {@link #markModified()} is called.
+	 */
+	public long getModificationStamp() {
+		return modificationStamp;
+	}
+
 	public List<String> getTreeString(int depth) {
 
 		return new ArrayList<>();
@@ -6,7 +6,7 @@ import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
 import com.palmergames.bukkit.towny.object.TownyPermission.ActionType;
 import com.palmergames.bukkit.towny.object.metadata.CustomDataField;
-import com.palmergames.util.MathUtil;
+import com.palmergames.util.SpatialGrid;
 
 import org.bukkit.Location;
 import org.bukkit.Material;
@@ -47,6 +47,11 @@ public class TownyWorld extends TownyObject {
 	private String unclaimedZoneName = null;
 	private List<Coord> warZones = new ArrayList<>();
 	
+	// Claimed townblocks and homeblocks in this world, used to find the nearest other towns.
+	private final SpatialGrid<TownBlock> townBlockGrid = new SpatialGrid<>();
+	private final SpatialGrid<TownBlock> homeBlockGrid = new SpatialGrid<>();
+	private final NationZoneRaster nationZoneRaster = new NationZoneRaster(townBlockGrid);
+	
 	private boolean isUsingTowny = TownySettings.isUsingTowny();
 	private boolean isClaimable = true;
 	private boolean isWarAllowed = TownySettings.isWarAllowed();
@@ -636,29 +641,12 @@ public class TownyWorld extends TownyObject {
 	 * @return the closest distance to another towns homeblock.
 	 */
 	public int getMinDistanceFromOtherTowns(Coord key, Town homeTown) {
-		double minSqr = -1;
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		for (Town town : getTowns().values()) {
-			try {
-				Coord townCoord = town.getHomeBlock().getCoord();
-				if (homeTown != null)
-					// If the townblock either: the town is the same as homeTown OR
-					// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
-					if (homeTown.getUUID().equals(town.getUUID())
-						|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNation().equals(homeTown.getNation()))
-						|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town)))
-						continue;
-				
-				if (!town.getHomeblockWorld().equals(this)) continue;
-				
-				final double distSqr = MathUtil.distanceSquared((double) townCoord.getX() - keyX, (double) townCoord.getZ() - keyZ);
-				if (minSqr == -1 || distSqr < minSqr)
-					minSqr = distSqr;
-			} catch (TownyException e) {
-			}
-		}
+		final long minSqr = homeBlockGrid.nearestDistanceSquared(key.getX(), key.getZ(), homeBlock -> {
+			// The index may briefly hold a homeblock which has since been moved.
+			if (!homeBlock.isHomeBlock())
+				return false;
+			return !isIgnoredForMinDistance(homeBlock.getTownOrNull(), homeTown);
+		});
 		return minSqr == -1 ? Integer.MAX_VALUE : (int) Math.ceil(Math.sqrt(minSqr));
 	}
 
@@ -684,34 +672,36 @@ public class TownyWorld extends TownyObject {
 		final int keyX = key.getX();
 		final int keyZ = key.getZ();
 		
-		double minSqr = -1;
-		for (Town town : getTowns().values()) {
-			try {
-				if (homeTown != null)
-					// If the townblock either: the town is the same as homeTown OR 
-					// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
-					if (homeTown.getUUID().equals(town.getUUID())
-						|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNation().equals(homeTown.getNation()))
-						|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town)))
-						continue;
-				for (TownBlock b : town.getTownBlocks()) {
-					if (!b.getWorld().equals(this)) continue;
-
-					final int tbX = b.getX();
-					final int tbZ = b.getZ();
-					
-					if (keyX == tbX && keyZ == tbZ)
-						continue;
-					
-					final double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-					if (minSqr == -1 || distSqr < minSqr)
-						minSqr = distSqr;
-				}
-			} catch (TownyException e) {
-			}
-		}
+		final long minSqr = townBlockGrid.nearestDistanceSquared(keyX, keyZ, townBlock -> {
+			if (townBlock.getX() == keyX && townBlock.getZ() == keyZ)
+				return false;
+			Town town = townBlock.getTownOrNull();
+			return town != null && !isIgnoredForMinDistance(town, homeTown);
+		});
 		return minSqr == -1 ? Integer.MAX_VALUE : (int) Math.ceil(Math.sqrt(minSqr));
 	}
+
+	/**
+	 * Whether a town is left out of the min distance checks made for homeTown.
+	 * 
+	 * @param town - Town the distance would be measured to.
+	 * @param homeTown - Players town, or null to measure to every town.
+	 * @return true if the town should not be measured to.
+	 */
+	private static boolean isIgnoredForMinDistance(Town town, @Nullable Town homeTown) {
+		if (homeTown == null)
+			return false;
+
+		try {
+			// If the townblock either: the town is the same as homeTown OR
+			// both towns are in the same nation (and this is set to ignore distance in the config,) skip over the proximity filter.
+			return homeTown.getUUID().equals(town.getUUID())
+				|| (TownySettings.isMinDistanceIgnoringTownsInSameNation() && homeTown.hasNation() && town.hasNation() && town.getNation().equals(homeTown.getNation()))
+				|| (TownySettings.isMinDistanceIgnoringTownsInAlliedNation() && homeTown.isAlliedWith(town));
+		} catch (TownyException e) {
+			return true;
+		}
+	}
 	
 	/**
 	 * Returns the closest town with a nation from a given coord (key).
@@ -721,26 +711,11 @@ public class TownyWorld extends TownyObject {
 	 * @return the nearest town belonging to a nation.   
 	 */
 	public Town getClosestTownWithNationFromCoord(Coord key, Town nearestTown) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
-		for (Town town : getTowns().values()) {
-			if (!town.hasNation()) continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this)) continue;
-				
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr) {
-					minSqr = distSqr;
-					nearestTown = town;
-				}						
-			}		
-		}		
-		return (nearestTown);		
+		// Inside a nation zone the raster already knows the closest nation townblock.
+		TownBlock townBlock = getNationZoneTownBlock(key);
+		if (townBlock == null)
+			townBlock = getClosestTownblockWithNationFromCoord(key);
+		return townBlock == null ? nearestTown : townBlock.getTownOrNull();
 	}
 
 	/**
@@ -753,31 +728,82 @@ public class TownyWorld extends TownyObject {
 	 */
 	@Nullable
 	public TownBlock getClosestTownblockWithNationFromCoord(Coord key) {
-		final int keyX = key.getX();
-		final int keyZ = key.getZ();
-		
-		double minSqr = -1;
-		TownBlock tb = null;
-		
-		for (Town town : getTowns().values()) {
-			if (!town.hasNation())
-				continue;
-			for (TownBlock b : town.getTownBlocks()) {
-				if (!b.getWorld().equals(this))
-					continue;
-
-				final int tbX = b.getX();
-				final int tbZ = b.getZ();
-				
-				double distSqr = MathUtil.distanceSquared((double) tbX - keyX, (double) tbZ - keyZ);
-				if (minSqr == -1 || distSqr < minSqr) {
-					minSqr = distSqr;
-					tb = b;
-				}
-			}
-		}
-		
-		return tb;
+		return townBlockGrid.nearest(key.getX(), key.getZ(), townBlock -> townBlock.hasTown() && townBlock.getTownOrNull().hasNation());
+	}
+
+	/**
+	 * Get the town block that belongs to the closest town with a nation, if
+	 * it is close enough for a nation zone to reach the specified coord.
+	 * 
+	 * @param key - Coordinate to compare distance to
+	 * @return The nearest townblock belonging to a town with a nation, or
+	 * null if no nation zone can reach the coord.
+	 */
+	@Nullable
+	public TownBlock getNationZoneTownBlock(Coord key) {
+		return nationZoneRaster.getNearestNationTownBlock(key.getX(), key.getZ());
+	}
+
+	/**
+	 * Forgets the nation zones around a TownBlock, called when the
+	 * TownBlock's town or the town's nation changes.
+	 * 
+	 * @param townBlock - TownBlock in this world.
+	 */
+	public void invalidateNationZones(TownBlock townBlock) {
+		nationZoneRaster.invalidate(townBlock.getX(), townBlock.getZ());
+	}
+
+	/**
+	 * Forgets every nation zone in this world, called when the widest a
+	 * nation zone can be has changed.
+	 */
+	public void clearNationZones() {
+		nationZoneRaster.clear();
+	}
+
+	/**
+	 * Adds a claimed TownBlock to this world's spatial index, called by
+	 * {@link TownyUniverse#addTownBlock(TownBlock)}.
+	 * 
+	 * @param townBlock - TownBlock in this world.
+	 */
+	public void indexTownBlock(TownBlock townBlock) {
+		townBlockGrid.add(townBlock.getX(), townBlock.getZ(), townBlock);
+		invalidateNationZones(townBlock);
+		if (townBlock.isHomeBlock())
+			indexHomeBlock(townBlock);
+	}
+
+	/**
+	 * Removes a TownBlock from this world's spatial indexes, called when it is
+	 * removed from the TownyUniverse.
+	 * 
+	 * @param townBlock - TownBlock in this world.
+	 */
+	public void unindexTownBlock(TownBlock townBlock) {
+		townBlockGrid.remove(townBlock.getX(), townBlock.getZ(), townBlock);
+		invalidateNationZones(townBlock);
+		unindexHomeBlock(townBlock);
+	}
+
+	/**
+	 * Adds a homeblock to this world's homeblock index, called when a town's homeblock is set.
+	 * 
+	 * @param homeBlock - TownBlock in this world.
+	 */
+	public void indexHomeBlock(TownBlock homeBlock) {
+		unindexHomeBlock(homeBlock);
+		homeBlockGrid.add(homeBlock.getX(), homeBlock.getZ(), homeBlock);
+	}
+
+	/**
+	 * Removes a homeblock from this world's homeblock index.
+	 * 
+	 * @param homeBlock - TownBlock in this world.
+	 */
+	public void unindexHomeBlock(TownBlock homeBlock) {
+		homeBlockGrid.remove(homeBlock.getX(), homeBlock.getZ(), homeBlock);
 	}
 
 	public void addWarZone(Coord coord) {
@@ -860,6 +886,6 @@ public class TownyWorld extends TownyObject {
 
 	@Override
 	public void save() {
-		TownyUniverse.getInstance().getDataSource().saveWorld(this);
+		TownyUniverse.getInstance().getDataSource().scheduleSave(this);
 	}
 }
@@ -1,17 +1,11 @@
 package com.palmergames.bukkit.towny.object.comparators;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
 import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
 import com.palmergames.bukkit.towny.TownyUniverse;
@@ -31,141 +25,143 @@ import net.kyori.adventure.text.event.ClickEvent;
 import net.kyori.adventure.text.event.HoverEvent;
 import net.kyori.adventure.text.format.NamedTextColor;
 
+/**
+ * Builds the lines of /town list and /nation list from the {@link TownyLeaderboards},
+ * only formatting the towns and nations shown on the page asked for.
+ */
 public class ComparatorCaches {
 	
-	private static LoadingCache<ComparatorType, List<TextComponent>> townCompCache = CacheBuilder.newBuilder()
-			.expireAfterWrite(10, TimeUnit.MINUTES)
-			.build(new CacheLoader<ComparatorType, List<TextComponent>>() {
-				public List<TextComponent> load(ComparatorType compType) throws Exception {
-					return gatherTownLines(compType);
-				}
-			});
+	private static final int PAGE_SIZE = 10;
 	
-	private static LoadingCache<ComparatorType, List<TextComponent>> nationCompCache = CacheBuilder.newBuilder()
-			.expireAfterWrite(10, TimeUnit.MINUTES)
-			.build(new CacheLoader<ComparatorType, List<TextComponent>>() {
-				public List<TextComponent> load(ComparatorType compType) throws Exception {
-					return gatherNationLines(compType);
-				}
-			}); 
+	/**
+	 * @param compType the order of the list.
+	 * @param page the page, starting at 1.
+	 * @return the lines of that page of the town list.
+	 */
+	public static List<TextComponent> getTownListPage(ComparatorType compType, int page) {
+		List<TextComponent> output = new ArrayList<>(PAGE_SIZE);
+		for (Leaderboard.Entry<Town> entry : TownyUniverse.getInstance().getLeaderboards().getTownLeaderboard(compType).getEntries((page - 1) * PAGE_SIZE, PAGE_SIZE))
+			output.add(gatherTownLine(entry, compType));
+		return output;
+	}
 	
+	/**
+	 * @param compType the order of the list.
+	 * @param page the page, starting at 1.
+	 * @return the lines of that page of the nation list.
+	 */
+	public static List<TextComponent> getNationListPage(ComparatorType compType, int page) {
+		List<TextComponent> output = new ArrayList<>(PAGE_SIZE);
+		for (Leaderboard.Entry<Nation> entry : TownyUniverse.getInstance().getLeaderboards().getNationLeaderboard(compType).getEntries((page - 1) * PAGE_SIZE, PAGE_SIZE))
+			output.add(gatherNationLine(entry, compType));
+		return output;
+	}
+	
+	/**
+	 * @deprecated formats every town, use {@link #getTownListPage(ComparatorType, int)}.
+	 */
+	@Deprecated
 	public static List<TextComponent> getTownListCache(ComparatorType compType) {
-		try {
-			return townCompCache.get(compType);
-		} catch (ExecutionException e) {
-			e.printStackTrace();
-			return new ArrayList<>();
-		}
+		List<TextComponent> output = new ArrayList<>();
+		for (Leaderboard.Entry<Town> entry : TownyUniverse.getInstance().getLeaderboards().getTownLeaderboard(compType).getEntries(0, Integer.MAX_VALUE))
+			output.add(gatherTownLine(entry, compType));
+		return output;
 	}
 	
+	/**
+	 * @deprecated formats every nation, use {@link #getNationListPage(ComparatorType, int)}.
+	 */
+	@Deprecated
 	public static List<TextComponent> getNationListCache(ComparatorType compType) {
-		try {
-			return nationCompCache.get(compType);
-		} catch (ExecutionException e) {
-			e.printStackTrace();
-			return new ArrayList<>();
-		}
+		List<TextComponent> output = new ArrayList<>();
+		for (Leaderboard.Entry<Nation> entry : TownyUniverse.getInstance().getLeaderboards().getNationLeaderboard(compType).getEntries(0, Integer.MAX_VALUE))
+			output.add(gatherNationLine(entry, compType));
+		return output;
 	}
 	
-	@SuppressWarnings("unchecked")
-	private static List<TextComponent> gatherTownLines(ComparatorType compType) {
-		List<TextComponent> output = new ArrayList<>();
-		List<Town> towns = TownyUniverse.getInstance().getDataSource().getTowns();
-		towns.sort((Comparator<? super Town>) compType.getComparator());
-		
-		for (Town town : towns) {
-			TextComponent townName = Component.text(Colors.LightBlue + StringMgmt.remUnderscore(town.getName()))
-					.clickEvent(ClickEvent.runCommand("/towny:town spawn " + town + " -ignore"));
-				
-			String slug = "";
-			switch (compType) {
-			case BALANCE:
-				slug = Colors.LightBlue + "(" + TownyEconomyHandler.getFormattedBalance(town.getAccount().getCachedBalance()) + ")";
-				break;
-			case TOWNBLOCKS:
-				slug = Colors.LightBlue + "(" + town.getTownBlocks().size() + ")";
-				break;
-			case RUINED:
-				slug = Colors.LightBlue + "(" + town.getResidents().size() + ") " + (town.isRuined() ? Translation.of("msg_ruined"):"");
-				break;
-			case BANKRUPT:
-				slug = Colors.LightBlue + "(" + town.getResidents().size() + ") " + (town.isBankrupt() ? Translation.of("msg_bankrupt"):"");
-				break;
-			case ONLINE:
-				slug = Colors.LightBlue + "(" + TownyAPI.getInstance().getOnlinePlayersInTown(town).size() + ")";
-				break;
-			default:
-				slug = Colors.LightBlue + "(" + town.getResidents().size() + ")";
-				break;
-			}
-			townName = townName.append(Component.text(Colors.Gray + " - " + slug));
-			
-			if (town.isOpen())
-				townName = townName.append(Component.text(" " + Colors.LightBlue + Translation.of("status_title_open")));
+	private static TextComponent gatherTownLine(Leaderboard.Entry<Town> entry, ComparatorType compType) {
+		Town town = entry.getObject();
+		TextComponent townName = Component.text(Colors.LightBlue + StringMgmt.remUnderscore(town.getName()))
+				.clickEvent(ClickEvent.runCommand("/towny:town spawn " + town + " -ignore"));
 			
-			String spawnCost = "Free";
-			if (TownyEconomyHandler.isActive())
-				spawnCost = ChatColor.RESET + Translation.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(town.getSpawnCost()));
-
-			townName = townName.hoverEvent(HoverEvent.showText(Component.text(Translation.of("msg_click_spawn", town) + "\n" + spawnCost).color(NamedTextColor.GOLD)));
-			output.add(townName);
+		String slug = "";
+		switch (compType) {
+		case BALANCE:
+			slug = Colors.LightBlue + "(" + TownyEconomyHandler.getFormattedBalance(entry.getScore()) + ")";
+			break;
+		case TOWNBLOCKS:
+			slug = Colors.LightBlue + "(" + town.getTownBlocks().size() + ")";
+			break;
+		case RUINED:
+			slug = Colors.LightBlue + "(" + town.getResidents().size() + ") " + (town.isRuined() ? Translation.of("msg_ruined"):"");
+			break;
+		case BANKRUPT:
+			slug = Colors.LightBlue + "(" + town.getResidents().size() + ") " + (town.isBankrupt() ? Translation.of("msg_bankrupt"):"");
+			break;
+		case ONLINE:
+			slug = Colors.LightBlue + "(" + TownyAPI.getInstance().getOnlinePlayersInTown(town).size() + ")";
+			break;
+		default:
+			slug = Colors.LightBlue + "(" + town.getResidents().size() + ")";
+			break;
 		}
-		return output;
+		townName = townName.append(Component.text(Colors.Gray + " - " + slug));
+		
+		if (town.isOpen())
+			townName = townName.append(Component.text(" " + Colors.LightBlue + Translation.of("status_title_open")));
+		
+		String spawnCost = "Free";
+		if (TownyEconomyHandler.isActive())
+			spawnCost = ChatColor.RESET + Translation.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(town.getSpawnCost()));
+
+		return townName.hoverEvent(HoverEvent.showText(Component.text(Translation.of("msg_click_spawn", town) + "\n" + spawnCost).color(NamedTextColor.GOLD)));
 	}
 	
-	@SuppressWarnings("unchecked")
-	private static List<TextComponent> gatherNationLines(ComparatorType compType) {
-		List<TextComponent> output = new ArrayList<>();
-		List<Nation> nations = TownyUniverse.getInstance().getDataSource().getNations();
-		nations.sort((Comparator<? super Nation>) compType.getComparator());
-		
-		for (Nation nation : nations) {
-			TextComponent nationName = Component.text(Colors.LightBlue + StringMgmt.remUnderscore(nation.getName()))
-					.clickEvent(ClickEvent.runCommand("/towny:nation spawn " + nation + " -ignore"));
+	private static TextComponent gatherNationLine(Leaderboard.Entry<Nation> entry, ComparatorType compType) {
+		Nation nation = entry.getObject();
+		TextComponent nationName = Component.text(Colors.LightBlue + StringMgmt.remUnderscore(nation.getName()))
+				.clickEvent(ClickEvent.runCommand("/towny:nation spawn " + nation + " -ignore"));
 
-			String slug = "";
-			switch (compType) {
-			case BALANCE:
-				slug = TownyEconomyHandler.getFormattedBalance(nation.getAccount().getCachedBalance());
-				break;
-			case TOWNBLOCKS:
-				int rawNumTownsBlocks = nation.getTownBlocks().size();
-				NationListDisplayedNumTownBlocksCalculationEvent tbEvent = new NationListDisplayedNumTownBlocksCalculationEvent(nation, rawNumTownsBlocks);
-				Bukkit.getPluginManager().callEvent(tbEvent);
-				slug = tbEvent.getDisplayedValue() + "";
-				break;
-			case TOWNS:
-				int rawNumTowns = nation.getTowns().size();
-				NationListDisplayedNumTownsCalculationEvent tEvent = new NationListDisplayedNumTownsCalculationEvent(nation, rawNumTowns);
-				Bukkit.getPluginManager().callEvent(tEvent);
-				slug = tEvent.getDisplayedValue() + "";
-				break;
-			case ONLINE:
-				int rawNumOnlinePlayers = TownyAPI.getInstance().getOnlinePlayersInNation(nation).size();
-				NationListDisplayedNumOnlinePlayersCalculationEvent opEvent = new NationListDisplayedNumOnlinePlayersCalculationEvent(nation, rawNumOnlinePlayers);
-				Bukkit.getPluginManager().callEvent(opEvent);
-				slug = opEvent.getDisplayedValue() + "";
-				break;
-			default:
-				int rawNumResidents = nation.getResidents().size();
-				NationListDisplayedNumResidentsCalculationEvent rEvent = new NationListDisplayedNumResidentsCalculationEvent(nation, rawNumResidents);
-				Bukkit.getPluginManager().callEvent(rEvent);
-				slug = rEvent.getDisplayedValue() + "";
-				break;
-			}
-			
-			nationName = nationName.append(Component.text(Colors.Gray + " - " + Colors.LightBlue + "(" + slug + ")"));
+		String slug = "";
+		switch (compType) {
+		case BALANCE:
+			slug = TownyEconomyHandler.getFormattedBalance(entry.getScore());
+			break;
+		case TOWNBLOCKS:
+			int rawNumTownsBlocks = nation.getTownBlocks().size();
+			NationListDisplayedNumTownBlocksCalculationEvent tbEvent = new NationListDisplayedNumTownBlocksCalculationEvent(nation, rawNumTownsBlocks);
+			Bukkit.getPluginManager().callEvent(tbEvent);
+			slug = tbEvent.getDisplayedValue() + "";
+			break;
+		case TOWNS:
+			int rawNumTowns = nation.getTowns().size();
+			NationListDisplayedNumTownsCalculationEvent tEvent = new NationListDisplayedNumTownsCalculationEvent(nation, rawNumTowns);
+			Bukkit.getPluginManager().callEvent(tEvent);
+			slug = tEvent.getDisplayedValue() + "";
+			break;
+		case ONLINE:
+			int rawNumOnlinePlayers = TownyAPI.getInstance().getOnlinePlayersInNation(nation).size();
+			NationListDisplayedNumOnlinePlayersCalculationEvent opEvent = new NationListDisplayedNumOnlinePlayersCalculationEvent(nation, rawNumOnlinePlayers);
+			Bukkit.getPluginManager().callEvent(opEvent);
+			slug = opEvent.getDisplayedValue() + "";
+			break;
+		default:
+			int rawNumResidents = nation.getResidents().size();
+			NationListDisplayedNumResidentsCalculationEvent rEvent = new NationListDisplayedNumResidentsCalculationEvent(nation, rawNumResidents);
+			Bukkit.getPluginManager().callEvent(rEvent);
+			slug = rEvent.getDisplayedValue() + "";
+			break;
+		}
+		
+		nationName = nationName.append(Component.text(Colors.Gray + " - " + Colors.LightBlue + "(" + slug + ")"));
 
-			if (nation.isOpen())
-				nationName = nationName.append(Component.text(" " + Colors.LightBlue + Translation.of("status_title_open")));
+		if (nation.isOpen())
+			nationName = nationName.append(Component.text(" " + Colors.LightBlue + Translation.of("status_title_open")));
 
-			String spawnCost = "Free";
-			if (TownyEconomyHandler.isActive())
-				spawnCost = ChatColor.RESET + Translation.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(nation.getSpawnCost()));
-			
-			nationName = nationName.hoverEvent(HoverEvent.showText(Component.text(Colors.Gold + Translation.of("msg_click_spawn", nation) + "\n" + spawnCost)));
-			output.add(nationName);
-		}
-		return output;
+		String spawnCost = "Free";
+		if (TownyEconomyHandler.isActive())
+			spawnCost = ChatColor.RESET + Translation.of("msg_spawn_cost", TownyEconomyHandler.getFormattedBalance(nation.getSpawnCost()));
+		
+		return nationName.hoverEvent(HoverEvent.showText(Component.text(Colors.Gold + Translation.of("msg_click_spawn", nation) + "\n" + spawnCost)));
 	}
 }
@@ -0,0 +1,163 @@
+package com.palmergames.bukkit.towny.object.comparators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.palmergames.bukkit.towny.object.TownyObject;
+
+/**
+ * A ranking of Towny objects which is kept in order as the objects change,
+ * highest score first and equal scores by name. Changing an object's score
+ * moves just that object, so a page of the ranking can be read without
+ * sorting everything again.
+ *
+ * @param <T> the type of object being ranked.
+ */
+public class Leaderboard<T extends TownyObject> {
+
+	// Tells apart objects with the same score and name.
+	private static final AtomicLong sequence = new AtomicLong();
+
+	private final ConcurrentSkipListSet<Entry<T>> ranking = new ConcurrentSkipListSet<>();
+	private final Map<T, Entry<T>> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * An object's place on a leaderboard, with the score it was placed by.
+	 */
+	public static final class Entry<T extends TownyObject> implements Comparable<Entry<?>> {
+		private final T object;
+		private final double score;
+		private final String name;
+		private final long order;
+
+		private Entry(T object, double score, long order) {
+			this.object = object;
+			this.score = score;
+			this.name = object.getName();
+			this.order = order;
+		}
+
+		public T getObject() {
+			return object;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		@Override
+		public int compareTo(Entry<?> other) {
+			int compare = Double.compare(other.score, score);
+			if (compare == 0)
+				compare = name.compareTo(other.name);
+			if (compare == 0)
+				compare = Long.compare(order, other.order);
+			return compare;
+		}
+	}
+
+	/**
+	 * Place an object on the leaderboard, or move it to where its new score belongs.
+	 *
+	 * @param object the object to place.
+	 * @param score the object's score, higher scores come first.
+	 */
+	public void update(T object, double score) {
+		entries.compute(object, (key, old) -> {
+			if (old != null) {
+				if (old.score == score && old.name.equals(key.getName()))
+					return old;
+				ranking.remove(old);
+			}
+			Entry<T> entry = new Entry<>(key, score, old == null ? sequence.incrementAndGet() : old.order);
+			ranking.add(entry);
+			return entry;
+		});
+	}
+
+	public void remove(T object) {
+		entries.computeIfPresent(object, (key, old) -> {
+			ranking.remove(old);
+			return null;
+		});
+	}
+
+	public boolean contains(T object) {
+		return entries.containsKey(object);
+	}
+
+	/**
+	 * @param object an object on the leaderboard.
+	 * @return the score the object is placed by, or 0 if it isn't on the leaderboard.
+	 */
+	public double getScore(T object) {
+		Entry<T> entry = entries.get(object);
+		return entry == null ? 0 : entry.score;
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public void clear() {
+		entries.clear();
+		ranking.clear();
+	}
+
+	/**
+	 * @param start the place to start at, 0 being the top.
+	 * @param amount how many entries to get.
+	 * @return the entries from start, in order.
+	 */
+	public List<Entry<T>> getEntries(int start, int amount) {
+		if (amount <= 0)
+			return Collections.emptyList();
+
+		List<Entry<T>> page = new ArrayList<>(Math.min(amount, 16));
+		Iterator<Entry<T>> iterator = ranking.iterator();
+		for (int i = 0; i < start && iterator.hasNext(); i++)
+			iterator.next();
+		while (page.size() < amount && iterator.hasNext())
+			page.add(iterator.next());
+		return page;
+	}
+
+	/**
+	 * Get the top of several leaderboards together, as if they were one.
+	 *
+	 * @param amount how many entries to get.
+	 * @param leaderboards the leaderboards to combine.
+	 * @return the highest entries of all the leaderboards, in order.
+	 */
+	@SafeVarargs
+	public static List<Entry<? extends TownyObject>> getTop(int amount, Leaderboard<? extends TownyObject>... leaderboards) {
+		List<Iterator<? extends Entry<? extends TownyObject>>> iterators = new ArrayList<>(leaderboards.length);
+		List<Entry<? extends TownyObject>> heads = new ArrayList<>(leaderboards.length);
+		for (Leaderboard<? extends TownyObject> leaderboard : leaderboards) {
+			Iterator<? extends Entry<? extends TownyObject>> iterator = leaderboard.ranking.iterator();
+			iterators.add(iterator);
+			heads.add(iterator.hasNext() ? iterator.next() : null);
+		}
+
+		List<Entry<? extends TownyObject>> top = new ArrayList<>(Math.min(Math.max(amount, 0), 16));
+		while (top.size() < amount) {
+			int best = -1;
+			for (int i = 0; i < heads.size(); i++)
+				if (heads.get(i) != null && (best < 0 || heads.get(i).compareTo(heads.get(best)) < 0))
+					best = i;
+			if (best < 0)
+				break;
+
+			top.add(heads.get(best));
+			Iterator<? extends Entry<? extends TownyObject>> iterator = iterators.get(best);
+			heads.set(best, iterator.hasNext() ? iterator.next() : null);
+		}
+		return top;
+	}
+}
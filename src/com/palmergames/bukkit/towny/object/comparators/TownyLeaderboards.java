@@ -0,0 +1,391 @@
+package com.palmergames.bukkit.towny.object.comparators;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.entity.Player;
+
+import com.palmergames.bukkit.towny.TownyEconomyHandler;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.object.Government;
+import com.palmergames.bukkit.towny.object.Nation;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.towny.object.Town;
+import com.palmergames.bukkit.util.BukkitTools;
+
+/**
+ * The leaderboards behind /town list, /nation list and /towny top. One
+ * leaderboard is kept for every {@link ComparatorType} a town or nation can be
+ * listed by, plus one of the residents owning land.
+ *
+ * The leaderboards are filled the first time they are used, after which the
+ * towns, nations and residents are moved as they change: when residents,
+ * towns or land are added or removed, a town or nation is opened, made public,
+ * ruined or bankrupted, money goes in or out of a bank and players log in or
+ * out. Each change only moves a town or nation on the leaderboards it
+ * affects, and a nation's counts are adjusted by the change rather than
+ * counted again over all of its towns.
+ */
+public class TownyLeaderboards {
+
+	// Puts open, public, ruined and bankrupt governments before the rest, each group by residents.
+	private static final double FLAG_SCORE = 1_000_000_000d;
+	private static final ComparatorType[] FLAGS = { ComparatorType.OPEN, ComparatorType.PUBLIC, ComparatorType.RUINED, ComparatorType.BANKRUPT };
+
+	private final Map<ComparatorType, Leaderboard<Town>> towns = new EnumMap<>(ComparatorType.class);
+	private final Map<ComparatorType, Leaderboard<Nation>> nations = new EnumMap<>(ComparatorType.class);
+	private final Leaderboard<Resident> residentLand = new Leaderboard<>();
+	// Players counted on the online leaderboards.
+	private final Set<UUID> online = ConcurrentHashMap.newKeySet();
+	private volatile boolean built = false;
+
+	public TownyLeaderboards() {
+		for (ComparatorType type : ComparatorType.values()) {
+			if (type != ComparatorType.TOWNS)
+				towns.put(type, new Leaderboard<>());
+			if (type != ComparatorType.RUINED && type != ComparatorType.BANKRUPT)
+				nations.put(type, new Leaderboard<>());
+		}
+	}
+
+	/**
+	 * @param type the order of the list.
+	 * @return the towns in that order, by residents if towns can't be listed that way.
+	 */
+	public Leaderboard<Town> getTownLeaderboard(ComparatorType type) {
+		build();
+		return towns.getOrDefault(type, towns.get(ComparatorType.RESIDENTS));
+	}
+
+	/**
+	 * @param type the order of the list.
+	 * @return the nations in that order, by residents if nations can't be listed that way.
+	 */
+	public Leaderboard<Nation> getNationLeaderboard(ComparatorType type) {
+		build();
+		return nations.getOrDefault(type, nations.get(ComparatorType.RESIDENTS));
+	}
+
+	/**
+	 * @return the residents owning land, by how much land they own.
+	 */
+	public Leaderboard<Resident> getResidentLandLeaderboard() {
+		build();
+		return residentLand;
+	}
+
+	private synchronized void build() {
+		if (built)
+			return;
+
+		TownyUniverse universe = TownyUniverse.getInstance();
+		for (Town town : universe.getTowns())
+			place(town);
+		for (Nation nation : universe.getNations())
+			place(nation);
+		for (Resident resident : universe.getResidents())
+			placeLand(resident);
+		built = true;
+
+		// Count the players already online, from now on they are counted as they log in and out.
+		for (Player player : BukkitTools.getOnlinePlayers())
+			updateOnline(player.getUniqueId(), true);
+	}
+
+	/**
+	 * Forget everything, the leaderboards are filled again when next used.
+	 */
+	public synchronized void clear() {
+		built = false;
+		towns.values().forEach(Leaderboard::clear);
+		nations.values().forEach(Leaderboard::clear);
+		residentLand.clear();
+		online.clear();
+	}
+
+	/**
+	 * A town has been registered.
+	 */
+	public void add(Town town) {
+		if (built)
+			place(town);
+	}
+
+	/**
+	 * A nation has been registered.
+	 */
+	public void add(Nation nation) {
+		if (built)
+			place(nation);
+	}
+
+	public void remove(Town town) {
+		if (built)
+			towns.values().forEach(leaderboard -> leaderboard.remove(town));
+	}
+
+	public void remove(Nation nation) {
+		if (built)
+			nations.values().forEach(leaderboard -> leaderboard.remove(nation));
+	}
+
+	public void remove(Resident resident) {
+		if (built)
+			residentLand.remove(resident);
+	}
+
+	/**
+	 * A resident joined or left a town, moving the town and its nation by
+	 * residents, and by online players if the resident is online.
+	 *
+	 * @param town the town, with the resident already added or removed.
+	 * @param resident the resident who joined or left.
+	 * @param change 1 if the resident joined, -1 if they left.
+	 */
+	public synchronized void updateResidents(Town town, Resident resident, int change) {
+		if (!built || !isRegistered(town))
+			return;
+
+		boolean isOnline = resident.getUUID() != null && online.contains(resident.getUUID());
+		towns.get(ComparatorType.RESIDENTS).update(town, town.getResidents().size());
+		if (isOnline)
+			adjust(towns.get(ComparatorType.ONLINE), town, change);
+		reflag(towns, town, town.getResidents().size());
+
+		Nation nation = town.getNationOrNull();
+		if (nation == null || !isRegistered(nation))
+			return;
+
+		adjust(nations.get(ComparatorType.RESIDENTS), nation, change);
+		if (isOnline)
+			adjust(nations.get(ComparatorType.ONLINE), nation, change);
+		reflag(nations, nation, nationResidents(nation));
+	}
+
+	/**
+	 * Land was claimed or unclaimed by a town, moving the town and its nation by land.
+	 *
+	 * @param town the town, with the townblock already added or removed.
+	 * @param change 1 if a townblock was claimed, -1 if one was unclaimed.
+	 */
+	public synchronized void updateTownBlocks(Town town, int change) {
+		if (!built || !isRegistered(town))
+			return;
+
+		towns.get(ComparatorType.TOWNBLOCKS).update(town, town.getTownBlocks().size());
+
+		Nation nation = town.getNationOrNull();
+		if (nation != null && isRegistered(nation))
+			adjust(nations.get(ComparatorType.TOWNBLOCKS), nation, change);
+	}
+
+	/**
+	 * A town joined or left a nation, moving the nation by everything the town brings with it.
+	 *
+	 * @param nation the nation, with the town already added or removed.
+	 * @param town the town which joined or left.
+	 * @param change 1 if the town joined, -1 if it left.
+	 */
+	public synchronized void updateTowns(Nation nation, Town town, int change) {
+		if (!built || !isRegistered(nation))
+			return;
+
+		nations.get(ComparatorType.TOWNS).update(nation, nation.getTowns().size());
+		adjust(nations.get(ComparatorType.RESIDENTS), nation, change * town.getResidents().size());
+		adjust(nations.get(ComparatorType.TOWNBLOCKS), nation, change * town.getTownBlocks().size());
+		adjust(nations.get(ComparatorType.ONLINE), nation, change * countOnline(town));
+		reflag(nations, nation, nationResidents(nation));
+	}
+
+	/**
+	 * A town or nation was opened, made public, ruined or bankrupted, or the reverse.
+	 *
+	 * @param government the town or nation.
+	 * @param type the list the change moves it on, one of OPEN, PUBLIC, RUINED or BANKRUPT.
+	 */
+	public synchronized void updateFlag(Government government, ComparatorType type) {
+		if (!built)
+			return;
+
+		if (government instanceof Town) {
+			Town town = (Town) government;
+			if (isRegistered(town))
+				towns.get(type).update(town, score(type, town, town.getResidents().size()));
+		} else if (government instanceof Nation) {
+			Nation nation = (Nation) government;
+			Leaderboard<Nation> leaderboard = nations.get(type);
+			if (leaderboard != null && isRegistered(nation))
+				leaderboard.update(nation, score(type, nation, nationResidents(nation)));
+		}
+	}
+
+	/**
+	 * Move a resident to their current place on the land leaderboard.
+	 */
+	public void update(Resident resident) {
+		if (built && TownyUniverse.getInstance().getResident(resident.getName()) == resident)
+			placeLand(resident);
+	}
+
+	/**
+	 * A player logged in or out, moving their town and nation on the online lists.
+	 *
+	 * @param uuid the player's UUID.
+	 * @param isOnline true if the player logged in, false if they logged out.
+	 */
+	public synchronized void updateOnline(UUID uuid, boolean isOnline) {
+		if (!built)
+			return;
+
+		// Only count each player once, whichever order their login and logout arrive in.
+		if (isOnline ? !online.add(uuid) : !online.remove(uuid))
+			return;
+
+		Resident resident = TownyUniverse.getInstance().getResident(uuid);
+		Town town = resident == null ? null : resident.getTownOrNull();
+		if (town == null || !isRegistered(town))
+			return;
+
+		int change = isOnline ? 1 : -1;
+		adjust(towns.get(ComparatorType.ONLINE), town, change);
+		Nation nation = town.getNationOrNull();
+		if (nation != null && isRegistered(nation))
+			adjust(nations.get(ComparatorType.ONLINE), nation, change);
+	}
+
+	/**
+	 * Money went in or out of a town or nation bank.
+	 *
+	 * @param government the town or nation.
+	 * @param balance the bank's balance after the transaction.
+	 */
+	public void updateBalance(Government government, double balance) {
+		if (!built)
+			return;
+
+		if (government instanceof Town) {
+			Town town = (Town) government;
+			if (towns.get(ComparatorType.RESIDENTS).contains(town))
+				towns.get(ComparatorType.BALANCE).update(town, balance);
+		} else if (government instanceof Nation) {
+			Nation nation = (Nation) government;
+			if (nations.get(ComparatorType.RESIDENTS).contains(nation))
+				nations.get(ComparatorType.BALANCE).update(nation, balance);
+		}
+	}
+
+	private boolean isRegistered(Town town) {
+		return towns.get(ComparatorType.RESIDENTS).contains(town);
+	}
+
+	private boolean isRegistered(Nation nation) {
+		return nations.get(ComparatorType.RESIDENTS).contains(nation);
+	}
+
+	private int nationResidents(Nation nation) {
+		return (int) nations.get(ComparatorType.RESIDENTS).getScore(nation);
+	}
+
+	private static <T extends Government> void adjust(Leaderboard<T> leaderboard, T government, double change) {
+		if (change != 0)
+			leaderboard.update(government, leaderboard.getScore(government) + change);
+	}
+
+	/**
+	 * The open, public, ruined and bankrupt lists are each ordered by residents within the flag.
+	 */
+	private static <T extends Government> void reflag(Map<ComparatorType, Leaderboard<T>> leaderboards, T government, int residents) {
+		for (ComparatorType type : FLAGS) {
+			Leaderboard<T> leaderboard = leaderboards.get(type);
+			if (leaderboard != null)
+				leaderboard.update(government, score(type, government, residents));
+		}
+	}
+
+	private void place(Town town) {
+		int residents = town.getResidents().size();
+		for (Map.Entry<ComparatorType, Leaderboard<Town>> entry : towns.entrySet())
+			entry.getValue().update(town, entry.getKey() == ComparatorType.ONLINE ? countOnline(town) : score(entry.getKey(), town, residents));
+	}
+
+	private void place(Nation nation) {
+		int residents = 0, townBlocks = 0, onlineResidents = 0;
+		for (Town town : nation.getTowns()) {
+			residents += town.getResidents().size();
+			townBlocks += town.getTownBlocks().size();
+			onlineResidents += countOnline(town);
+		}
+
+		for (Map.Entry<ComparatorType, Leaderboard<Nation>> entry : nations.entrySet()) {
+			ComparatorType type = entry.getKey();
+			double score;
+			switch (type) {
+				case RESIDENTS:
+					score = residents;
+					break;
+				case TOWNBLOCKS:
+					score = townBlocks;
+					break;
+				case ONLINE:
+					score = onlineResidents;
+					break;
+				default:
+					score = score(type, nation, residents);
+			}
+			entry.getValue().update(nation, score);
+		}
+	}
+
+	private int countOnline(Town town) {
+		if (online.isEmpty())
+			return 0;
+
+		int count = 0;
+		for (Resident resident : town.getResidents())
+			if (resident.getUUID() != null && online.contains(resident.getUUID()))
+				count++;
+		return count;
+	}
+
+	private void placeLand(Resident resident) {
+		int land = resident.getTownBlocks().size();
+		if (land > 0)
+			residentLand.update(resident, land);
+		else
+			residentLand.remove(resident);
+	}
+
+	/**
+	 * @param residents the government's residents, which the flagged lists are ordered by.
+	 */
+	private static double score(ComparatorType type, Government government, int residents) {
+		switch (type) {
+			case RESIDENTS:
+				return residents;
+			case TOWNBLOCKS:
+				return government.getTownBlocks().size();
+			case BALANCE:
+				return TownyEconomyHandler.isActive() ? government.getAccount().getCachedBalance() : 0;
+			case TOWNS:
+				return government instanceof Nation ? ((Nation) government).getTowns().size() : 0;
+			case OPEN:
+				return flagged(government.isOpen(), residents);
+			case PUBLIC:
+				return flagged(government.isPublic(), residents);
+			case RUINED:
+				return flagged(government instanceof Town && ((Town) government).isRuined(), residents);
+			case BANKRUPT:
+				return flagged(government instanceof Town && ((Town) government).isBankrupt(), residents);
+			default:
+				// Listed by name alone, or counted as it changes.
+				return 0;
+		}
+	}
+
+	private static double flagged(boolean flag, int residents) {
+		return (flag ? FLAG_SCORE : 0) + residents;
+	}
+}
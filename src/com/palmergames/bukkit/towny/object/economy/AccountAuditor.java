@@ -10,4 +10,24 @@ public interface AccountAuditor extends AccountObserver {
 	 * @return The transaction history from this account.
 	 */
 	List<String> getAuditHistory();
+
+	/**
+	 * @return The number of transactions in the history of this account.
+	 */
+	default int getAuditHistorySize() {
+		return getAuditHistory().size();
+	}
+
+	/**
+	 * Gets part of the transaction history, in chronological order.
+	 * 
+	 * @param start The index of the first transaction, 0 being the oldest.
+	 * @param amount The number of transactions to get.
+	 * @return The requested transactions, fewer if the history ends first.
+	 */
+	default List<String> getAuditHistory(int start, int amount) {
+		List<String> history = getAuditHistory();
+		start = Math.max(0, start);
+		return history.subList(Math.min(start, history.size()), Math.min(history.size(), start + Math.max(0, amount)));
+	}
 }
@@ -101,7 +101,7 @@ public class BankAccount extends Account {
 
 			if(amountInDebt <= getDebtCap()) {
 				// Empty out account.
-				boolean success = TownyEconomyHandler.setBalance(getName(), 0, world);
+				boolean success = BankLedger.setBalance(getName(), 0, world);
 				success &= addDebt(amountInDebt);
 
 				return success;
@@ -111,7 +111,7 @@ public class BankAccount extends Account {
 		}
 
 		// Otherwise continue like normal.
-		return TownyEconomyHandler.subtract(getName(), amount, world);
+		return BankLedger.subtract(getName(), amount, world);
 	}
 
 	@Override
@@ -124,7 +124,7 @@ public class BankAccount extends Account {
 			return removeDebt(amount);
 
 		// Otherwise continue like normal.
-		return TownyEconomyHandler.add(getName(), amount, world);
+		return BankLedger.add(getName(), amount, world);
 	}
 
 	/**
@@ -164,9 +164,9 @@ public class BankAccount extends Account {
 			// Sometimes there's money in the bank account 
 			// (from a player manually putting money in via
 			// eco plugin, maybe.)
-			double bankBalance = TownyEconomyHandler.getBalance(getName(), getBukkitWorld());
+			double bankBalance = BankLedger.getBalance(getName(), getBukkitWorld());
 			//Set positive balance in regular account
-			TownyEconomyHandler.setBalance(getName(), bankBalance + netMoney, world);
+			BankLedger.setBalance(getName(), bankBalance + netMoney, world);
 			return true;
 		} else {
 			setTownDebt(getTownDebt() - amount);
@@ -179,7 +179,12 @@ public class BankAccount extends Account {
 		if (isBankrupt()) {
 			return getTownDebt() * -1;
 		}
-		return TownyEconomyHandler.getBalance(getName(), getBukkitWorld());
+		return BankLedger.getBalance(getName(), getBukkitWorld());
+	}
+
+	@Override
+	public boolean canPayFromHoldings(double amount) {
+		return BankLedger.getBalance(getName(), getBukkitWorld()) >= amount;
 	}
 
 	@Override
@@ -192,6 +197,7 @@ public class BankAccount extends Account {
 
 	@Override
 	public void removeAccount() {
+		BankLedger.remove(getName());
 		TownyEconomyHandler.removeAccount(getName());
 	}
 
@@ -0,0 +1,225 @@
+package com.palmergames.bukkit.towny.object.economy;
+
+import com.palmergames.bukkit.towny.TownyEconomyHandler;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the balances of town and nation bank accounts in memory, so that
+ * deposits, withdrawals and balance checks made by {@link BankAccount}s don't
+ * each have to call into the economy plugin.
+ *
+ * A balance is read from the economy plugin the first time an account is used,
+ * after which the ledger's balance is the authoritative one. Changes are
+ * collected as a net amount per account and sent to the economy plugin by
+ * {@link #flush()}, which is run on a timer and when Towny stops. Accounts that
+ * haven't been used between two flushes are dropped, so their next use reads
+ * the balance from the economy plugin again, picking up any changes made to it
+ * outside of Towny.
+ *
+ * When the ledger is not running every method passes straight through to the
+ * {@link TownyEconomyHandler}.
+ */
+public class BankLedger {
+
+	private static final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private static volatile boolean enabled = false;
+
+	private static class Entry {
+		private double balance;
+		// Change not yet sent to the economy plugin.
+		private double pending = 0;
+		private boolean used = true;
+		private World world;
+
+		private Entry(double balance, World world) {
+			this.balance = balance;
+			this.world = world;
+		}
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start keeping bank balances in memory.
+	 */
+	public static void start() {
+		entries.clear();
+		enabled = true;
+	}
+
+	/**
+	 * Send every outstanding change to the economy plugin and go back to using
+	 * it directly.
+	 */
+	public static void stop() {
+		if (!enabled)
+			return;
+
+		enabled = false;
+		flush();
+		if (!entries.isEmpty()) {
+			int unsent = 0;
+			for (Entry entry : entries.values())
+				if (entry.pending != 0)
+					unsent++;
+			if (unsent > 0)
+				TownyMessaging.sendErrorMsg("Bank ledger: " + unsent + " bank accounts could not be updated in the economy plugin.");
+		}
+		entries.clear();
+	}
+
+	private static Entry load(String accountName, World world) {
+		return new Entry(TownyEconomyHandler.getBalance(accountName, world), world);
+	}
+
+	/**
+	 * @param accountName name of the economy account
+	 * @param world world of the account
+	 * @return the balance of the account
+	 */
+	public static double getBalance(String accountName, World world) {
+		if (!enabled)
+			return TownyEconomyHandler.getBalance(accountName, world);
+
+		double[] balance = new double[1];
+		entries.compute(accountName, (name, entry) -> {
+			if (entry == null)
+				entry = load(name, world);
+			entry.used = true;
+			balance[0] = entry.balance;
+			return entry;
+		});
+		return balance[0];
+	}
+
+	/**
+	 * @param accountName name of the economy account
+	 * @param amount amount of currency to add
+	 * @param world world of the account
+	 * @return true if successful
+	 */
+	public static boolean add(String accountName, double amount, World world) {
+		if (!enabled)
+			return TownyEconomyHandler.add(accountName, amount, world);
+
+		entries.compute(accountName, (name, entry) -> {
+			if (entry == null)
+				entry = load(name, world);
+			entry.balance += amount;
+			entry.pending += amount;
+			entry.used = true;
+			entry.world = world;
+			return entry;
+		});
+		return true;
+	}
+
+	/**
+	 * @param accountName name of the economy account
+	 * @param amount amount of currency to remove
+	 * @param world world of the account
+	 * @return true if successful, false if the account doesn't hold enough
+	 */
+	public static boolean subtract(String accountName, double amount, World world) {
+		if (!enabled)
+			return TownyEconomyHandler.subtract(accountName, amount, world);
+
+		boolean[] success = new boolean[1];
+		entries.compute(accountName, (name, entry) -> {
+			if (entry == null)
+				entry = load(name, world);
+			entry.used = true;
+			if (entry.balance >= amount) {
+				entry.balance -= amount;
+				entry.pending -= amount;
+				entry.world = world;
+				success[0] = true;
+			}
+			return entry;
+		});
+		return success[0];
+	}
+
+	/**
+	 * @param accountName name of the economy account
+	 * @param amount the new balance
+	 * @param world world of the account
+	 * @return true if successful
+	 */
+	public static boolean setBalance(String accountName, double amount, World world) {
+		if (!enabled)
+			return TownyEconomyHandler.setBalance(accountName, amount, world);
+
+		entries.compute(accountName, (name, entry) -> {
+			if (entry == null)
+				entry = load(name, world);
+			entry.pending += amount - entry.balance;
+			entry.balance = amount;
+			entry.used = true;
+			entry.world = world;
+			return entry;
+		});
+		return true;
+	}
+
+	/**
+	 * Forget an account which is being deleted, along with any change not yet sent.
+	 *
+	 * @param accountName name of the economy account
+	 */
+	public static void remove(String accountName) {
+		entries.remove(accountName);
+	}
+
+	/**
+	 * Send the net change of every account to the economy plugin. An account
+	 * the economy plugin refuses keeps its change, to be tried again on the
+	 * next flush.
+	 */
+	public static void flush() {
+
+		int sent = 0;
+		for (String accountName : new ArrayList<>(entries.keySet())) {
+			double[] delta = new double[1];
+			World[] world = new World[1];
+			entries.computeIfPresent(accountName, (name, entry) -> {
+				delta[0] = entry.pending;
+				world[0] = entry.world;
+				entry.pending = 0;
+
+				// Unused since the last flush, read it from the economy plugin again next time.
+				if (delta[0] == 0 && !entry.used)
+					return null;
+				entry.used = false;
+				return entry;
+			});
+
+			if (delta[0] == 0)
+				continue;
+
+			boolean success = delta[0] > 0
+				? TownyEconomyHandler.add(accountName, delta[0], world[0])
+				: TownyEconomyHandler.subtract(accountName, -delta[0], world[0]);
+
+			if (success) {
+				sent++;
+			} else {
+				TownyMessaging.sendErrorMsg("Bank ledger: could not apply " + delta[0] + " to " + accountName + ", it will be tried again.");
+				entries.computeIfPresent(accountName, (name, entry) -> {
+					entry.pending += delta[0];
+					return entry;
+				});
+			}
+		}
+
+		if (sent > 0)
+			TownyMessaging.sendDebugMsg("Bank ledger: updated " + sent + " bank accounts in the economy plugin.");
+	}
+}
@@ -27,7 +27,21 @@ public class BankTransaction {
 	}
 	
 	public String getTime() {
-		return dateFormat.format(time);
+		return formatTime(time);
+	}
+
+	public long getTimestamp() {
+		return time;
+	}
+
+	/**
+	 * @param time the time of a transaction, in milliseconds.
+	 * @return the time formatted as it is shown in the bank history.
+	 */
+	public static String formatTime(long time) {
+		synchronized (dateFormat) {
+			return dateFormat.format(time);
+		}
 	}
 
 	public Account getAccount() {
@@ -1,42 +1,403 @@
 package com.palmergames.bukkit.towny.object.economy;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.ChatColor;
 
 import com.palmergames.bukkit.towny.TownyEconomyHandler;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.TransactionType;
 
+/**
+ * Keeps the bank history of a town or nation.
+ *
+ * The most recent transactions are kept in memory in a fixed size ring, the
+ * full history is appended to data/bankhistory/(uuid).log. Transactions are
+ * written to the log in batches, when the ring is about to overwrite ones which
+ * haven't been written yet and when Towny stops. Writing only needs the end of
+ * the log, which is found by reading back from the end of the file.
+ *
+ * Reading a page of history only formats the transactions on that page, older
+ * pages are read from the log using a sparse index of where every
+ * {@value #INDEX_INTERVAL}th line starts. The log is first indexed off the main
+ * thread, until that finishes only the transactions in memory can be read.
+ *
+ * The log is deleted along with its town or nation.
+ */
 public class GovernmentAccountAuditor implements AccountAuditor {
 
-	private List<BankTransaction> transactions = new ArrayList<BankTransaction>();
-	
+	private static final int TAIL_SIZE = 128;
+	private static final int INDEX_INTERVAL = 64;
+	private static final Set<GovernmentAccountAuditor> unwritten = ConcurrentHashMap.newKeySet();
+
+	private final Government government;
+	private final BankTransaction[] tail = new BankTransaction[TAIL_SIZE];
+	// Number of transactions made this session, the newest is at tail[(count - 1) % TAIL_SIZE].
+	private int count = 0;
+	// Number of this session's transactions written to the log.
+	private int written = 0;
+	// End of the last complete line in the log, where the next line is written, or -1 until it is found.
+	private long logLength = -1;
+	// Index of the log, scanned the first time an older page is read.
+	private LogIndex index = null;
+	private CompletableFuture<LogIndex> scan = null;
+	// Lengths of the lines written while the log was being scanned, which the scan doesn't reach.
+	private final List<Integer> unindexed = new ArrayList<>();
+	private boolean deleted = false;
+
+	public GovernmentAccountAuditor(Government government) {
+		this.government = government;
+	}
+
 	@Override
 	public void withdrew(Account account, double amount, String reason) {
-		transactions.add(new BankTransaction(TransactionType.WITHDRAW, System.currentTimeMillis(), account, amount, account.getHoldingBalance(), reason));
+		double balance = account.getHoldingBalance();
+		add(new BankTransaction(TransactionType.WITHDRAW, System.currentTimeMillis(), account, amount, balance, reason));
+		TownyUniverse.getInstance().getLeaderboards().updateBalance(government, balance);
 	}
 
 	@Override
 	public void deposited(Account account, double amount, String reason) {
-		transactions.add(new BankTransaction(TransactionType.DEPOSIT, System.currentTimeMillis(), account, amount, account.getHoldingBalance(), reason));
+		double balance = account.getHoldingBalance();
+		add(new BankTransaction(TransactionType.DEPOSIT, System.currentTimeMillis(), account, amount, balance, reason));
+		TownyUniverse.getInstance().getLeaderboards().updateBalance(government, balance);
+	}
+
+	private synchronized void add(BankTransaction transaction) {
+		// Write out anything the ring is about to lose.
+		if (count - written >= TAIL_SIZE)
+			write();
+
+		tail[count % TAIL_SIZE] = transaction;
+		count++;
+		unwritten.add(this);
 	}
 
 	@Override
 	public List<String> getAuditHistory() {
-		
-		List<String> history = new ArrayList<>(transactions.size());
-		String line;
-		
-		for (BankTransaction transaction : transactions) {
-			line = transaction.getTime() + "\n\n";
-			line += transaction.getType().getName() + " of " + ChatColor.stripColor(TownyEconomyHandler.getFormattedBalance(transaction.getAmount()));
-			line += (transaction.getType() == TransactionType.DEPOSIT ? " to " : " from ") + transaction.getAccount().getName() + "\n\n";
-			line += "Reason: " + transaction.getReason() + "\n\n";
-			line += "Balance: " + ChatColor.stripColor(TownyEconomyHandler.getFormattedBalance(transaction.getBalance()));
-			history.add(line);
-		}
-		
+		return getAuditHistory(0, getAuditHistorySize());
+	}
+
+	@Override
+	public synchronized int getAuditHistorySize() {
+		if (!loadIndex())
+			// Without a log, or before it has been indexed, only the transactions still in memory are known.
+			return count - written;
+
+		return index.lines + (count - written);
+	}
+
+	@Override
+	public synchronized List<String> getAuditHistory(int start, int amount) {
+
+		int size = getAuditHistorySize();
+		start = Math.max(0, start);
+		int end = Math.min(size, start + Math.max(0, amount));
+		if (start >= end)
+			return Collections.emptyList();
+
+		List<String> history = new ArrayList<>(end - start);
+		int logged = size - (count - written);
+
+		// Transactions still in memory are the newest, everything before them is read from the log.
+		if (start < logged && index != null) {
+			readLog(start, Math.min(end, logged) - start, history);
+		}
+
+		int firstInMemory = Math.max(start, logged);
+		for (int i = firstInMemory; i < end; i++) {
+			int session = written + (i - logged);
+			history.add(format(tail[session % TAIL_SIZE]));
+		}
+
 		return history;
 	}
+
+	/**
+	 * Write every transaction still only in memory to the logs.
+	 */
+	public static void writeAll() {
+		for (GovernmentAccountAuditor auditor : new ArrayList<>(unwritten))
+			auditor.writeLog();
+	}
+
+	private synchronized void writeLog() {
+		write();
+	}
+
+	/**
+	 * Delete the log, once the town or nation has been deleted. Anything
+	 * recorded afterwards is kept in memory only.
+	 */
+	public synchronized void deleteLog() {
+		deleted = true;
+		written = count;
+		unwritten.remove(this);
+		index = null;
+		scan = null;
+		unindexed.clear();
+		logLength = -1;
+
+		File file = getLogFile();
+		if (file == null)
+			return;
+
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not delete bank history " + file.getName() + ": " + e.getMessage());
+		}
+	}
+
+	private File getLogFile() {
+		UUID uuid = government.getUUID();
+		if (uuid == null)
+			return null;
+
+		return new File(TownyUniverse.getInstance().getRootFolder() + File.separator + "data" + File.separator + "bankhistory" + File.separator + uuid + ".log");
+	}
+
+	/**
+	 * Find the end of the last complete line in the log, once.
+	 *
+	 * @return true if there is a log to use.
+	 */
+	private boolean loadLogEnd() {
+		if (logLength >= 0)
+			return true;
+
+		File file = getLogFile();
+		if (file == null || deleted)
+			return false;
+
+		try {
+			logLength = findLogEnd(file);
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not read bank history " + file.getName() + ": " + e.getMessage());
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Index the lines of the log, once. The log is scanned on another thread,
+	 * until the scan finishes there is no index to use.
+	 *
+	 * @return true if the log has been indexed.
+	 */
+	private boolean loadIndex() {
+		if (index != null)
+			return true;
+
+		if (!loadLogEnd())
+			return false;
+
+		if (scan == null) {
+			File file = getLogFile();
+			// Only the lines complete now are scanned, lines written during the scan are added to the index after it.
+			long end = logLength;
+			scan = CompletableFuture.supplyAsync(() -> LogIndex.scan(file, end));
+		}
+		if (!scan.isDone())
+			return false;
+
+		index = scan.join();
+		scan = null;
+		if (index == null) {
+			// The log couldn't be read, try again next time.
+			unindexed.clear();
+			return false;
+		}
+
+		for (int length : unindexed)
+			index.addLine(length);
+		unindexed.clear();
+		return true;
+	}
+
+	/**
+	 * @return where the last complete line of the log ends, reading back from the end of the file.
+	 */
+	private static long findLogEnd(File file) throws IOException {
+		if (!file.exists())
+			return 0;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			byte[] buffer = new byte[4096];
+			long end = raf.length();
+			while (end > 0) {
+				int read = (int) Math.min(buffer.length, end);
+				raf.seek(end - read);
+				raf.readFully(buffer, 0, read);
+				for (int i = read - 1; i >= 0; i--)
+					if (buffer[i] == '\n')
+						return end - read + i + 1;
+				end -= read;
+			}
+		}
+		return 0;
+	}
+
+	private void write() {
+		if (count == written) {
+			unwritten.remove(this);
+			return;
+		}
+
+		if (!loadLogEnd()) {
+			// Nowhere to write to, drop what the ring can't hold.
+			written = Math.max(written, count - TAIL_SIZE + 1);
+			return;
+		}
+
+		File file = getLogFile();
+		StringBuilder out = new StringBuilder();
+		List<Integer> lengths = new ArrayList<>();
+		for (int i = written; i < count; i++) {
+			String line = serialize(tail[i % TAIL_SIZE]) + "\n";
+			out.append(line);
+			lengths.add(line.getBytes(StandardCharsets.UTF_8).length);
+		}
+
+		try {
+			file.getParentFile().mkdirs();
+			try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+				// A last line without its newline was cut short, it is overwritten.
+				raf.setLength(logLength);
+				raf.seek(logLength);
+				raf.write(out.toString().getBytes(StandardCharsets.UTF_8));
+			}
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not write bank history " + file.getName() + ": " + e.getMessage());
+			written = Math.max(written, count - TAIL_SIZE + 1);
+			return;
+		}
+
+		for (int length : lengths) {
+			logLength += length;
+			if (index != null)
+				index.addLine(length);
+			else if (scan != null)
+				unindexed.add(length);
+		}
+		written = count;
+		unwritten.remove(this);
+	}
+
+	private void readLog(int start, int amount, List<String> history) {
+		File file = getLogFile();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			raf.seek(index.checkpoints[start / INDEX_INTERVAL]);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(raf.getChannel()), StandardCharsets.UTF_8));
+			// Skip from the nearest indexed line to the first one wanted.
+			for (int i = start % INDEX_INTERVAL; i > 0; i--)
+				if (reader.readLine() == null)
+					return;
+			for (int i = 0; i < amount; i++) {
+				String line = reader.readLine();
+				if (line == null)
+					break;
+				history.add(format(line));
+			}
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not read bank history " + file.getName() + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Where every {@value #INDEX_INTERVAL}th line of a log starts.
+	 */
+	private static class LogIndex {
+		private long[] checkpoints = new long[16];
+		private int lines = 0;
+		// End of the last line indexed.
+		private long length = 0;
+
+		private void addLine(int lineLength) {
+			if (lines % INDEX_INTERVAL == 0) {
+				int checkpoint = lines / INDEX_INTERVAL;
+				if (checkpoint == checkpoints.length)
+					checkpoints = Arrays.copyOf(checkpoints, checkpoint * 2);
+				checkpoints[checkpoint] = length;
+			}
+			lines++;
+			length += lineLength;
+		}
+
+		/**
+		 * @param end - End of the last complete line to index, nothing before it changes while it is scanned.
+		 * @return the index of the log, or null if it couldn't be read.
+		 */
+		private static LogIndex scan(File file, long end) {
+			LogIndex index = new LogIndex();
+			if (end == 0)
+				return index;
+
+			try (InputStream in = Files.newInputStream(file.toPath())) {
+				byte[] buffer = new byte[8192];
+				long position = 0;
+				int read;
+				while (position < end && (read = in.read(buffer, 0, (int) Math.min(buffer.length, end - position))) > 0) {
+					for (int i = 0; i < read; i++)
+						if (buffer[i] == '\n')
+							index.addLine((int) (position + i + 1 - index.length));
+					position += read;
+				}
+			} catch (IOException e) {
+				TownyMessaging.sendErrorMsg("Could not read bank history " + file.getName() + ": " + e.getMessage());
+				return null;
+			}
+			return index;
+		}
+	}
+
+	private static String serialize(BankTransaction transaction) {
+		return transaction.getTimestamp() + "\t" + transaction.getType().name() + "\t" + transaction.getAmount() + "\t" + transaction.getBalance()
+			+ "\t" + clean(transaction.getAccount().getName()) + "\t" + clean(transaction.getReason());
+	}
+
+	private static String clean(String text) {
+		return text == null ? "" : text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+	}
+
+	private static String format(BankTransaction transaction) {
+		return format(transaction.getTime(), transaction.getType(), transaction.getAmount(), transaction.getAccount().getName(), transaction.getReason(), transaction.getBalance());
+	}
+
+	private static String format(String logLine) {
+		String[] fields = logLine.split("\t", 6);
+		try {
+			return format(BankTransaction.formatTime(Long.parseLong(fields[0])), TransactionType.valueOf(fields[1]), Double.parseDouble(fields[2]),
+				fields[4], fields[5], Double.parseDouble(fields[3]));
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			return "Unreadable transaction";
+		}
+	}
+
+	private static String format(String time, TransactionType type, double amount, String accountName, String reason, double balance) {
+		String line = time + "\n\n";
+		line += type.getName() + " of " + ChatColor.stripColor(TownyEconomyHandler.getFormattedBalance(amount));
+		line += (type == TransactionType.DEPOSIT ? " to " : " from ") + accountName + "\n\n";
+		line += "Reason: " + reason + "\n\n";
+		line += "Balance: " + ChatColor.stripColor(TownyEconomyHandler.getFormattedBalance(balance));
+		return line;
+	}
 }
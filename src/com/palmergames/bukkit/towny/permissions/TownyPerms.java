@@ -21,6 +21,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.File;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -29,6 +30,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author ElgarL
@@ -40,6 +42,32 @@ public class TownyPerms {
 	protected static HashMap<String, PermissionAttachment> attachments = new HashMap<>();
 	private static CommentedConfiguration perms;
 	private static Towny plugin;
+
+	/*
+	 * Resolved permissions, keyed on the roles which decide a resident's
+	 * permissions (see getRoleKey), so every resident with the same ranks
+	 * shares one map whatever their town or nation. The nodes naming a town or
+	 * nation are added for each resident. Cleared whenever townyperms.yml is
+	 * (re)loaded.
+	 */
+	private static final Map<String, RolePerms> residentPermsCache = new ConcurrentHashMap<>();
+	// Only ranks which no longer exist leave unused keys behind, start again if too many pile up.
+	private static final int RESIDENT_PERMS_CACHE_LIMIT = 4096;
+	
+	/**
+	 * The permissions shared by every resident with the same roles.
+	 */
+	private static final class RolePerms {
+		// Nodes which are the same for everyone with these roles.
+		final Map<String, Boolean> nodes;
+		// Nodes naming the resident's town or nation, with {townname} or {nationname} left in.
+		final List<String> placeholderNodes;
+		
+		RolePerms(Map<String, Boolean> nodes, List<String> placeholderNodes) {
+			this.nodes = nodes;
+			this.placeholderNodes = placeholderNodes;
+		}
+	}
 	
 	public static void initialize(Towny plugin) {
 		TownyPerms.plugin = plugin;
@@ -82,6 +110,7 @@ public class TownyPerms {
 		 */
 		collectPermissions();
 		
+		residentPermsCache.clear();
 	}
 	
 	/**
@@ -156,7 +185,7 @@ public class TownyPerms {
 					/*
 					 * Fill with the fresh perm nodes
 					 */
-					orig.putAll(TownyPerms.getResidentPerms(resident));
+					orig.putAll(TownyPerms.getResolvedResidentPerms(resident));
 
 					// System.out.print("Perms set for: " + resident.getName());
 				}
@@ -246,16 +275,88 @@ public class TownyPerms {
 	 * @return a sorted Map of permission nodes
 	 */
 	public static LinkedHashMap<String, Boolean> getResidentPerms(Resident resident) {
+		
+		return new LinkedHashMap<>(getResolvedResidentPerms(resident));
+	}
+	
+	/**
+	 * Returns a sorted, unmodifiable map of this residents current permissions.
+	 * Residents without nodes naming their town or nation share the map with
+	 * everyone holding the same ranks.
+	 * 
+	 * @param resident - Resident to check
+	 * @return a sorted Map of permission nodes
+	 */
+	public static Map<String, Boolean> getResolvedResidentPerms(Resident resident) {
+		
+		String key = getRoleKey(resident);
+		RolePerms role = residentPermsCache.get(key);
+		if (role == null) {
+			if (residentPermsCache.size() >= RESIDENT_PERMS_CACHE_LIMIT)
+				residentPermsCache.clear();
+			
+			role = buildRolePerms(resident);
+			residentPermsCache.put(key, role);
+		}
+		
+		if (role.placeholderNodes.isEmpty())
+			return role.nodes;
+		
+		LinkedHashMap<String, Boolean> resolved = new LinkedHashMap<>(role.nodes);
+		for (String permission : role.placeholderNodes) {
+			if (permission.contains("{townname}")) {
+				Town town = resident.getTownOrNull();
+				if (town != null)
+					resolved.put(permission.replace("{townname}", town.getName().toLowerCase()), true);
+			} else {
+				Nation nation = resident.hasNation() ? resident.getTownOrNull().getNationOrNull() : null;
+				if (nation != null)
+					resolved.put(permission.replace("{nationname}", nation.getName().toLowerCase()), true);
+			}
+		}
+		return Collections.unmodifiableMap(resolved);
+	}
+	
+	/**
+	 * Everything {@link #buildRolePerms(Resident)} looks at, rank lists are
+	 * sorted as the order they were given in doesn't matter.
+	 * 
+	 * @param resident - Resident to check
+	 * @return the key the residents permissions are cached under
+	 */
+	private static String getRoleKey(Resident resident) {
+		
+		if (!resident.hasTown())
+			return "nomad";
+		
+		StringBuilder key = new StringBuilder("town|");
+		key.append(resident.isMayor() ? 'M' : '-');
+		appendSorted(key, resident.getTownRanks());
+		
+		if (resident.hasNation()) {
+			key.append("nation|");
+			key.append(resident.isKing() ? 'K' : '-');
+			appendSorted(key, resident.getNationRanks());
+		}
+		return key.toString();
+	}
+	
+	private static void appendSorted(StringBuilder key, List<String> ranks) {
+		
+		List<String> sorted = new ArrayList<>(ranks);
+		Collections.sort(sorted);
+		for (String rank : sorted)
+			key.append('|').append(rank);
+		key.append('|');
+	}
+	
+	private static RolePerms buildRolePerms(Resident resident) {
 		// Start by adding the default perms everyone gets
 		Set<String> permList = new HashSet<>(getDefault());
 		
 		//Check for town membership
 		if (resident.hasTown()) {
-			try {
-				permList.addAll(getTownDefault(resident.getTown()));
-			} catch (NotRegisteredException e) {
-				// Not Possible!
-			}
+			permList.addAll(getTownDefault());
 			// Is Mayor?
 			if (resident.isMayor()) permList.addAll(getTownMayor());
 				
@@ -279,29 +380,19 @@ public class TownyPerms {
 		
 		List<String> playerPermArray = sort(new ArrayList<String>(permList));
 		LinkedHashMap<String, Boolean> newPerms = new LinkedHashMap<String, Boolean>();
+		List<String> placeholderPerms = new ArrayList<>();
 
 		Boolean value = false;
 		for (String permission : playerPermArray) {			
-			if (permission.contains("{townname}")) {
-				if (resident.hasTown())
-					try {
-						String placeholderPerm = permission.replace("{townname}", resident.getTown().getName().toLowerCase());
-						newPerms.put(placeholderPerm, true);
-					} catch (NotRegisteredException e) {
-					}
-			} else if (permission.contains("{nationname}")) {
-				if (resident.hasNation())
-					try {
-						String placeholderPerm = permission.replace("{nationname}", resident.getTown().getNation().getName().toLowerCase());
-						newPerms.put(placeholderPerm, true);
-					} catch (NotRegisteredException e) {
-					}
+			if (permission.contains("{townname}") || permission.contains("{nationname}")) {
+				// Filled in for each resident.
+				placeholderPerms.add(permission);
 			} else {
 				value = (!permission.startsWith("-"));
 				newPerms.put((value ? permission : permission.substring(1)), value);
 			}
 		}
-		return newPerms;
+		return new RolePerms(Collections.unmodifiableMap(newPerms), placeholderPerms);
 		
 	}
 	
@@ -370,6 +461,21 @@ public class TownyPerms {
 		return new ArrayList<String>(((MemorySection) perms.get("towns.ranks")).getKeys(false));
 	}
 
+	/**
+	 * Default permissions everyone in a town gets, naming the town with a
+	 * {townname} placeholder so the list is the same for every town.
+	 * 
+	 * @return a list of permissions
+	 */
+	private static List<String> getTownDefault() {
+
+		List<String> permsList = getList("towns.default");
+		if (permsList == null)
+			permsList = new ArrayList<String>();
+		permsList.add("towny.town.{townname}");
+		return permsList;
+	}
+
 	/**
 	 * Default permissions everyone in a town gets
 	 * 
@@ -499,6 +605,7 @@ public class TownyPerms {
 	public static void collectPermissions() {
 
 		registeredPermissions.clear();
+		residentPermsCache.clear();
 
 		for (Permission perm : BukkitTools.getPluginManager().getPermissions()) {
 			registeredPermissions.put(perm.getName().toLowerCase(), perm);
@@ -0,0 +1,167 @@
+package com.palmergames.bukkit.towny.regen;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact storage for the blocks of a plot snapshot.
+ *
+ * Every distinct block string is stored once in the palette, the blocks
+ * themselves are kept as indexes into the palette. Indexes are packed into
+ * a char (unsigned 16 bit) array unless the palette grows beyond 65536
+ * entries, in which case an int array is used.
+ */
+public class BlockPalette {
+
+	private static final int MAX_SMALL_PALETTE = 1 << 16;
+
+	private final List<String> palette;
+	private final char[] smallIndexes;
+	private final int[] largeIndexes;
+	private final int size;
+
+	private BlockPalette(List<String> palette, int[] indexes, int size) {
+		this.palette = Collections.unmodifiableList(palette);
+		this.size = size;
+		if (palette.size() <= MAX_SMALL_PALETTE) {
+			this.smallIndexes = new char[size];
+			for (int i = 0; i < size; i++)
+				this.smallIndexes[i] = (char) indexes[i];
+			this.largeIndexes = null;
+		} else {
+			this.smallIndexes = null;
+			this.largeIndexes = indexes.length == size ? indexes : Arrays.copyOf(indexes, size);
+		}
+	}
+
+	/**
+	 * @return an empty palette.
+	 */
+	public static BlockPalette empty() {
+		return new BlockPalette(new ArrayList<>(), new int[0], 0);
+	}
+
+	/**
+	 * Build a palette from a plain list of block strings, as stored by snapshot versions 1 to 4.
+	 *
+	 * @param blocks list of block strings.
+	 * @return BlockPalette holding the same blocks.
+	 */
+	public static BlockPalette fromList(List<String> blocks) {
+		Builder builder = new Builder(blocks.size());
+		for (String block : blocks)
+			builder.add(block);
+		return builder.build();
+	}
+
+	/**
+	 * @return number of blocks stored.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param index position of the block.
+	 * @return the block string stored at the given position.
+	 */
+	public String get(int index) {
+		return palette.get(getPaletteIndex(index));
+	}
+
+	/**
+	 * @param index position of the block.
+	 * @return the palette index of the block stored at the given position.
+	 */
+	public int getPaletteIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		return smallIndexes != null ? smallIndexes[index] : largeIndexes[index];
+	}
+
+	/**
+	 * @return the distinct block strings, in palette order.
+	 */
+	public List<String> getPalette() {
+		return palette;
+	}
+
+	/**
+	 * @return every block as a string, only used for compatibility with the old list based API.
+	 */
+	public List<String> toList() {
+		List<String> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			list.add(get(i));
+		return list;
+	}
+
+	/**
+	 * Collects block strings, de-duplicating them into a palette as they are added.
+	 */
+	public static class Builder {
+
+		private final List<String> palette = new ArrayList<>();
+		private final Map<String, Integer> lookup = new HashMap<>();
+		private int[] indexes;
+		private int size = 0;
+
+		public Builder(int expectedSize) {
+			this.indexes = new int[Math.max(expectedSize, 16)];
+		}
+
+		/**
+		 * Add a block by its string representation.
+		 *
+		 * @param block block string.
+		 * @return this builder.
+		 */
+		public Builder add(String block) {
+			Integer index = lookup.get(block);
+			if (index == null) {
+				index = addPalette(block);
+			}
+			return addIndex(index);
+		}
+
+		/**
+		 * Add a palette entry without adding a block, used when reading stored palettes.
+		 *
+		 * @param block block string.
+		 * @return the palette index of the entry.
+		 */
+		public int addPalette(String block) {
+			int index = palette.size();
+			palette.add(block);
+			lookup.putIfAbsent(block, index);
+			return index;
+		}
+
+		/**
+		 * Add a block by the index of an entry already in the palette.
+		 *
+		 * @param paletteIndex palette index of the block.
+		 * @return this builder.
+		 */
+		public Builder addIndex(int paletteIndex) {
+			if (paletteIndex < 0 || paletteIndex >= palette.size())
+				throw new IllegalArgumentException("Palette index " + paletteIndex + " is out of bounds for a palette of " + palette.size() + " entries.");
+			if (size == indexes.length)
+				indexes = Arrays.copyOf(indexes, size * 2);
+			indexes[size++] = paletteIndex;
+			return this;
+		}
+
+		public BlockPalette build() {
+			return new BlockPalette(palette, indexes, size);
+		}
+	}
+}
@@ -4,24 +4,26 @@ import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.object.TownBlock;
 import com.palmergames.bukkit.towny.regen.block.BlockObject;
-import com.palmergames.bukkit.util.BukkitTools;
 
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import java.util.ArrayList;
 import java.util.List;
 
 public class PlotBlockData {
 
-	private int defaultVersion = 4;
+	private int defaultVersion = 5;
 
 	private String worldName;
 	private TownBlock townBlock;
 	private int x, z, size, height, version;
 
-	private List<String> blockList = new ArrayList<>(); // Stores the original plot blocks
+	private BlockPalette blocks = BlockPalette.empty(); // Stores the original plot blocks
+	private BlockObject[] parsedPalette; // BlockData parsed from the palette, filled as blocks are restored.
 	private int blockListRestored; // counter for the next block to test
+	private long regenStartTime; // when restoreBlocks was first called, for the ETA.
+	private int regenStartRestored; // blockListRestored at regenStartTime.
 
 	public PlotBlockData(TownBlock townBlock) {
 
@@ -35,50 +37,84 @@ public class PlotBlockData {
 		this.blockListRestored = 0;
 	}
 
+	/**
+	 * Takes the snapshot on the calling thread, must be the main thread.
+	 */
 	public void initialize() {
 
-		List<String> blocks = getBlockArr();
+		initialize(captureChunkSnapshots());
+	}
+
+	/**
+	 * Fills the snapshot from ChunkSnapshots made by {@link #captureChunkSnapshots()}.
+	 * Only reads the ChunkSnapshots, so it is safe to call asynchronously.
+	 * 
+	 * @param chunks - ChunkSnapshots covering this plot.
+	 */
+	public void initialize(ChunkSnapshot[] chunks) {
+
+		BlockPalette blocks = getBlockArr(chunks);
 		if (blocks != null) {
-			setBlockList(blocks); //fill array
+			setBlocks(blocks); //fill array
 			resetBlockListRestored();
 		}
 	}
 
 	/**
-	 * Fills an array with the current Block types from the plot.
+	 * Captures a ChunkSnapshot of every chunk this plot overlaps, loading them if needed.
+	 * Must be called from the main thread.
 	 * 
-	 * @return
+	 * @return ChunkSnapshots ordered by chunk z, then chunk x.
 	 */
-	private List<String> getBlockArr() {
-
-		List<String> list = new ArrayList<>();
-		Block block = null;
+	public ChunkSnapshot[] captureChunkSnapshots() {
 
 		World world = this.townBlock.getWorldCoord().getBukkitWorld();
-		/*
-		 * if (!world.isChunkLoaded(MinecraftTools.calcChunk(getX()),
-		 * MinecraftTools.calcChunk(getZ()))) {
-		 * return null;
-		 * }
-		 */
+		int minChunkX = (getX() * size) >> 4, maxChunkX = (getX() * size + size - 1) >> 4;
+		int minChunkZ = (getZ() * size) >> 4, maxChunkZ = (getZ() * size + size - 1) >> 4;
+		int width = maxChunkX - minChunkX + 1;
+
+		ChunkSnapshot[] chunks = new ChunkSnapshot[width * (maxChunkZ - minChunkZ + 1)];
+		for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+			for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+				chunks[(chunkZ - minChunkZ) * width + (chunkX - minChunkX)] = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+
+		return chunks;
+	}
+
+	/**
+	 * Fills an array with the Block types from the plot.
+	 * 
+	 * @param chunks - ChunkSnapshots covering the plot.
+	 * @return BlockPalette of the plot blocks.
+	 */
+	private BlockPalette getBlockArr(ChunkSnapshot[] chunks) {
+
+		BlockPalette.Builder list = new BlockPalette.Builder(size * size * height);
+		int worldX = getX() * size, worldZ = getZ() * size;
+		int minChunkX = worldX >> 4, minChunkZ = worldZ >> 4;
+		int width = ((worldX + size - 1) >> 4) - minChunkX + 1;
+
 		for (int z = 0; z < size; z++)
-			for (int x = 0; x < size; x++)
+			for (int x = 0; x < size; x++) {
+				int blockX = worldX + x, blockZ = worldZ + z;
+				ChunkSnapshot chunk = chunks[((blockZ >> 4) - minChunkZ) * width + ((blockX >> 4) - minChunkX)];
 				for (int y = height; y > 0; y--) { // Top down to account for falling blocks.
-					block = world.getBlockAt((getX() * size) + x, y, (getZ() * size) + z);
 					switch (defaultVersion) {
 
 					case 1:
 					case 2:
 					case 3:
 					case 4:
-						list.add(block.getBlockData().getAsString(true));
+					case 5:
+						list.add(chunk.getBlockData(blockX & 15, y, blockZ & 15).getAsString(true));
 						break;
 					default:
-						list.add(block.getType().getKey().toString());
+						list.add(chunk.getBlockType(blockX & 15, y, blockZ & 15).getKey().toString());
 
 					}					
 				}
-		return list;
+			}
+		return list.build();
 	}
 
 	/**
@@ -88,105 +124,190 @@ public class PlotBlockData {
 	 */
 	public boolean restoreNextBlock() {
 
-		Block block = null;
-		int x, y, z, reverse, scale;
-		int worldx = getX() * size, worldz = getZ() * size;
-		Material blockMat, mat;
-		BlockObject storedData;
 		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		if (!isChunkLoaded(world))
+			return true;
 
-		if (!world.isChunkLoaded(BukkitTools.calcChunk(getX()), BukkitTools.calcChunk(getZ())))
+		while (hasBlocksRemaining()) {
+			if (restoreBlock(world))
+				return true;
+		}
+		// reset as we are finished with the regeneration
+		resetBlockListRestored();
+		return false;
+	}
+
+	/**
+	 * Reverts part of the area to the stored image, carrying on from where
+	 * the previous call stopped.
+	 * 
+	 * @param maxBlocks - the most blocks to check in this call.
+	 * @param deadline - {@link System#nanoTime()} after which no more blocks are checked.
+	 * @return true if there are more blocks to check.
+	 */
+	public boolean restoreBlocks(int maxBlocks, long deadline) {
+
+		World world = this.townBlock.getWorldCoord().getBukkitWorld();
+		if (!isChunkLoaded(world))
 			return true;
 
+		if (regenStartTime == 0) {
+			regenStartTime = System.currentTimeMillis();
+			regenStartRestored = blockListRestored;
+		}
+
+		for (int checked = 0; checked < maxBlocks && hasBlocksRemaining(); checked++) {
+			restoreBlock(world);
+			// nanoTime is cheap, but not free, next to a block which doesn't need changing.
+			if ((checked & 15) == 15 && System.nanoTime() - deadline >= 0)
+				return true;
+		}
 
-		//Scale for the number of elements
-		switch (version) {
+		if (hasBlocksRemaining())
+			return true;
 
+		// reset as we are finished with the regeneration
+		resetBlockListRestored();
+		return false;
+	}
+
+	/**
+	 * Checks the next block against the stored image and reverts it if it differs.
+	 * 
+	 * @param world - World the plot is in.
+	 * @return true if the block was changed.
+	 */
+	private boolean restoreBlock(World world) {
+
+		int scale = getScale();
+		//regen bottom up to stand a better chance of restoring tree's and plants.
+		int reverse = (blocks.size() - blockListRestored) / scale - 1;
+		int y = height - (reverse % height);
+		int x = (reverse / height) % size;
+		int z = (reverse / height / size) % size;
+		int index = (blocks.size() - 1) - blockListRestored;
+
+		// Move on whatever happens, a block which can't be restored must not stall the plot.
+		blockListRestored += scale;
+
+		BlockObject storedData;
+		try {
+			storedData = getStoredBlockData(index);
+		} catch (IllegalArgumentException e1) {
+			TownyMessaging.sendDebugMsg("Towny's revert-on-unclaim feature encountered a block which will not load on the current version of MC. Ignoring and skipping to next block.");
+			return false;
+		}
+
+		Material mat = storedData.getMaterial();
+		if (mat == null) {
+			TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - Material Null, skipping block.");
+			return false;
+		}
+
+		Block block = world.getBlockAt(getX() * size + x, y, getZ() * size + z);
+		if (block.getType() == mat)
+			return false;
+
+		if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat)) {
+			try {
+				block.setType(mat, false);
+				block.setBlockData(storedData.getBlockData());
+			} catch (Exception e) {
+				TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
+				return false;
+			}
+		} else {
+			block.setType(Material.AIR);
+		}
+		return true;
+	}
+
+	/**
+	 * @return number of stored elements making up each block.
+	 */
+	private int getScale() {
+
+		switch (version) {
 			case 1:
 			case 2:
 			case 3:
-				scale = 2;
-				break;	
-			case 4:
-				scale = 1;
-				break;	
+				return 2;
 			default:
-				scale = 1;
+				return 1;
 		}
+	}
 
-		reverse = (blockList.size() - blockListRestored) / scale;
-		
-		while (reverse > 0) {
-			reverse--; //regen bottom up to stand a better chance of restoring tree's and plants.
-			y = height - (reverse % height);
-			x = (reverse / height) % size;
-			z = (reverse / height / size) % size;
-	
-			block = world.getBlockAt(worldx + x, y, worldz + z);
-			blockMat = block.getType();
-			try {
-				storedData = getStoredBlockData((blockList.size() - 1) - blockListRestored);
-			} catch (IllegalArgumentException e1) {
-				TownyMessaging.sendDebugMsg("Towny's revert-on-unclaim feature encountered a block which will not load on the current version of MC. Ignoring and skipping to next block.");
-				continue;
-			}
-			
-			switch (version) {
-		
-				case 1:
-				case 2:				
-				case 3:
-				case 4:
-					blockListRestored += scale;
-					
-					mat = storedData.getMaterial();
-					if (mat == null) {
-						TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - Material Null, skipping block.");
-					} else if (blockMat != mat) {
-						if (!this.townBlock.getWorld().isPlotManagementIgnoreIds(mat)) {
-							try {								
-								block.setType(mat, false);
-								block.setBlockData(storedData.getBlockData());
-								return true;
-							} catch (Exception e) {
-								TownyMessaging.sendErrorMsg("Exception in PlotBlockData.java");
-								break;
-							}
-			
-						} else {					
-							block.setType(Material.AIR);
-							return true;
-						}
-			
-					}
-					//TownyMessaging.sendDebugMsg("PlotBlockData:restoreNextBlock() - Blocks match, no replacing needed.");
-					break;
-					
-				default:
-					TownyMessaging.sendErrorMsg("PlotBlockData:restoreNextBlock() - You should not be seeing this message.");					
-					
-			}
-			
-		}
-		// reset as we are finished with the regeneration
-		resetBlockListRestored();
-		return false;
+	private boolean hasBlocksRemaining() {
+
+		return blocks.size() - blockListRestored >= getScale();
+	}
+
+	/**
+	 * @return true if every chunk the plot covers is loaded.
+	 */
+	public boolean isChunkLoaded() {
+
+		return isChunkLoaded(this.townBlock.getWorldCoord().getBukkitWorld());
+	}
+
+	private boolean isChunkLoaded(World world) {
+
+		if (world == null)
+			return false;
+
+		int worldX = getX() * size, worldZ = getZ() * size;
+		for (int chunkX = worldX >> 4; chunkX <= (worldX + size - 1) >> 4; chunkX++)
+			for (int chunkZ = worldZ >> 4; chunkZ <= (worldZ + size - 1) >> 4; chunkZ++)
+				if (!world.isChunkLoaded(chunkX, chunkZ))
+					return false;
+		return true;
+	}
+
+	/**
+	 * @return how much of the plot has been checked, between 0 and 1.
+	 */
+	public double getProgress() {
+
+		return blocks.isEmpty() ? 1 : (double) blockListRestored / blocks.size();
+	}
+
+	/**
+	 * @return number of blocks left to check.
+	 */
+	public int getBlocksRemaining() {
+
+		return (blocks.size() - blockListRestored) / getScale();
+	}
+
+	/**
+	 * Estimates how long until the plot is restored, based on how fast it has
+	 * been restored since {@link #restoreBlocks(int, long)} was first called.
+	 * 
+	 * @return estimated milliseconds remaining, or -1 if there is no estimate yet.
+	 */
+	public long getEstimatedTimeRemaining() {
+
+		int restored = blockListRestored - regenStartRestored;
+		if (regenStartTime == 0 || restored <= 0)
+			return -1;
+
+		long elapsed = System.currentTimeMillis() - regenStartTime;
+		return (long) (elapsed * ((double) (blocks.size() - blockListRestored) / restored));
 	}
 
 	private BlockObject getStoredBlockData(int index) {
 
-		//return based upon version
-		switch (version) {
+		// Each distinct block is only parsed once, however many times it appears in the plot.
+		int paletteIndex = blocks.getPaletteIndex(index);
+		if (parsedPalette == null)
+			parsedPalette = new BlockObject[blocks.getPalette().size()];
 
-		case 1:
-		case 2:
-		case 3:
-		case 4:
-			return new BlockObject(blockList.get(index));
-		default:
-			return new BlockObject(blockList.get(index));
+		BlockObject blockObject = parsedPalette[paletteIndex];
+		if (blockObject == null) {
+			blockObject = new BlockObject(blocks.getPalette().get(paletteIndex));
+			parsedPalette[paletteIndex] = blockObject;
 		}
-
+		return blockObject;
 	}
 
 	public int getX() {
@@ -252,20 +373,51 @@ public class PlotBlockData {
 
 	/**
 	 * @return the blockList
+	 * @deprecated as of 0.97.0.5, the blocks are held in a {@link BlockPalette}, use {@link #getBlocks()} instead.
 	 */
+	@Deprecated
 	public List<String> getBlockList() {
 
-		return blockList;
+		return blocks.toList();
 	}
 
 	/**
 	 * fills the BlockList
 	 * 
 	 * @param blockList - BlockList (List&lt;String&gt;)
+	 * @deprecated as of 0.97.0.5, the blocks are held in a {@link BlockPalette}, use {@link #setBlocks(BlockPalette)} instead.
 	 */
+	@Deprecated
 	public void setBlockList(List<String> blockList) {
 
-		this.blockList = blockList;
+		setBlocks(BlockPalette.fromList(blockList));
+	}
+
+	/**
+	 * @return the BlockPalette holding the original plot blocks.
+	 */
+	public BlockPalette getBlocks() {
+
+		return blocks;
+	}
+
+	/**
+	 * fills the plot blocks.
+	 * 
+	 * @param blocks - BlockPalette of the original plot blocks.
+	 */
+	public void setBlocks(BlockPalette blocks) {
+
+		this.blocks = blocks;
+		this.parsedPalette = null;
+	}
+
+	/**
+	 * @return true if no blocks are stored.
+	 */
+	public boolean isEmpty() {
+
+		return blocks.isEmpty();
 	}
 
 	/**
@@ -275,6 +427,8 @@ public class PlotBlockData {
 	public void resetBlockListRestored() {
 
 		blockListRestored = 0;
+		regenStartTime = 0;
+		regenStartRestored = 0;
 	}
 
 }
\ No newline at end of file
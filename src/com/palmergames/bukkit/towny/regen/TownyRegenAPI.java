@@ -1,6 +1,7 @@
 package com.palmergames.bukkit.towny.regen;
 
 import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.actions.TownyExplodingBlocksEvent;
@@ -10,6 +11,9 @@ import com.palmergames.bukkit.towny.object.WorldCoord;
 import com.palmergames.bukkit.towny.regen.block.BlockLocation;
 import com.palmergames.bukkit.towny.tasks.ProtectionRegenTask;
 import com.palmergames.bukkit.util.BukkitTools;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
@@ -18,10 +22,17 @@ import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author ElgarL
@@ -31,6 +42,9 @@ public class TownyRegenAPI {
 
 	// table containing snapshot data of active reversions.
 	private static Hashtable<String, PlotBlockData> PlotChunks = new Hashtable<>();
+	
+	// The PlotChunks in the order they take turns being regenerated.
+	private static final Deque<PlotBlockData> regenQueue = new ConcurrentLinkedDeque<>();
 
 	// List of all old plots still to be processed for Block removal
 	private static List<WorldCoord> deleteTownBlockIdQueue = new ArrayList<>();
@@ -38,6 +52,16 @@ public class TownyRegenAPI {
 	// A list of worldCoords which are needing snapshots
 	private static List<WorldCoord> worldCoords = new ArrayList<>();
 	
+	// WorldCoords whose snapshots are being filled by the snapshot workers.
+	private static final Set<WorldCoord> snapshotsInProgress = ConcurrentHashMap.newKeySet();
+	
+	// The most snapshots which may be waiting on the snapshot workers at once.
+	private static final int MAX_SNAPSHOTS_IN_PROGRESS = 8;
+	
+	private static ExecutorService snapshotExecutor;
+	
+	private static final Logger LOGGER = LogManager.getLogger(Towny.class);
+	
 	// A holder for each protection regen task
 	private static  Hashtable<BlockLocation, ProtectionRegenTask> protectionRegenTasks = new Hashtable<>();
 	
@@ -107,7 +131,7 @@ public class TownyRegenAPI {
 	 */
 	public static boolean hasWorldCoord(WorldCoord worldCoord) {
 
-		return worldCoords.contains(worldCoord);
+		return worldCoords.contains(worldCoord) || snapshotsInProgress.contains(worldCoord);
 	}
 
 	/**
@@ -123,6 +147,96 @@ public class TownyRegenAPI {
 		return null;
 	}
 
+	/**
+	 * @return true if another snapshot can be handed to the snapshot workers.
+	 */
+	public static boolean hasSnapshotCapacity() {
+
+		return snapshotsInProgress.size() < MAX_SNAPSHOTS_IN_PROGRESS;
+	}
+
+	/**
+	 * @return true if any snapshots are queued or being taken.
+	 */
+	public static boolean hasSnapshotsInProgress() {
+
+		return !snapshotsInProgress.isEmpty();
+	}
+
+	/**
+	 * Takes a snapshot of a TownBlock for revert-on-unclaim.
+	 * 
+	 * The chunks are captured on the main thread, reading the blocks out of them
+	 * and saving the result is done by the snapshot workers. Once finished the
+	 * TownBlock is unlocked back on the main thread.
+	 * 
+	 * @param townBlock - TownBlock to snapshot.
+	 */
+	public static void takePlotSnapshot(TownBlock townBlock) {
+
+		WorldCoord worldCoord = townBlock.getWorldCoord();
+		PlotBlockData plotChunk = new PlotBlockData(townBlock);
+		ChunkSnapshot[] chunks = plotChunk.captureChunkSnapshots();
+		snapshotsInProgress.add(worldCoord);
+
+		CompletableFuture.runAsync(() -> {
+			plotChunk.initialize(chunks); // Create a new snapshot.
+			if (!plotChunk.isEmpty())
+				addPlotChunkSnapshot(plotChunk); // Save the snapshot.
+		}, getSnapshotExecutor()).whenComplete((ignored, throwable) -> {
+			if (throwable != null)
+				TownyMessaging.sendErrorMsg("Unable to take plot snapshot for " + worldCoord + ": " + throwable.getMessage());
+
+			Towny plugin = Towny.getPlugin();
+			if (plugin.isEnabled() && !snapshotExecutor.isShutdown())
+				BukkitTools.getScheduler().runTask(plugin, () -> finishPlotSnapshot(plugin, worldCoord));
+		});
+	}
+
+	private static void finishPlotSnapshot(Towny plugin, WorldCoord worldCoord) {
+
+		if (!snapshotsInProgress.remove(worldCoord))
+			return;
+
+		// The TownBlock may have been unclaimed while the snapshot was taken.
+		TownBlock townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldCoord);
+		if (townBlock != null) {
+			townBlock.setLocked(false);
+			townBlock.save();
+			plugin.updateCache(worldCoord);
+		}
+
+		if (!hasWorldCoords() && !hasSnapshotsInProgress())
+			LOGGER.info("Plot snapshots completed.");
+	}
+
+	private static ExecutorService getSnapshotExecutor() {
+
+		if (snapshotExecutor == null || snapshotExecutor.isShutdown()) {
+			AtomicInteger threadCount = new AtomicInteger();
+			snapshotExecutor = Executors.newFixedThreadPool(2, runnable -> {
+				Thread thread = new Thread(runnable, "Towny-PlotSnapshot-" + threadCount.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return snapshotExecutor;
+	}
+
+	/**
+	 * Stops the snapshot workers, returning any unfinished snapshots to the
+	 * snapshot queue so they are saved with it and taken after a restart.
+	 */
+	public static void cancelPlotSnapshots() {
+
+		if (snapshotExecutor != null)
+			snapshotExecutor.shutdownNow();
+
+		for (WorldCoord worldCoord : snapshotsInProgress)
+			addWorldCoord(worldCoord);
+		snapshotsInProgress.clear();
+	}
+
 	/**
 	 * @return the plotChunks which are being processed
 	 */
@@ -145,6 +259,28 @@ public class TownyRegenAPI {
 	public static void setPlotChunks(Hashtable<String, PlotBlockData> plotChunks) {
 
 		PlotChunks = plotChunks;
+		regenQueue.clear();
+		regenQueue.addAll(plotChunks.values());
+	}
+
+	/**
+	 * Gets the PlotChunk whose turn it is to be regenerated, moving it to the
+	 * back of the queue. Used by the PlotRegenTimerTask instead of copying
+	 * the PlotChunks every tick.
+	 * 
+	 * @return the next PlotChunk to regenerate, or null if there are none.
+	 */
+	public static PlotBlockData getNextPlotChunk() {
+
+		PlotBlockData plotChunk;
+		while ((plotChunk = regenQueue.pollFirst()) != null) {
+			// Skip anything removed from the PlotChunks without going through deletePlotChunk.
+			if (PlotChunks.get(getPlotKey(plotChunk)) == plotChunk) {
+				regenQueue.offerLast(plotChunk);
+				return plotChunk;
+			}
+		}
+		return null;
 	}
 	
 	/**
@@ -174,8 +310,9 @@ public class TownyRegenAPI {
 	 */
 	public static void deletePlotChunk(PlotBlockData plotChunk) {
 
-		if (PlotChunks.containsKey(getPlotKey(plotChunk))) {
-			PlotChunks.remove(getPlotKey(plotChunk));
+		PlotBlockData removed = PlotChunks.remove(getPlotKey(plotChunk));
+		if (removed != null) {
+			regenQueue.remove(removed);
 			TownyUniverse.getInstance().getDataSource().saveRegenList();
 		}
 	}
@@ -191,6 +328,7 @@ public class TownyRegenAPI {
 		if (!PlotChunks.containsKey(getPlotKey(plotChunk))) {
 			//plotChunk.initialize();
 			PlotChunks.put(getPlotKey(plotChunk), plotChunk);
+			regenQueue.offerLast(plotChunk);
 			if (save)
 				TownyUniverse.getInstance().getDataSource().saveRegenList();
 		}
@@ -9,6 +9,7 @@ import com.palmergames.bukkit.towny.event.PreNewDayEvent;
 import com.palmergames.bukkit.towny.event.time.dailytaxes.PreTownPaysNationTaxEvent;
 import com.palmergames.bukkit.towny.event.town.TownUnconquerEvent;
 import com.palmergames.bukkit.towny.exceptions.TownyException;
+import com.palmergames.bukkit.towny.object.Government;
 import com.palmergames.bukkit.towny.object.Nation;
 import com.palmergames.bukkit.towny.object.Resident;
 import com.palmergames.bukkit.towny.object.Town;
@@ -17,87 +18,172 @@ import com.palmergames.bukkit.towny.object.TownyWorld;
 import com.palmergames.bukkit.towny.object.Translation;
 import com.palmergames.bukkit.towny.permissions.TownyPerms;
 import com.palmergames.bukkit.towny.utils.MoneyUtil;
+import com.palmergames.bukkit.util.BukkitTools;
 import com.palmergames.bukkit.util.ChatTools;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
 
 public class DailyTimerTask extends TownyTimerTask {
 	
+	/*
+	 * Only one new day runs at a time, a new day spread over several ticks
+	 * must not overlap with the next one.
+	 */
+	private static final AtomicBoolean running = new AtomicBoolean(false);
+	// How long a new day run on the main thread may work for each tick.
+	private static final long SHARD_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+	/*
+	 * A town or nation's taxes charge many payers, each payer is journaled
+	 * under these names so an interrupted town or nation isn't charged twice.
+	 */
+	private static final String RESIDENT_TAX = "resident_tax";
+	private static final String PLOT_TAX = "plot_tax";
+	private static final String NATION_TAX = "town_nation_tax";
+
 	private double totalTownUpkeep = 0.0;
 	private double totalNationUpkeep = 0.0;
 	private final List<String> bankruptedTowns = new ArrayList<>();
 	private final List<String> removedTowns = new ArrayList<>();
 	private final List<String> removedNations = new ArrayList<>();
 
+	private long start;
+	private final boolean resume;
+	private NewDayJournal journal;
+	private final List<Phase<?>> phases = new ArrayList<>();
+	private int phaseIndex;
+	private BukkitTask shardTask = null;
+
 	public DailyTimerTask(Towny plugin) {
 
+		this(plugin, false);
+	}
+
+	/**
+	 * @param plugin - Towny.
+	 * @param resume - true to carry on with the new day left unfinished when
+	 *               Towny last stopped, instead of starting a new day.
+	 */
+	public DailyTimerTask(Towny plugin, boolean resume) {
+
 		super(plugin);
+		this.resume = resume;
 	}
 
+	/**
+	 * Starts the new day. The taxes, upkeep and other daily changes are split
+	 * into phases which are recorded in a {@link NewDayJournal} as they go, so
+	 * an interrupted new day is resumed when Towny next starts rather than run
+	 * again, any later new day starts a fresh journal. On the main
+	 * thread the phases are spread over as many ticks as they need, when the
+	 * economy is async they are simply run on this task's own thread.
+	 */
 	@Override
 	public void run() {
 
-		long start = System.currentTimeMillis();
+		if (!running.compareAndSet(false, true)) {
+			TownyMessaging.sendErrorMsg("The previous new day is still being processed, skipping this new day.");
+			return;
+		}
+
+		journal = resume ? NewDayJournal.resume() : NewDayJournal.start();
+		if (journal == null) {
+			// Nothing left to resume.
+			running.set(false);
+			return;
+		}
+
+		start = System.currentTimeMillis();
 		totalTownUpkeep = 0.0;
 		totalNationUpkeep = 0.0;
 		bankruptedTowns.clear();
 		removedTowns.clear();
 		removedNations.clear();
 
-		Bukkit.getPluginManager().callEvent(new PreNewDayEvent()); // Pre-New Day Event
-		
-		TownyMessaging.sendDebugMsg("New Day");
+		boolean taxing = TownyEconomyHandler.isActive() && TownySettings.isTaxingDaily();
 
-		/*
-		 * If enabled, collect taxes and then server upkeep costs.
-		 */		
-		if (TownyEconomyHandler.isActive() && TownySettings.isTaxingDaily()) {
-			TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day_tax"));
-			TownyMessaging.sendDebugMsg("Collecting Town Taxes");
-			collectTownTaxes();
-			TownyMessaging.sendDebugMsg("Collecting Nation Taxes");
-			collectNationTaxes();
-			TownyMessaging.sendDebugMsg("Collecting Town Costs");
-			collectTownCosts();
-			TownyMessaging.sendDebugMsg("Collecting Nation Costs");
-			collectNationCosts();
+		if (journal.isResumed()) {
+			Towny.getPlugin().getLogger().info("Resuming the interrupted new day which started at " + new Date(journal.getDay()) + ".");
+		} else {
+			Bukkit.getPluginManager().callEvent(new PreNewDayEvent()); // Pre-New Day Event
 			
-			Bukkit.getServer().getPluginManager().callEvent(new NewDayEvent(bankruptedTowns, removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start));
-		} else
-			TownyMessaging.sendGlobalMessage(Translation.of("msg_new_day"));
-
-		/*
-		 * If enabled, remove old residents who haven't logged in for the configured number of days.
-		 */	
-		if (TownySettings.isDeletingOldResidents()) {
-			// Run a purge in it's own thread
-			new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly()).start();
+			TownyMessaging.sendDebugMsg("New Day");
+			TownyMessaging.sendGlobalMessage(Translation.of(taxing ? "msg_new_day_tax" : "msg_new_day"));
 		}
-		
-		//Clean up unused NPC residents
-		new NPCCleanupTask().start();
+
+		phases.clear();
+		phaseIndex = 0;
 
 		/*
-		 * If enabled, remove all 0-plot towns.
+		 * If enabled, collect taxes and then server upkeep costs.
 		 */
-		if (TownySettings.isNewDayDeleting0PlotTowns()) {
-			List<String> deletedTowns = new ArrayList<>();
-			for (Town town : universe.getTowns()) {
-				if (town.getTownBlocks().size() == 0) {
-					deletedTowns.add(town.getName());
-					universe.getDataSource().removeTown(town);
+		if (taxing) {
+			phases.add(new Phase<Town>("town_taxes", universe.getDataSource()::getTowns, town -> {
+				/*
+				 * Only collect resident tax for this town if it really still
+				 * exists.
+				 * We are running in an Async thread so MUST verify all objects.
+				 */
+				if (universe.getDataSource().hasTown(town.getName()) && !town.isRuined())
+					collectTownTaxes(town);
+			}, null));
+			phases.add(new Phase<Nation>("nation_taxes", universe::getNations, nation -> {
+				/*
+				 * Only collect tax for this nation if it really still exists.
+				 * We are running in an Async thread so MUST verify all objects.
+				 */
+				if (universe.hasNation(nation.getName()))
+					collectNationTaxes(nation);
+			}, null));
+			phases.add(new Phase<Town>("town_upkeep", universe.getDataSource()::getTowns, this::collectTownCosts, this::sendTownUpkeepMessages));
+			phases.add(new Phase<Nation>("nation_upkeep", universe::getNations, this::collectNationCosts, this::sendNationUpkeepMessages));
+		}
+
+		phases.add(new Phase<Town>("cleanup", Collections::emptyList, null, () -> {
+			if (taxing)
+				Bukkit.getServer().getPluginManager().callEvent(new NewDayEvent(bankruptedTowns, removedTowns, removedNations, totalTownUpkeep, totalNationUpkeep, start));
+
+			/*
+			 * If enabled, remove old residents who haven't logged in for the configured number of days.
+			 */	
+			if (TownySettings.isDeletingOldResidents()) {
+				// Run a purge in it's own thread
+				new ResidentPurge(plugin, null, TownySettings.getDeleteTime() * 1000, TownySettings.isDeleteTownlessOnly()).start();
+			}
+			
+			//Clean up unused NPC residents
+			new NPCCleanupTask().start();
+
+			/*
+			 * If enabled, remove all 0-plot towns.
+			 */
+			if (TownySettings.isNewDayDeleting0PlotTowns()) {
+				List<String> deletedTowns = new ArrayList<>();
+				for (Town town : universe.getTowns()) {
+					if (town.getTownBlocks().size() == 0) {
+						deletedTowns.add(town.getName());
+						universe.getDataSource().removeTown(town);
+					}
 				}
+				if (!deletedTowns.isEmpty())
+					TownyMessaging.sendGlobalMessage(Translation.of("msg_the_following_towns_were_deleted_for_having_0_claims", String.join(", ", deletedTowns)));
 			}
-			if (!deletedTowns.isEmpty())
-				TownyMessaging.sendGlobalMessage(Translation.of("msg_the_following_towns_were_deleted_for_having_0_claims", String.join(", ", deletedTowns)));
-		}
-		
+		}));
+
 		/*
 		 * Reduce the number of days conquered towns are conquered for.
 		 */
-		for (Town town : universe.getDataSource().getTowns()) {
+		phases.add(new Phase<Town>("conquered", universe.getDataSource()::getTowns, town -> {
 			if (town.isConquered()) {
 				if (town.getConqueredDays() == 1) {
 					TownUnconquerEvent event = new TownUnconquerEvent(town);
@@ -110,7 +196,75 @@ public class DailyTimerTask extends TownyTimerTask {
 				} else
 					town.setConqueredDays(town.getConqueredDays() - 1);				
 			}
+		}, null));
+
+		if (Bukkit.isPrimaryThread()) {
+			if (!processPhases(System.nanoTime() + SHARD_NANOS))
+				shardTask = BukkitTools.getScheduler().runTaskTimer(plugin, this::processShard, 1L, 1L);
+		} else {
+			processPhases(Long.MAX_VALUE);
 		}
+	}
+
+	/**
+	 * Carry on with the new day for one more tick.
+	 */
+	private void processShard() {
+
+		if (processPhases(System.nanoTime() + SHARD_NANOS)) {
+			shardTask.cancel();
+			shardTask = null;
+		}
+	}
+
+	/**
+	 * Work through the phases until they are all complete or the deadline passes.
+	 * 
+	 * @param deadline - {@link System#nanoTime()} to stop at.
+	 * @return true when the new day is finished.
+	 */
+	private boolean processPhases(long deadline) {
+
+		try {
+			while (phaseIndex < phases.size()) {
+				if (!phases.get(phaseIndex).process(deadline))
+					return false;
+				phaseIndex++;
+			}
+		} catch (RuntimeException e) {
+			// Leave the journal in place, the new day resumes from here if Towny restarts before the next new day.
+			journal.close();
+			if (shardTask != null) {
+				shardTask.cancel();
+				shardTask = null;
+			}
+			running.set(false);
+			throw e;
+		}
+
+		finish();
+		return true;
+	}
+
+	/**
+	 * @param payment - Name of the payment in the journal.
+	 * @param payer - Id of whoever pays it.
+	 * @return true if the payer was charged before this new day was interrupted.
+	 */
+	private boolean isPaid(String payment, String payer) {
+		// Taxes collected outside of a new day have no journal.
+		return journal != null && journal.isProcessed(payment, payer);
+	}
+
+	private void markPaid(String payment, String payer) {
+		if (journal != null)
+			journal.markProcessed(payment, payer);
+	}
+
+	private void finish() {
+
+		journal.finish();
+		running.set(false);
 
 		/*
 		 * Run backup on a separate thread, to let the DailyTimerTask thread terminate as intended.
@@ -132,7 +286,94 @@ public class DailyTimerTask extends TownyTimerTask {
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (total)", Runtime.getRuntime().totalMemory() / 1024 / 1024));
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (free)", Runtime.getRuntime().freeMemory() / 1024 / 1024));
 		TownyMessaging.sendDebugMsg(String.format("%8d Mb (used=total-free)", (Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory()) / 1024 / 1024));
-		Towny.getPlugin().getLogger().info("Towny DailyTimerTask took " + (System.currentTimeMillis() - start) + "ms to process.");
+
+		long busyNanos = 0;
+		List<String> timings = new ArrayList<>();
+		for (Phase<?> phase : phases) {
+			busyNanos += phase.nanos;
+			timings.add(phase.getSummary());
+		}
+		Towny.getPlugin().getLogger().info("Towny DailyTimerTask took " + (System.currentTimeMillis() - start) + "ms to process (" + TimeUnit.NANOSECONDS.toMillis(busyNanos) + "ms working).");
+		Towny.getPlugin().getLogger().info("New day phases: " + String.join(", ", timings) + ".");
+		if (TownyEconomyHandler.isActive())
+			Towny.getPlugin().getLogger().info(String.format("New day totals: town upkeep %.2f, nation upkeep %.2f, %d towns bankrupted, %d towns and %d nations removed.",
+				totalTownUpkeep, totalNationUpkeep, bankruptedTowns.size(), removedTowns.size(), removedNations.size()));
+	}
+
+	/**
+	 * One step of the new day, applied to each object in turn and recorded in
+	 * the journal so it is never applied to the same object twice.
+	 *
+	 * @param <T> - The kind of object the phase is applied to.
+	 */
+	private class Phase<T extends Government> {
+
+		private final String name;
+		private final Supplier<Collection<T>> source;
+		private final Consumer<T> action;
+		private final Runnable onComplete;
+
+		private Iterator<T> remaining = null;
+		private int processed = 0;
+		private int resumed = 0;
+		private long nanos = 0;
+
+		/**
+		 * @param name - Name of the phase in the journal.
+		 * @param source - Objects to apply the phase to, taken when the phase starts.
+		 * @param action - Applied to each object, may be null for phases with no objects.
+		 * @param onComplete - Run once after every object has been processed, may be null.
+		 */
+		private Phase(String name, Supplier<Collection<T>> source, Consumer<T> action, Runnable onComplete) {
+			this.name = name;
+			this.source = source;
+			this.action = action;
+			this.onComplete = onComplete;
+		}
+
+		/**
+		 * @param deadline - {@link System#nanoTime()} to stop at.
+		 * @return true when the phase is complete.
+		 */
+		private boolean process(long deadline) {
+
+			if (journal.isPhaseComplete(name))
+				return true;
+
+			long started = System.nanoTime();
+			if (remaining == null)
+				remaining = new ArrayList<>(source.get()).iterator();
+
+			while (remaining.hasNext()) {
+				T object = remaining.next();
+				if (journal.isProcessed(name, object.getUUID())) {
+					resumed++;
+				} else {
+					action.accept(object);
+					journal.markProcessed(name, object.getUUID());
+					processed++;
+				}
+
+				if (remaining.hasNext() && System.nanoTime() >= deadline) {
+					nanos += System.nanoTime() - started;
+					return false;
+				}
+			}
+
+			if (onComplete != null)
+				onComplete.run();
+			journal.completePhase(name);
+			nanos += System.nanoTime() - started;
+			return true;
+		}
+
+		private String getSummary() {
+
+			if (remaining == null)
+				return name + " already done";
+
+			return name + " " + processed + (resumed > 0 ? " (" + resumed + " resumed)" : "") + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms";
+		}
 	}
 
 	/**
@@ -182,6 +423,10 @@ public class DailyTimerTask extends TownyTimerTask {
 					if (town.isCapital() || !town.hasUpkeep() || town.isRuined())
 						continue;
 					
+					// Already charged before this new day was interrupted.
+					if (isPaid(NATION_TAX, town.getUUID().toString()))
+						continue;
+					
 					PreTownPaysNationTaxEvent event = new PreTownPaysNationTaxEvent(town, nation, taxAmount);
 					Bukkit.getPluginManager().callEvent(event);
 					if (event.isCancelled()) {
@@ -193,6 +438,7 @@ public class DailyTimerTask extends TownyTimerTask {
 					if (town.getAccount().canPayFromHoldings(taxAmount)) {
 					// Town is able to pay the nation's tax.
 						town.getAccount().payTo(taxAmount, nation, "Nation Tax to " + nation.getName());
+						markPaid(NATION_TAX, town.getUUID().toString());
 						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_payed_nation_tax", TownyEconomyHandler.getFormattedBalance(taxAmount)));
 					} else {
 					// Town is unable to pay the nation's tax.
@@ -202,12 +448,14 @@ public class DailyTimerTask extends TownyTimerTask {
 							
 							if (TownySettings.doesNationTaxDeleteConqueredTownsWhichCannotPay() && town.isConquered()) {
 								universe.getDataSource().removeTown(town);
+								markPaid(NATION_TAX, town.getUUID().toString());
 								localTownsDestroyed.add(town.getName());
 								continue;
 							}
 							
 							localNewlyDelinquentTowns.add(town.getName());		
 							town.removeNation();
+							markPaid(NATION_TAX, town.getUUID().toString());
 							TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_the_nation_tax_of", TownyEconomyHandler.getFormattedBalance(taxAmount)));
 							continue;
 						}
@@ -225,6 +473,7 @@ public class DailyTimerTask extends TownyTimerTask {
 							// can no longer pay the full nation tax with their allowed debt. 
 								localNewlyDelinquentTowns.add(town.getName());		
 								town.removeNation();
+								markPaid(NATION_TAX, town.getUUID().toString());
 								TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_the_nation_tax_of", TownyEconomyHandler.getFormattedBalance(nation.getTaxes())));
 								continue;
 							}
@@ -235,6 +484,7 @@ public class DailyTimerTask extends TownyTimerTask {
 						// Pay the nation tax with at least some amount of debt.
 						town.getAccount().withdraw(taxAmount, "Nation Tax to " + nation.getName()); // .withdraw() is used because other economy methods do not allow a town to go into debt.
 						nation.getAccount().deposit(taxAmount, "Nation Tax from " + town.getName());
+						markPaid(NATION_TAX, town.getUUID().toString());
 						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_payed_nation_tax_with_debt", TownyEconomyHandler.getFormattedBalance(taxAmount)));
 
 						// Check if the town was newly bankrupted and punish them for it.
@@ -314,7 +564,11 @@ public class DailyTimerTask extends TownyTimerTask {
 				 */
 				if (universe.hasResident(resident.getName())) {
 
-					if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
+					// Already charged before this new day was interrupted.
+					if (isPaid(RESIDENT_TAX, resident.getName()))
+						continue;
+
+					if (TownyPerms.getResolvedResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC() || resident.isMayor()) {
 						try {
 							TownyMessaging.sendResidentMessage(resident, Translation.of("MSG_TAX_EXEMPT"));
 						} catch (TownyException e) {
@@ -336,6 +590,7 @@ public class DailyTimerTask extends TownyTimerTask {
 							tax = town.getAccount().getBalanceCap() - town.getAccount().getHoldingBalance();
 						
 						resident.getAccount().payTo(tax, town, "Town Tax (Percentage)");
+						markPaid(RESIDENT_TAX, resident.getName());
 					} else {
 						// Check if the bank could take the money, reduce it to 0 if required so that 
 						// players do not get kicked in a situation they could be paying but cannot because
@@ -350,6 +605,7 @@ public class DailyTimerTask extends TownyTimerTask {
 							// remove this resident from the town.
 							resident.removeTown();
 						}
+						markPaid(RESIDENT_TAX, resident.getName());
 					}
 				}
 			}
@@ -383,13 +639,18 @@ public class DailyTimerTask extends TownyTimerTask {
 				 */
 				if (universe.hasResident(resident.getName())) {
 					if (resident.hasTown() && resident.getTownOrNull() == town)
-						if (TownyPerms.getResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
+						if (TownyPerms.getResolvedResidentPerms(resident).containsKey("towny.tax_exempt") || resident.isNPC())
 							continue;
 					
 					double tax = townBlock.getType().getTax(town);
 					if (tax < 1)
 						continue;
 
+					// Already charged before this new day was interrupted.
+					String plot = townBlock.getWorld().getName() + "," + townBlock.getX() + "," + townBlock.getZ();
+					if (isPaid(PLOT_TAX, plot))
+						continue;
+
 					// If the tax would put the town over the bank cap we reduce what will be
 					// paid by the plot owner to what will be allowed.
 					if (TownySettings.getTownBankCap() != 0 && tax + town.getAccount().getHoldingBalance() > TownySettings.getTownBankCap())
@@ -414,6 +675,7 @@ public class DailyTimerTask extends TownyTimerTask {
 						
 						townBlock.save();
 					}
+					markPaid(PLOT_TAX, plot);
 				}
 				
 			}
@@ -436,98 +698,115 @@ public class DailyTimerTask extends TownyTimerTask {
 
 		while (townItr.hasNext()) {
 			town = townItr.next();
+			collectTownCosts(town);
+		}
 
-			/*
-			 * Only charge/pay upkeep for this town if it really still exists.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.getDataSource().hasTown(town.getName()) && town.hasUpkeep() && !town.isRuined()) {
+		sendTownUpkeepMessages();
+	}
 
-				double upkeep = TownySettings.getTownUpkeepCost(town);
-				double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
-				if (upkeepPenalty > 0 && upkeep > 0)
-					upkeep = upkeep + upkeepPenalty;
-			
-				totalTownUpkeep = totalTownUpkeep + upkeep;
-				if (upkeep > 0) {
+	/**
+	 * Collect or pay upkeep for a town.
+	 * 
+	 * @param town - Town to charge or pay upkeep.
+	 */
+	protected void collectTownCosts(Town town) {
+
+		/*
+		 * Only charge/pay upkeep for this town if it really still exists.
+		 * We are running in an Async thread so MUST verify all objects.
+		 */
+		if (universe.getDataSource().hasTown(town.getName()) && town.hasUpkeep() && !town.isRuined()) {
+
+			double upkeep = TownySettings.getTownUpkeepCost(town);
+			double upkeepPenalty = TownySettings.getTownPenaltyUpkeepCost(town);
+			if (upkeepPenalty > 0 && upkeep > 0)
+				upkeep = upkeep + upkeepPenalty;
+		
+			totalTownUpkeep = totalTownUpkeep + upkeep;
+			if (upkeep > 0) {
+				
+				if (town.getAccount().canPayFromHoldings(upkeep)) {
+				// Town is able to pay the upkeep.
+					town.getAccount().withdraw(upkeep, "Town Upkeep");
+					TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+				} else {
+				// Town is unable to pay the upkeep.
+					if (!TownySettings.isTownBankruptcyEnabled()) {
+					// Bankruptcy is disabled, remove the town for not paying upkeep.
+						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+						universe.getDataSource().removeTown(town);
+						removedTowns.add(town.getName());
+						return;
+					}
 					
-					if (town.getAccount().canPayFromHoldings(upkeep)) {
-					// Town is able to pay the upkeep.
-						town.getAccount().withdraw(upkeep, "Town Upkeep");
-						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-					} else {
-					// Town is unable to pay the upkeep.
-						if (!TownySettings.isTownBankruptcyEnabled()) {
-						// Bankruptcy is disabled, remove the town for not paying upkeep.
+					// Bankruptcy is enabled.
+					boolean townWasBankrupt = town.isBankrupt();
+					town.getAccount().setDebtCap(MoneyUtil.getEstimatedValueOfTown(town));
+				
+					if (town.getAccount().getHoldingBalance() - upkeep < town.getAccount().getDebtCap() * -1) {
+					// The town will exceed their debt cap to pay the upkeep.
+					// Eventually when the cap is reached they will pay 0 upkeep.
+											
+						if (TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
+						// Alternatively, if configured, towns will not be allowed to exceed
+						// their debt and be deleted from the server for non-payment finally.
 							TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
 							universe.getDataSource().removeTown(town);
 							removedTowns.add(town.getName());
-							continue;
-						}
-						
-						// Bankruptcy is enabled.
-						boolean townWasBankrupt = town.isBankrupt();
-						town.getAccount().setDebtCap(MoneyUtil.getEstimatedValueOfTown(town));
-					
-						if (town.getAccount().getHoldingBalance() - upkeep < town.getAccount().getDebtCap() * -1) {
-						// The town will exceed their debt cap to pay the upkeep.
-						// Eventually when the cap is reached they will pay 0 upkeep.
-												
-							if (TownySettings.isUpkeepDeletingTownsThatReachDebtCap()) {
-							// Alternatively, if configured, towns will not be allowed to exceed
-							// their debt and be deleted from the server for non-payment finally.
-								TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-								universe.getDataSource().removeTown(town);
-								removedTowns.add(town.getName());
-								continue;
-							}
-							upkeep = town.getAccount().getDebtCap() - Math.abs(town.getAccount().getHoldingBalance());
-						}
-						
-						// Finally pay the upkeep or the modified upkeep up to the debtcap. 
-						town.getAccount().withdraw(upkeep, "Town Upkeep");
-						TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_payed_upkeep_with_debt", TownyEconomyHandler.getFormattedBalance(upkeep)));
-						
-						// Check if the town was newly bankrupted and punish them for it.
-						if(!townWasBankrupt) {
-							town.setOpen(false);
-							town.save();
-							bankruptedTowns.add(town.getName());
+							return;
 						}
+						upkeep = town.getAccount().getDebtCap() - Math.abs(town.getAccount().getHoldingBalance());
 					}
-
 					
-				} else if (upkeep < 0) {
-					// Negative upkeep
-					upkeep = Math.abs(upkeep);
+					// Finally pay the upkeep or the modified upkeep up to the debtcap. 
+					town.getAccount().withdraw(upkeep, "Town Upkeep");
+					TownyMessaging.sendPrefixedTownMessage(town, Translation.of("msg_your_town_payed_upkeep_with_debt", TownyEconomyHandler.getFormattedBalance(upkeep)));
 					
-					if (TownySettings.isUpkeepPayingPlots()) {
-						// Pay each plot owner a share of the negative
-						// upkeep
-						List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
-						double payment = upkeep / plots.size();
-						double townPayment = 0;
-
-						for (TownBlock townBlock : plots) {
-							if (townBlock.hasResident()) {
-								Resident resident = townBlock.getResidentOrNull();
-								if (resident != null)
-									resident.getAccount().deposit(payment, "Negative Town Upkeep - Plot income");
-							} else
-								townPayment = townPayment + payment;
+					// Check if the town was newly bankrupted and punish them for it.
+					if(!townWasBankrupt) {
+						town.setOpen(false);
+						town.save();
+						bankruptedTowns.add(town.getName());
+					}
+				}
 
-						}
-						if (townPayment > 0)
-							town.getAccount().deposit(townPayment, "Negative Town Upkeep - Plot income");
+				
+			} else if (upkeep < 0) {
+				// Negative upkeep
+				upkeep = Math.abs(upkeep);
+				
+				if (TownySettings.isUpkeepPayingPlots()) {
+					// Pay each plot owner a share of the negative
+					// upkeep
+					List<TownBlock> plots = new ArrayList<>(town.getTownBlocks());
+					double payment = upkeep / plots.size();
+					double townPayment = 0;
+
+					for (TownBlock townBlock : plots) {
+						if (townBlock.hasResident()) {
+							Resident resident = townBlock.getResidentOrNull();
+							if (resident != null)
+								resident.getAccount().deposit(payment, "Negative Town Upkeep - Plot income");
+						} else
+							townPayment = townPayment + payment;
 
-					} else {
-						// Not paying plot owners so just pay the town
-						town.getAccount().deposit(upkeep, "Negative Town Upkeep");
 					}
+					if (townPayment > 0)
+						town.getAccount().deposit(townPayment, "Negative Town Upkeep - Plot income");
 
+				} else {
+					// Not paying plot owners so just pay the town
+					town.getAccount().deposit(upkeep, "Negative Town Upkeep");
 				}
-			}			
+
+			}
 		}
+	}
+
+	/**
+	 * Announce the towns which went bankrupt or were removed by upkeep.
+	 */
+	private void sendTownUpkeepMessages() {
 
 		String msg1 = Translation.of("msg_bankrupt_town2");
 		String msg2 = Translation.of("msg_bankrupt_town_multiple");
@@ -559,42 +838,60 @@ public class DailyTimerTask extends TownyTimerTask {
 
 		while (nationItr.hasNext()) {
 			nation = nationItr.next();
+			collectNationCosts(nation);
+		}
 
-			/*
-			 * Only charge upkeep for this nation if it really still exists,
-			 * and its capital town also pays upkeep costs.
-			 * We are running in an Async thread so MUST verify all objects.
-			 */
-			if (universe.hasNation(nation.getUUID()) && nation.getCapital().hasUpkeep()) {
+		sendNationUpkeepMessages();
+	}
 
-				double upkeep = TownySettings.getNationUpkeepCost(nation);
+	/**
+	 * Collect upkeep due from a nation.
+	 * 
+	 * @param nation - Nation to charge upkeep.
+	 */
+	protected void collectNationCosts(Nation nation) {
 
-				totalNationUpkeep = totalNationUpkeep + upkeep;
-				if (upkeep > 0) {
-					// Town is paying upkeep
-					
-					if (nation.getAccount().canPayFromHoldings(upkeep)) {
-						nation.getAccount().withdraw(upkeep, "Nation Upkeep");
-						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_your_nation_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));						
-					} else {
-						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_your_nation_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
-						universe.getDataSource().removeNation(nation);
-						removedNations.add(nation.getName());
-					}
+		/*
+		 * Only charge upkeep for this nation if it really still exists,
+		 * and its capital town also pays upkeep costs.
+		 * We are running in an Async thread so MUST verify all objects.
+		 */
+		if (universe.hasNation(nation.getUUID()) && nation.getCapital().hasUpkeep()) {
 
-					if (nation.isNeutral()) {
-						if (!nation.getAccount().withdraw(TownySettings.getNationNeutralityCost(), "Nation Peace Upkeep")) {
-							nation.setNeutral(false);
-							nation.save();
-							TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_not_peaceful"));
-						}
+			double upkeep = TownySettings.getNationUpkeepCost(nation);
+
+			totalNationUpkeep = totalNationUpkeep + upkeep;
+			if (upkeep > 0) {
+				// Town is paying upkeep
+				
+				if (nation.getAccount().canPayFromHoldings(upkeep)) {
+					nation.getAccount().withdraw(upkeep, "Nation Upkeep");
+					TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_your_nation_payed_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));						
+				} else {
+					TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_your_nation_couldnt_pay_upkeep", TownyEconomyHandler.getFormattedBalance(upkeep)));
+					universe.getDataSource().removeNation(nation);
+					removedNations.add(nation.getName());
+				}
+
+				if (nation.isNeutral()) {
+					if (!nation.getAccount().withdraw(TownySettings.getNationNeutralityCost(), "Nation Peace Upkeep")) {
+						nation.setNeutral(false);
+						nation.save();
+						TownyMessaging.sendPrefixedNationMessage(nation, Translation.of("msg_nation_not_peaceful"));
 					}
-					
-				} else if (upkeep < 0) {
-					nation.getAccount().withdraw(upkeep, "Negative Nation Upkeep");
 				}
+				
+			} else if (upkeep < 0) {
+				nation.getAccount().withdraw(upkeep, "Negative Nation Upkeep");
 			}
 		}
+	}
+
+	/**
+	 * Announce the nations which were removed by upkeep.
+	 */
+	private void sendNationUpkeepMessages() {
+
 		if (removedNations != null && !removedNations.isEmpty()) {
 			if (removedNations.size() == 1)
 				TownyMessaging.sendGlobalMessage(Translation.of("msg_bankrupt_nation2", removedNations.get(0)));
@@ -1,33 +1,69 @@
 package com.palmergames.bukkit.towny.tasks;
 
 import com.palmergames.bukkit.towny.Towny;
-import com.palmergames.bukkit.towny.TownyAPI;
 import com.palmergames.bukkit.towny.TownySettings;
 import com.palmergames.bukkit.towny.TownyUniverse;
 import com.palmergames.bukkit.towny.event.MobRemovalEvent;
 import com.palmergames.bukkit.towny.exceptions.NotRegisteredException;
 import com.palmergames.bukkit.towny.object.*;
 import com.palmergames.bukkit.towny.utils.EntityTypeUtil;
+import com.palmergames.util.TimeTools;
 
 import net.citizensnpcs.api.CitizensAPI;
 
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Server;
 import org.bukkit.World;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
-import org.bukkit.entity.Rabbit;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
-
+import java.util.Set;
+
+/**
+ * Removes the mobs which aren't allowed in the world, the wilderness or towns.
+ * 
+ * Runs every tick, checking a slice of the loaded chunks each time so that all
+ * of them are checked once per mob removal interval. The TownBlock is looked up
+ * once per chunk, chunks where no mob would be removed are skipped without
+ * looking at their entities, and entities are matched by their EntityType.
+ */
 public class MobRemovalTimerTask extends TownyTimerTask {
 
 	private final Server server;
 	public static List<Class<?>> classesOfWorldMobsToRemove = new ArrayList<>();
 	public static List<Class<?>> classesOfWildernessMobsToRemove = new ArrayList<>();
 	public static List<Class<?>> classesOfTownMobsToRemove = new ArrayList<>();
-	private final boolean isRemovingKillerBunny;
+	// The entity types of the classes above.
+	private static Set<EntityType> typesOfWorldMobsToRemove = EnumSet.noneOf(EntityType.class);
+	private static Set<EntityType> typesOfWildernessMobsToRemove = EnumSet.noneOf(EntityType.class);
+	private static Set<EntityType> typesOfTownMobsToRemove = EnumSet.noneOf(EntityType.class);
+
+	private final long ticksPerSweep;
+	private final List<WorldChunks> sweep = new ArrayList<>();
+	private int worldIndex = 0;
+	private int chunkIndex = 0;
+	private int chunksPerTick = 1;
+	private long ticksSinceSweep;
+
+	/**
+	 * The chunks of one world which were loaded when the sweep started.
+	 */
+	private static class WorldChunks {
+		private final World world;
+		private final TownyWorld townyWorld;
+		private final Chunk[] chunks;
+
+		private WorldChunks(World world, TownyWorld townyWorld, Chunk[] chunks) {
+			this.world = world;
+			this.townyWorld = townyWorld;
+			this.chunks = chunks;
+		}
+	}
 
 	public MobRemovalTimerTask(Towny plugin, Server server) {
 
@@ -37,26 +73,78 @@ public class MobRemovalTimerTask extends TownyTimerTask {
 		classesOfWorldMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getWorldMobRemovalEntities(), "WorldMob: ");
 		classesOfWildernessMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getWildernessMobRemovalEntities(),"WildernessMob: ");
 		classesOfTownMobsToRemove = EntityTypeUtil.parseLivingEntityClassNames(TownySettings.getTownMobRemovalEntities(), "TownMob: ");
-		isRemovingKillerBunny = TownySettings.isRemovingKillerBunny();
+		typesOfWorldMobsToRemove = EntityTypeUtil.getEntityTypes(classesOfWorldMobsToRemove);
+		typesOfWildernessMobsToRemove = EntityTypeUtil.getEntityTypes(classesOfWildernessMobsToRemove);
+		typesOfTownMobsToRemove = EntityTypeUtil.getEntityTypes(classesOfTownMobsToRemove);
+
+		ticksPerSweep = Math.max(1, TimeTools.convertToTicks(TownySettings.getMobRemovalSpeed()));
+		// Start the first sweep straight away.
+		ticksSinceSweep = ticksPerSweep;
 	}
 
 	public static boolean isRemovingWorldEntity(LivingEntity livingEntity) {
-		return EntityTypeUtil.isInstanceOfAny(classesOfWorldMobsToRemove, livingEntity);
+		return isRemoving(typesOfWorldMobsToRemove, classesOfWorldMobsToRemove, livingEntity);
 	}
 	
 	public static boolean isRemovingWildernessEntity(LivingEntity livingEntity) {
-		return  EntityTypeUtil.isInstanceOfAny(classesOfWildernessMobsToRemove, livingEntity);
+		return isRemoving(typesOfWildernessMobsToRemove, classesOfWildernessMobsToRemove, livingEntity);
 	}
 
 	public static boolean isRemovingTownEntity(LivingEntity livingEntity) {
-		return EntityTypeUtil.isInstanceOfAny(classesOfTownMobsToRemove, livingEntity);
+		return isRemoving(typesOfTownMobsToRemove, classesOfTownMobsToRemove, livingEntity);
+	}
+
+	private static boolean isRemoving(Set<EntityType> types, List<Class<?>> classes, LivingEntity livingEntity) {
+		EntityType type = livingEntity.getType();
+		// Entities added by mods have no type of their own, only their class can tell.
+		if (type == EntityType.UNKNOWN)
+			return EntityTypeUtil.isInstanceOfAny(classes, livingEntity);
+		return types.contains(type);
 	}
 
 	@Override
 	public void run() {
+
+		if (worldIndex >= sweep.size()) {
+			// Wait for the rest of the interval before sweeping the loaded chunks again.
+			if (++ticksSinceSweep < ticksPerSweep)
+				return;
+			startSweep();
+		} else {
+			ticksSinceSweep++;
+		}
+
 		// Build a list of mobs to be removed
 		List<LivingEntity> livingEntitiesToRemove = new ArrayList<>();
+		int chunks = 0;
+		while (chunks < chunksPerTick && worldIndex < sweep.size()) {
+			WorldChunks worldChunks = sweep.get(worldIndex);
+			if (chunkIndex >= worldChunks.chunks.length) {
+				worldIndex++;
+				chunkIndex = 0;
+				continue;
+			}
+			checkChunk(worldChunks, worldChunks.chunks[chunkIndex++], livingEntitiesToRemove);
+			chunks++;
+		}
 
+		MobRemovalEvent mobRemovalEvent;
+		for (LivingEntity livingEntity : livingEntitiesToRemove) {
+			mobRemovalEvent = new MobRemovalEvent(livingEntity);
+			plugin.getServer().getPluginManager().callEvent(mobRemovalEvent);
+			if (!mobRemovalEvent.isCancelled()) {
+				livingEntity.remove();
+			}
+		}
+	}
+
+	private void startSweep() {
+		sweep.clear();
+		worldIndex = 0;
+		chunkIndex = 0;
+		ticksSinceSweep = 0;
+
+		int total = 0;
 		for (World world : server.getWorlds()) {
 			TownyWorld townyWorld;
 
@@ -67,8 +155,7 @@ public class MobRemovalTimerTask extends TownyTimerTask {
 				// World was not registered by Towny, so we skip all mobs in it.
 				continue;
 			} // Spigot has unloaded this world.
-			
-			
+
 			// Filter worlds not using towny.
 			if (!townyWorld.isUsingTowny())
 				continue;
@@ -77,66 +164,83 @@ public class MobRemovalTimerTask extends TownyTimerTask {
 			if (townyWorld.isForceTownMobs() && townyWorld.hasWorldMobs())
 				continue;
 
-			//
-			for (LivingEntity livingEntity : world.getLivingEntities()) {
-				Location livingEntityLoc = livingEntity.getLocation();
-				if (!world.isChunkLoaded(livingEntityLoc.getBlockX() >> 4, livingEntityLoc.getBlockZ() >> 4))
-					continue;
-
-				// Check if entity is a Citizens NPC
-				if (plugin.isCitizens2()) {
-					if (CitizensAPI.getNPCRegistry().isNPC(livingEntity))
-						continue;
-				}
-				
-				// Handles entities Globally.
-				if (!townyWorld.hasWorldMobs() && isRemovingWorldEntity(livingEntity)) {
-					livingEntitiesToRemove.add(livingEntity);
-					continue;
-				}
-				
-				// Handles entities in the wilderness.
-				if (TownyAPI.getInstance().isWilderness(livingEntityLoc)) {
-					if (townyWorld.hasWildernessMobs())
-						continue;
-					if (!isRemovingWildernessEntity(livingEntity))
-						continue;
-					
-					livingEntitiesToRemove.add(livingEntity);
-					continue;
-				}
-
-				// The entity is inside of a town.
-				TownBlock townBlock = TownyAPI.getInstance().getTownBlock(livingEntityLoc);
-
-				// Check if mobs are always allowed inside towns in this world.
-				if (townyWorld.isForceTownMobs() || townBlock.getPermissions().mobs)
-					continue;
-
-				// Check that Towny is removing this type of entity inside towns.
-				if (!isRemovingTownEntity(livingEntity))
-					continue;
-
-				if (TownySettings.isSkippingRemovalOfNamedMobs() && livingEntity.getCustomName() != null)
-					continue;
-
-				// Special check if it's a rabbit, for the Killer Bunny variant.
-				if (livingEntity.getType().equals(EntityType.RABBIT))
-					if (isRemovingKillerBunny && ((Rabbit) livingEntity).getRabbitType().equals(Rabbit.Type.THE_KILLER_BUNNY)) {
-						livingEntitiesToRemove.add(livingEntity);							
-						continue;						
-					}
-				
-				livingEntitiesToRemove.add(livingEntity);
-			}
+			Chunk[] chunks = world.getLoadedChunks();
+			sweep.add(new WorldChunks(world, townyWorld, chunks));
+			total += chunks.length;
 		}
-		MobRemovalEvent mobRemovalEvent;
-		for (LivingEntity livingEntity : livingEntitiesToRemove) {
-			mobRemovalEvent = new MobRemovalEvent(livingEntity);
-			plugin.getServer().getPluginManager().callEvent(mobRemovalEvent);
-			if (!mobRemovalEvent.isCancelled()) {
-				livingEntity.remove();
+
+		// Spread the chunks over the ticks until the next sweep.
+		chunksPerTick = (int) Math.max(1, (total + ticksPerSweep - 1) / ticksPerSweep);
+	}
+
+	private void checkChunk(WorldChunks worldChunks, Chunk chunk, List<LivingEntity> livingEntitiesToRemove) {
+		// The chunk has been unloaded since the sweep started.
+		if (!chunk.isLoaded())
+			return;
+
+		TownyWorld townyWorld = worldChunks.townyWorld;
+		// When a townblock is the size of a chunk, the whole chunk is either wilderness or the one townblock.
+		boolean oneTownBlock = Coord.getCellSize() == 16;
+		TownBlock townBlock = null;
+		if (oneTownBlock) {
+			townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldChunks.world, chunk.getX() << 4, chunk.getZ() << 4);
+			if (!couldRemoveAny(townyWorld, townBlock))
+				return;
+		}
+
+		for (Entity entity : chunk.getEntities()) {
+			if (!(entity instanceof LivingEntity))
+				continue;
+
+			LivingEntity livingEntity = (LivingEntity) entity;
+			if (!oneTownBlock) {
+				Location location = livingEntity.getLocation();
+				townBlock = TownyUniverse.getInstance().getTownBlockOrNull(worldChunks.world, location.getBlockX(), location.getBlockZ());
 			}
+
+			if (!isRemoving(livingEntity, townyWorld, townBlock))
+				continue;
+
+			// Check if entity is a Citizens NPC
+			if (plugin.isCitizens2() && CitizensAPI.getNPCRegistry().isNPC(livingEntity))
+				continue;
+
+			livingEntitiesToRemove.add(livingEntity);
 		}
 	}
+
+	/**
+	 * @return false when no mob would be removed at all from a chunk in this townblock, or the wilderness if null.
+	 */
+	private static boolean couldRemoveAny(TownyWorld townyWorld, TownBlock townBlock) {
+		if (!townyWorld.hasWorldMobs() && !classesOfWorldMobsToRemove.isEmpty())
+			return true;
+
+		if (townBlock == null)
+			return !townyWorld.hasWildernessMobs() && !classesOfWildernessMobsToRemove.isEmpty();
+
+		return !townyWorld.isForceTownMobs() && !townBlock.getPermissions().mobs && !classesOfTownMobsToRemove.isEmpty();
+	}
+
+	private static boolean isRemoving(LivingEntity livingEntity, TownyWorld townyWorld, TownBlock townBlock) {
+		// Handles entities Globally.
+		if (!townyWorld.hasWorldMobs() && isRemovingWorldEntity(livingEntity))
+			return true;
+
+		// Handles entities in the wilderness.
+		if (townBlock == null)
+			return !townyWorld.hasWildernessMobs() && isRemovingWildernessEntity(livingEntity);
+
+		// The entity is inside of a town.
+
+		// Check if mobs are always allowed inside towns in this world.
+		if (townyWorld.isForceTownMobs() || townBlock.getPermissions().mobs)
+			return false;
+
+		// Check that Towny is removing this type of entity inside towns.
+		if (!isRemovingTownEntity(livingEntity))
+			return false;
+
+		return !(TownySettings.isSkippingRemovalOfNamedMobs() && livingEntity.getCustomName() != null);
+	}
 }
@@ -0,0 +1,263 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyTimerHandler;
+import com.palmergames.bukkit.towny.TownyUniverse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Records the progress of a new day in data/newday-journal.txt, so that a new
+ * day which was interrupted (by a crash or the server stopping) can carry on
+ * where it stopped instead of charging taxes and upkeep a second time.
+ *
+ * Every object, and every resident or town charged by a tax, is written to the
+ * journal as soon as it has been processed, followed by a line when the whole
+ * phase is complete. The journal is removed once the new day has finished.
+ *
+ * The journal also records when the following new day is due. A journal is
+ * only resumed when Towny starts, and only if that next new day hasn't come
+ * yet, any other new day throws an unfinished journal away and starts afresh.
+ */
+public class NewDayJournal {
+
+	private static final String DAY = "day";
+	private static final String DUE = "due";
+	private static final String DONE = "done";
+	// A new day run this close before its time belongs to the day it was due, not the one before.
+	private static final long EARLY_SECONDS = 60;
+
+	private final File file;
+	private final long day;
+	private long due = 0;
+	private final boolean resumed;
+	private final Set<String> completedPhases = new HashSet<>();
+	private final Map<String, Set<String>> processed = new HashMap<>();
+	private BufferedWriter writer;
+
+	private NewDayJournal(File file, long day, boolean resumed) {
+		this.file = file;
+		this.day = day;
+		this.resumed = resumed;
+	}
+
+	private static File getFile() {
+		return new File(TownyUniverse.getInstance().getRootFolder() + File.separator + "data" + File.separator + "newday-journal.txt");
+	}
+
+	/**
+	 * @return true if a new day was started but never finished.
+	 */
+	public static boolean hasUnfinishedDay() {
+		return getFile().exists();
+	}
+
+	/**
+	 * Starts the journal of a new day, throwing away the journal of any earlier
+	 * new day which didn't finish. If the journal can't be written the new day
+	 * still runs, it just can't be resumed.
+	 *
+	 * @return the journal to record this new day in.
+	 */
+	public static NewDayJournal start() {
+
+		File file = getFile();
+		if (file.exists())
+			TownyMessaging.sendErrorMsg("The new day which started at " + describe(file) + " never finished, it is abandoned for this new day.");
+
+		NewDayJournal journal = new NewDayJournal(file, System.currentTimeMillis(), false);
+		long untilNextDay = TownyTimerHandler.townyTime();
+		if (untilNextDay < EARLY_SECONDS)
+			untilNextDay += TownySettings.getDayInterval();
+		journal.due = journal.day + untilNextDay * 1000;
+
+		try {
+			journal.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+			journal.write(DAY, String.valueOf(journal.day));
+			journal.write(DUE, String.valueOf(journal.due));
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not write the new day journal, this new day can't be resumed if it is interrupted: " + e.getMessage());
+			journal.close();
+		}
+		return journal;
+	}
+
+	/**
+	 * Opens the journal of an unfinished new day to carry on with it, used when
+	 * Towny starts. A journal whose next new day has already come is thrown
+	 * away, that new day will be run in its place.
+	 *
+	 * @return the journal to carry on with, or null if there is no new day to resume.
+	 */
+	public static NewDayJournal resume() {
+
+		File file = getFile();
+		NewDayJournal journal = read(file);
+		if (journal == null) {
+			discard(file);
+			return null;
+		}
+
+		if (System.currentTimeMillis() >= journal.due) {
+			TownyMessaging.sendErrorMsg("The new day which started at " + new Date(journal.day) + " never finished and the next new day is due, it won't be resumed.");
+			discard(file);
+			return null;
+		}
+
+		try {
+			journal.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+			// Start on a fresh line, in case the last one was only partly written.
+			journal.writer.newLine();
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not write the new day journal, this new day can't be resumed if it is interrupted again: " + e.getMessage());
+			journal.close();
+		}
+		return journal;
+	}
+
+	/**
+	 * @return the journal in the file, or null if it can't be read.
+	 */
+	private static NewDayJournal read(File file) {
+
+		if (!file.exists())
+			return null;
+
+		NewDayJournal journal = null;
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int split = line.indexOf(':');
+				if (split < 0)
+					continue;
+
+				String key = line.substring(0, split);
+				String value = line.substring(split + 1);
+				if (journal == null) {
+					if (key.equals(DAY))
+						journal = new NewDayJournal(file, Long.parseLong(value), true);
+				} else if (key.equals(DUE)) {
+					journal.due = Long.parseLong(value);
+				} else if (key.equals(DONE)) {
+					journal.completedPhases.add(value);
+				} else if (!value.isEmpty()) {
+					// A line torn by the interruption only names part of an object, which won't match anything.
+					journal.processed.computeIfAbsent(key, k -> new HashSet<>()).add(value);
+				}
+			}
+		} catch (IOException | NumberFormatException e) {
+			TownyMessaging.sendErrorMsg("The new day journal could not be read: " + e.getMessage());
+			return null;
+		}
+		return journal;
+	}
+
+	private static String describe(File file) {
+		NewDayJournal journal = read(file);
+		return journal == null ? "an unknown time" : new Date(journal.day).toString();
+	}
+
+	private static void discard(File file) {
+		try {
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not remove the new day journal: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * @return true if this journal belongs to an interrupted new day.
+	 */
+	public boolean isResumed() {
+		return resumed;
+	}
+
+	/**
+	 * @return when the new day recorded in this journal was started.
+	 */
+	public long getDay() {
+		return day;
+	}
+
+	public boolean isPhaseComplete(String phase) {
+		return completedPhases.contains(phase);
+	}
+
+	public boolean isProcessed(String phase, UUID uuid) {
+		return isProcessed(phase, uuid.toString());
+	}
+
+	/**
+	 * @param phase - Phase, or payment within a phase.
+	 * @param id - Whatever tells apart the objects processed or payers charged.
+	 * @return true if it was recorded before the new day was interrupted.
+	 */
+	public boolean isProcessed(String phase, String id) {
+		Set<String> done = processed.get(phase);
+		return done != null && done.contains(id);
+	}
+
+	public void markProcessed(String phase, UUID uuid) {
+		markProcessed(phase, uuid.toString());
+	}
+
+	public void markProcessed(String phase, String id) {
+		processed.computeIfAbsent(phase, k -> new HashSet<>()).add(id);
+		write(phase, id);
+	}
+
+	public void completePhase(String phase) {
+		completedPhases.add(phase);
+		processed.remove(phase);
+		write(DONE, phase);
+	}
+
+	/**
+	 * Closes and removes the journal, the new day is complete.
+	 */
+	public void finish() {
+		close();
+		discard(file);
+	}
+
+	/**
+	 * Closes the journal, leaving it in place to be resumed.
+	 */
+	public void close() {
+		if (writer == null)
+			return;
+
+		try {
+			writer.close();
+		} catch (IOException ignored) {
+		}
+		writer = null;
+	}
+
+	private void write(String key, String value) {
+		if (writer == null)
+			return;
+
+		try {
+			writer.write(key + ":" + value);
+			writer.newLine();
+			// Flushed every line, an object which has been charged must never be charged again.
+			writer.flush();
+		} catch (IOException e) {
+			TownyMessaging.sendErrorMsg("Could not write to the new day journal: " + e.getMessage());
+		}
+	}
+}
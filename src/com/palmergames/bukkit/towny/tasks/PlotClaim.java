@@ -178,7 +178,6 @@ public class PlotClaim extends Thread {
 		}
 		
 		resident.save();
-		plugin.resetCache();
 
 	}
 
@@ -0,0 +1,86 @@
+package com.palmergames.bukkit.towny.tasks;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownyMessaging;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.regen.PlotBlockData;
+import com.palmergames.bukkit.towny.regen.TownyRegenAPI;
+import com.palmergames.util.TimeTools;
+
+/**
+ * Reverts unclaimed plots to their snapshots, running every tick.
+ *
+ * Each tick the plots take turns, in a round robin, restoring blocks until
+ * the tick budget is used up. Plots whose chunks are not loaded are passed
+ * over, leaving the budget to the plots which are.
+ */
+public class PlotRegenTimerTask extends TownyTimerTask {
+
+	// The most blocks a plot checks before the next plot takes its turn.
+	private static final int BLOCKS_PER_TURN = 1024;
+
+	private long tickCounter = 0L;
+
+	public PlotRegenTimerTask(Towny plugin) {
+
+		super(plugin);
+	}
+
+	@Override
+	public void run() {
+
+		if (!TownyRegenAPI.hasPlotChunks())
+			return;
+
+		int budget = TownySettings.getPlotManagementTickBudget();
+		if (budget <= 0) {
+			restoreNextBlocks();
+			return;
+		}
+
+		long deadline = System.nanoTime() + budget * 1000000L;
+		int skipped = 0;
+		// Stop once the budget is spent, or every plot left has been passed over in a row.
+		while (System.nanoTime() - deadline < 0 && skipped < TownyRegenAPI.getPlotChunks().size()) {
+			PlotBlockData plotChunk = TownyRegenAPI.getNextPlotChunk();
+			if (plotChunk == null)
+				break;
+
+			if (!plotChunk.isChunkLoaded()) {
+				skipped++;
+				continue;
+			}
+			skipped = 0;
+
+			if (!plotChunk.restoreBlocks(BLOCKS_PER_TURN, deadline))
+				finishPlotChunk(plotChunk);
+		}
+	}
+
+	/**
+	 * Reverts a single block in each plot every speed interval, used when there is no tick budget.
+	 */
+	private void restoreNextBlocks() {
+
+		// only execute if the correct amount of time has passed.
+		if (TimeTools.convertToTicks(Math.max(1L, TownySettings.getPlotManagementSpeed())) > ++tickCounter)
+			return;
+		tickCounter = 0L;
+
+		for (int i = TownyRegenAPI.getPlotChunks().size(); i > 0; i--) {
+			PlotBlockData plotChunk = TownyRegenAPI.getNextPlotChunk();
+			if (plotChunk == null)
+				break;
+
+			if (!plotChunk.restoreNextBlock())
+				finishPlotChunk(plotChunk);
+		}
+	}
+
+	private void finishPlotChunk(PlotBlockData plotChunk) {
+
+		TownyMessaging.sendDebugMsg("Revert on unclaim complete for " + plotChunk.getWorldName() + " " + plotChunk.getX() + "," + plotChunk.getZ());
+		TownyRegenAPI.deletePlotChunk(plotChunk);
+		TownyRegenAPI.deletePlotChunkSnapshot(plotChunk);
+	}
+}
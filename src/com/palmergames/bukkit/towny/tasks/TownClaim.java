@@ -143,6 +143,8 @@ public class TownClaim extends Thread {
 
 		if (!towns.isEmpty()) {
 			for (Town test : towns) {
+				// Caches in the claimed or unclaimed townblocks notice the change by themselves.
+				test.markModified();
 				test.save();
 			}
 		}
@@ -153,8 +155,6 @@ public class TownClaim extends Thread {
 			}
 		}
 
-		plugin.resetCache();
-
 		if (player != null) {
 			if (claim) {
 				TownyMessaging.sendMsg(player, Translation.of("msg_annexed_area", (selection.size() > 5) ? "Total TownBlocks: " + selection.size() : Arrays.toString(selection.toArray(new WorldCoord[0]))));
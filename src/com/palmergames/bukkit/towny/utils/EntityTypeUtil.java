@@ -2,6 +2,7 @@ package com.palmergames.bukkit.towny.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 
 import org.bukkit.Material;
@@ -47,6 +48,29 @@ public class EntityTypeUtil {
 		return false;
 	}
 
+	/**
+	 * Work out which entity types are instances of any of the given classes, so
+	 * entities can be matched by their type instead of checking every class.
+	 * 
+	 * @param classes Entity classes, as returned by {@link #parseLivingEntityClassNames(List, String)}.
+	 * @return every EntityType whose entity class is one of, or extends one of, the classes.
+	 */
+	public static EnumSet<EntityType> getEntityTypes(List<Class<?>> classes) {
+
+		EnumSet<EntityType> entityTypes = EnumSet.noneOf(EntityType.class);
+		for (EntityType entityType : EntityType.values()) {
+			Class<?> entityClass = entityType.getEntityClass();
+			if (entityClass == null)
+				continue;
+			for (Class<?> c : classes)
+				if (c.isAssignableFrom(entityClass)) {
+					entityTypes.add(entityType);
+					break;
+				}
+		}
+		return entityTypes;
+	}
+
 	public static List<Class<?>> parseLivingEntityClassNames(List<String> mobClassNames, String errorPrefix) {
 
 		List<Class<?>> livingEntityClasses = new ArrayList<Class<?>>();
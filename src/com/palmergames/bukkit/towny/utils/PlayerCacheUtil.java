@@ -70,38 +70,35 @@ public class PlayerCacheUtil {
 
 		WorldCoord worldCoord;
 
-		try {
-			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
-			if (location.getWorld().equals(player.getWorld())) 
-				worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
-			else 
-				worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
-			PlayerCache cache = plugin.getCache(player);
-			cache.updateCoord(worldCoord);
-
-			TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action); // Throws NullPointerException if the cache is empty
+		// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
+		if (location.getWorld().equals(player.getWorld())) 
+			worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
+		else 
+			worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
 
-		} catch (NullPointerException e) {
-			// New or old cache permission was null, update it
+		PlayerCache cache = plugin.getCache(player);
+		if (cache != null) {
+			cache.updateCoord(worldCoord);
 
-			// Test required for portalCreateEvent in WorldListener, player hasn't changed worlds yet.
-			if (location.getWorld().equals(player.getWorld())) 
-				worldCoord = new WorldCoord(player.getWorld().getName(), Coord.parseCoord(location));
-			else 
-				worldCoord = new WorldCoord(location.getWorld().getName(), Coord.parseCoord(location));
+			// Checked first so that a cache miss doesn't cost a thrown exception.
+			if (cache.hasCachePermission(material, action)) {
+				boolean permission = cache.getCachePermission(material, action);
+				TownyMessaging.sendDebugMsg("Cache permissions for " + action.toString() + " : " + permission);
+				return permission;
+			}
+		}
 
-			TownBlockStatus status = cacheStatus(player, worldCoord, getTownBlockStatus(player, worldCoord));
-			triggerCacheCreate(player, location, worldCoord, status, material, action);
+		// New or old cache permission was null, update it
+		TownBlockStatus status = cacheStatus(player, worldCoord, getTownBlockStatus(player, worldCoord));
+		triggerCacheCreate(player, location, worldCoord, status, material, action);
 
-			PlayerCache cache = plugin.getCache(player);
-			cache.updateCoord(worldCoord);
-			
-			TownyMessaging.sendDebugMsg("New Cache Created and updated!");
+		cache = plugin.getCache(player);
+		cache.updateCoord(worldCoord);
+		
+		TownyMessaging.sendDebugMsg("New Cache Created and updated!");
 
-			TownyMessaging.sendDebugMsg("New Cache permissions for " + material + ":" + action.toString() + ":" + status.name() + " = " + cache.getCachePermission(material, action));
-			return cache.getCachePermission(material, action);
-		}
+		TownyMessaging.sendDebugMsg("New Cache permissions for " + material + ":" + action.toString() + ":" + status.name() + " = " + cache.getCachePermission(material, action));
+		return cache.getCachePermission(material, action);
 	}
 
 	/**
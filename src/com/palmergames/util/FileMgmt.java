@@ -1,5 +1,6 @@
 package com.palmergames.util;
 
+import com.palmergames.bukkit.towny.regen.BlockPalette;
 import com.palmergames.bukkit.towny.regen.PlotBlockData;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
@@ -21,25 +22,97 @@ import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+/**
+ * File helpers used by the flatfile database and backups.
+ * 
+ * Files are written to a temporary file beside their target which is then
+ * renamed over the target, so a reader only ever sees the old or the new
+ * file and never has to wait for a writer. Writers, moves and deletes of the
+ * same path are kept apart by a lock picked from a fixed set of stripes by
+ * the path, leaving writes to different files free to run at the same time.
+ */
 public final class FileMgmt {
 	
-	private static final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
-	private static final Lock readLock = readWriteLock.readLock();
-	private static final Lock writeLock = readWriteLock.writeLock();
+	private static final int LOCK_STRIPES = 64;
+	// Suffix of the temporary files written beside their targets, which backups leave out.
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final Lock[] pathLocks = new Lock[LOCK_STRIPES];
+	
+	static {
+		for (int i = 0; i < LOCK_STRIPES; i++)
+			pathLocks[i] = new ReentrantLock();
+	}
+
+	/**
+	 * Used to write the contents of a file.
+	 */
+	@FunctionalInterface
+	private interface ContentWriter {
+		void write(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * @param file - File about to be written, moved or deleted.
+	 * @return the lock guarding the file's path.
+	 */
+	private static Lock getLock(File file) {
+		int hash = file.getAbsolutePath().hashCode();
+		// Spread the hash so paths differing only in their last characters don't share a stripe.
+		hash ^= (hash >>> 16);
+		return pathLocks[(hash & 0x7fffffff) % LOCK_STRIPES];
+	}
+
+	/**
+	 * Writes to a temporary file beside the target, then moves it over the target.
+	 * 
+	 * @param target - File to write.
+	 * @param writer - Writes the file contents.
+	 * @throws IOException if the file could not be written or moved into place.
+	 */
+	private static void writeAtomically(File target, ContentWriter writer) throws IOException {
+		Lock lock = getLock(target);
+		lock.lock();
+		Path temp = null;
+		try {
+			File parent = target.getAbsoluteFile().getParentFile();
+			temp = Files.createTempFile(parent.toPath(), target.getName() + ".", TEMP_SUFFIX);
+			try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+				writer.write(out);
+				// The contents must be on disk before the rename, or a crash could leave an empty target.
+				out.getFD().sync();
+			}
+			try {
+				Files.move(temp, target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			temp = null;
+		} finally {
+			if (temp != null)
+				Files.deleteIfExists(temp);
+			lock.unlock();
+		}
+	}
 	
 	/**
 	 * Checks a folderPath to see if it exists, if it doesn't it will attempt
@@ -95,22 +168,18 @@ public final class FileMgmt {
 	}
 	
 	private static boolean newDir(File dir) {
-		try {
-			writeLock.lock();
-			return dir.mkdirs();
-		} finally {
-			writeLock.unlock();
-		}
+		return dir.mkdirs() || dir.isDirectory();
 	}
 	
 	private static boolean newFile(File file) {
+		Lock lock = getLock(file);
+		lock.lock();
 		try {
-			writeLock.lock();
 			return file.createNewFile();
 		} catch (IOException e) {
 			return false;
 		} finally {
-			writeLock.unlock();
+			lock.unlock();
 		}
 	}
 	
@@ -132,42 +201,29 @@ public final class FileMgmt {
 
 	// http://www.java-tips.org/java-se-tips/java.io/how-to-copy-a-directory-from-one-location-to-another-loc.html
 	public static void copyDirectory(File sourceLocation, File targetLocation) throws IOException {
-		try {
-			writeLock.lock();
-			if (sourceLocation.isDirectory()) {
-				if (!targetLocation.exists())
-					targetLocation.mkdir();
-
-				String[] children = sourceLocation.list();
-				for (String aChildren : children)
-					copyDirectory(new File(sourceLocation, aChildren), new File(targetLocation, aChildren));
-			} else {
-				OutputStream out = new FileOutputStream(targetLocation);
-				try {
-					InputStream in = new FileInputStream(sourceLocation);
-					// Copy the bits from in stream to out stream.
-					byte[] buf = new byte[1024];
-					int len;
-					while ((len = in.read(buf)) > 0)
-						out.write(buf, 0, len);
-					in.close();
-					out.close();
-				} catch (IOException ex) {
-					// failed to access file.
-					System.out.println("Error: Could not access: " + sourceLocation);
-				}
-				out.close();
+		if (sourceLocation.isDirectory()) {
+			if (!targetLocation.exists())
+				targetLocation.mkdir();
+
+			String[] children = sourceLocation.list();
+			for (String aChildren : children)
+				copyDirectory(new File(sourceLocation, aChildren), new File(targetLocation, aChildren));
+		} else {
+			try {
+				writeAtomically(targetLocation, out -> Files.copy(sourceLocation.toPath(), out));
+			} catch (IOException ex) {
+				// failed to access file.
+				System.out.println("Error: Could not access: " + sourceLocation);
 			}
-		} finally {
-			writeLock.unlock();
 		}
 	}
 
 	public static File unpackResourceFile(String filePath, String resource, String defaultRes) {
+		// open a handle to yml file
+		File file = new File(filePath);
+		Lock lock = getLock(file);
 		try {
-			writeLock.lock();
-			// open a handle to yml file
-			File file = new File(filePath);
+			lock.lock();
 
 			if ((file.exists())/* && (!filePath.contains(FileMgmt.fileSeparator() + defaultRes))*/)
 				return file;
@@ -200,42 +256,37 @@ public final class FileMgmt {
 			return file;
 			
 		} finally {
-			writeLock.unlock();
+			lock.unlock();
 		}
 	}
 
 	// pass a resource name and it will return it's contents as a string
 	public static String convertStreamToString(String name) throws IOException {
 		
-		try {
-			readLock.lock();
-			if (name != null) {
-				Writer writer = new StringWriter();
-				InputStream is = FileMgmt.class.getResourceAsStream(name);
+		if (name != null) {
+			Writer writer = new StringWriter();
+			InputStream is = FileMgmt.class.getResourceAsStream(name);
 
-				char[] buffer = new char[1024];
+			char[] buffer = new char[1024];
+			try {
+				Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+				int n;
+				while ((n = reader.read(buffer)) != -1) {
+					writer.write(buffer, 0, n);
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			} finally {
 				try {
-					Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
-					int n;
-					while ((n = reader.read(buffer)) != -1) {
-						writer.write(buffer, 0, n);
-					}
-				} catch (IOException e) {
-					e.printStackTrace();
-				} finally {
-					try {
-						is.close();
-					} catch (NullPointerException e) {
-						//Failed to open a stream
-						throw new IOException();
-					}
+					is.close();
+				} catch (NullPointerException e) {
+					//Failed to open a stream
+					throw new IOException();
 				}
-				return writer.toString();
-			} else {
-				return "";
 			}
-		} finally {
-			readLock.unlock();
+			return writer.toString();
+		} else {
+			return "";
 		}
 	}
 
@@ -247,28 +298,23 @@ public final class FileMgmt {
 	 * @return Contents of file. String will be empty in case of any errors.
 	 */
 	public static String convertFileToString(File file) {
-		try {
-			readLock.lock();
-			if (file != null && file.exists() && file.canRead() && !file.isDirectory()) {
-				Writer writer = new StringWriter();
-
-				char[] buffer = new char[1024];
-				try (InputStream is = new FileInputStream(file)) {
-					Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
-					int n;
-					while ((n = reader.read(buffer)) != -1) {
-						writer.write(buffer, 0, n);
-					}
-					reader.close();
-				} catch (IOException e) {
-					e.printStackTrace();
+		if (file != null && file.exists() && file.canRead() && !file.isDirectory()) {
+			Writer writer = new StringWriter();
+
+			char[] buffer = new char[1024];
+			try (InputStream is = new FileInputStream(file)) {
+				Reader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+				int n;
+				while ((n = reader.read(buffer)) != -1) {
+					writer.write(buffer, 0, n);
 				}
-				return writer.toString();
-			} else {
-				return "";
+				reader.close();
+			} catch (IOException e) {
+				e.printStackTrace();
 			}
-		} finally {
-			readLock.unlock();
+			return writer.toString();
+		} else {
+			return "";
 		}
 	}
 
@@ -290,17 +336,13 @@ public final class FileMgmt {
 	 */
 	public static void stringToFile(String source, File file) {
 		try {
-			writeLock.lock();
-			try (OutputStreamWriter osw = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
-				 BufferedWriter bufferedWriter = new BufferedWriter(osw)) {
-
+			writeAtomically(file, out -> {
+				BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
 				bufferedWriter.write(source);
-
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-		} finally {
-			writeLock.unlock();
+				bufferedWriter.flush();
+			});
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 	}
 
@@ -313,29 +355,25 @@ public final class FileMgmt {
 	 */
 	public static boolean listToFile(Collection<String> source, String targetLocation) {
 		try {
-			writeLock.lock();
-			File file = new File(targetLocation);
-			try(OutputStreamWriter osw = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
-				BufferedWriter bufferedWriter = new BufferedWriter(osw)) {
-
+			writeAtomically(new File(targetLocation), out -> {
+				BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
 				for (String aSource : source) {
 					bufferedWriter.write(aSource + System.getProperty("line.separator"));
 				}
-
-				return true;
-			} catch (IOException e) {
-				e.printStackTrace();
-				return false;
-			}
-		} finally {
-			writeLock.unlock();
+				bufferedWriter.flush();
+			});
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
 		}
 	}
 
 	// move a file to a sub directory
 	public static void moveFile(File sourceFile, String targetLocation) {
+		Lock lock = getLock(sourceFile);
 		try {
-			writeLock.lock();
+			lock.lock();
 			if (sourceFile.isFile()) {
 				// check for an already existing file of that name
 				File f = new File((sourceFile.getParent() + File.separator + targetLocation + File.separator + sourceFile.getName()));
@@ -345,13 +383,14 @@ public final class FileMgmt {
 				sourceFile.renameTo(new File((sourceFile.getParent() + File.separator + targetLocation), sourceFile.getName()));
 			}
 		} finally {
-			writeLock.unlock();
+			lock.unlock();
 		}
 	}
 	
 	public static void moveTownBlockFile(File sourceFile, String targetLocation, String townDir) {
+		Lock lock = getLock(sourceFile);
 		try {
-			writeLock.lock();
+			lock.lock();
 			if (sourceFile.isFile()) {
 				if (!townDir.isEmpty())
 					checkOrCreateFolder(sourceFile.getParent() + File.separator + "deleted" + File.separator + townDir);
@@ -366,7 +405,7 @@ public final class FileMgmt {
 
 			}
 		} finally {
-			writeLock.unlock();
+			lock.unlock();
 		}
 	}
 	
@@ -376,31 +415,26 @@ public final class FileMgmt {
 	}
 	
 	public static void tar(File destination, File... sources) throws IOException {
-		try {
-			readLock.lock();
-			try (TarArchiveOutputStream archive =
-					 new TarArchiveOutputStream(
-						 new GzipCompressorOutputStream(
-							 new FileOutputStream(destination)))) {
-				for (File source : sources) {
-					Files.walk(source.toPath()).forEach((path -> {
-						File file = path.toFile();
-
-						if (!file.isDirectory()) {
-							TarArchiveEntry entry_1 = new TarArchiveEntry(file, file.toString());
-							try (FileInputStream fis = new FileInputStream(file)) {
-								archive.putArchiveEntry(entry_1);
-								IOUtils.copy(fis, archive);
-								archive.closeArchiveEntry();
-							} catch (IOException e) {
-								e.printStackTrace();
-							}
+		try (TarArchiveOutputStream archive =
+				 new TarArchiveOutputStream(
+					 new GzipCompressorOutputStream(
+						 new FileOutputStream(destination)))) {
+			for (File source : sources) {
+				Files.walk(source.toPath()).forEach((path -> {
+					File file = path.toFile();
+
+					if (!file.isDirectory() && !file.getName().endsWith(TEMP_SUFFIX)) {
+						TarArchiveEntry entry_1 = new TarArchiveEntry(file, file.toString());
+						try (FileInputStream fis = new FileInputStream(file)) {
+							archive.putArchiveEntry(entry_1);
+							IOUtils.copy(fis, archive);
+							archive.closeArchiveEntry();
+						} catch (IOException e) {
+							e.printStackTrace();
 						}
-					}));
-				}
+					}
+				}));
 			}
-		} finally {
-			readLock.unlock();
 		}
 	}
 
@@ -413,58 +447,68 @@ public final class FileMgmt {
 	 */
 	public static void zipFile(File file, String path) {
 		
-		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(path), StandardCharsets.UTF_8)) {
-			writeLock.lock();
-			byte[] buffer = new byte[2056];  // Buffer with which to write the bytes of the zip file.
-			zos.putNextEntry(new ZipEntry(file.getName())); // Place file into zip.
-			try (FileInputStream in = new FileInputStream(file)) { 
-                int len;
-                while ((len = in.read(buffer)) > 0) { // While there is data to write, write up to the buffer.
-                    zos.write(buffer, 0, len);
-                }
-            }			
-		} catch (FileNotFoundException e) {
-			e.printStackTrace();
+		try {
+			writeAtomically(new File(path), out -> {
+				ZipOutputStream zos = new ZipOutputStream(out, StandardCharsets.UTF_8);
+				byte[] buffer = new byte[2056];  // Buffer with which to write the bytes of the zip file.
+				zos.putNextEntry(new ZipEntry(file.getName())); // Place file into zip.
+				try (FileInputStream in = new FileInputStream(file)) { 
+					int len;
+					while ((len = in.read(buffer)) > 0) { // While there is data to write, write up to the buffer.
+						zos.write(buffer, 0, len);
+					}
+				}
+				zos.finish();
+			});
 		} catch (IOException e) {
 			e.printStackTrace();
-		} finally {
-			writeLock.unlock();
 		}
 	}
 	
 	public static void zipDirectories(File destination, File... sourceFolders) throws IOException {
-		try {
-			readLock.lock();
-			ZipOutputStream output = new ZipOutputStream(new FileOutputStream(destination), StandardCharsets.UTF_8);
+		writeAtomically(destination, out -> {
+			ZipOutputStream output = new ZipOutputStream(out, StandardCharsets.UTF_8);
 			for (File sourceFolder : sourceFolders)
 				recursiveZipDirectory(sourceFolder, output);
-			output.close();
-		} finally {
-			readLock.unlock();
-		}
+			output.finish();
+		});
 	}
 
+	/**
+	 * Zip a folder and everything in it. Saves may be running while it is
+	 * zipped, so their temporary files are left out and files which are moved
+	 * or deleted part way through are skipped.
+	 * 
+	 * @param sourceFolder - Folder to zip.
+	 * @param zipStream - Zip to add the files to.
+	 * @throws IOException if the zip could not be written.
+	 */
 	public static void recursiveZipDirectory(File sourceFolder, ZipOutputStream zipStream) throws IOException {
-		try {
-			readLock.lock();
-			String[] dirList = sourceFolder.list();
-			byte[] readBuffer = new byte[2156];
-			int bytesIn;
-			for (String aDirList : dirList) {
-				File f = new File(sourceFolder, aDirList);
-				if (f.isDirectory()) {
-					recursiveZipDirectory(f, zipStream);
-				} else if (f.isFile() && f.canRead()) {
-					FileInputStream input = new FileInputStream(f);
+		String[] dirList = sourceFolder.list();
+		if (dirList == null)
+			// The folder has gone since it was listed.
+			return;
+
+		byte[] readBuffer = new byte[2156];
+		int bytesIn;
+		for (String aDirList : dirList) {
+			if (aDirList.endsWith(TEMP_SUFFIX))
+				continue;
+
+			File f = new File(sourceFolder, aDirList);
+			if (f.isDirectory()) {
+				recursiveZipDirectory(f, zipStream);
+			} else if (f.isFile() && f.canRead()) {
+				// Opened before the entry is added, so a file which has gone leaves no empty entry behind.
+				try (InputStream input = Files.newInputStream(f.toPath())) {
 					ZipEntry anEntry = new ZipEntry(f.getPath());
 					zipStream.putNextEntry(anEntry);
 					while ((bytesIn = input.read(readBuffer)) != -1)
 						zipStream.write(readBuffer, 0, bytesIn);
-					input.close();
+				} catch (NoSuchFileException | FileNotFoundException ignored) {
+					// Moved or deleted since the folder was listed.
 				}
 			}
-		} finally {
-			readLock.unlock();
 		}
 	}
 
@@ -475,25 +519,26 @@ public final class FileMgmt {
 	 * @param file - {@link File} to delete
 	 */
 	public static void deleteFile(File file) {
-		try {
-			writeLock.lock();
-			if (file.isDirectory()) {
-				File[] children = file.listFiles();
-				if (children != null) {
-					for (File child : children)
-						deleteFile(child);
-				}
-				children = file.listFiles();
-				if (children == null || children.length == 0) {
-					if (!file.delete())
-						System.out.println("Error: Could not delete folder: " + file.getPath());
-				}
-			} else if (file.isFile()) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children != null) {
+				for (File child : children)
+					deleteFile(child);
+			}
+			children = file.listFiles();
+			if (children == null || children.length == 0) {
 				if (!file.delete())
+					System.out.println("Error: Could not delete folder: " + file.getPath());
+			}
+		} else {
+			Lock lock = getLock(file);
+			try {
+				lock.lock();
+				if (file.isFile() && !file.delete())
 					System.out.println("Error: Could not delete file: " + file.getPath());
+			} finally {
+				lock.unlock();
 			}
-		} finally {
-			writeLock.unlock();
 		}
 	}
 
@@ -505,43 +550,37 @@ public final class FileMgmt {
 	 * @param deleteAfter - Maximum age of files, in milliseconds
 	 */
 	public static void deleteOldBackups(File backupsDir, long deleteAfter) {
-		try {
-			writeLock.lock();
-
-			TreeSet<Long> deleted = new TreeSet<>();
-			if (backupsDir.isDirectory()) {
-				File[] children = backupsDir.listFiles();
-				if (children != null) {
-					for (File child : children) {
-						try {
-							String filename = child.getName();
-							if (child.isFile()) {
-								if (filename.contains("."))
-									filename = filename.split("\\.")[0];
-							}
-							String[] tokens = filename.split(" ");
-							String lastToken = tokens[tokens.length - 1];
-							long timeMade = Long.parseLong(lastToken);
-
-							if (timeMade >= 0) {
-								long age = System.currentTimeMillis() - timeMade;
-								if (age >= deleteAfter) {
-									deleteFile(child);
-									deleted.add(age);
-								}
+		TreeSet<Long> deleted = new TreeSet<>();
+		if (backupsDir.isDirectory()) {
+			File[] children = backupsDir.listFiles();
+			if (children != null) {
+				for (File child : children) {
+					try {
+						String filename = child.getName();
+						if (child.isFile()) {
+							if (filename.contains("."))
+								filename = filename.split("\\.")[0];
+						}
+						String[] tokens = filename.split(" ");
+						String lastToken = tokens[tokens.length - 1];
+						long timeMade = Long.parseLong(lastToken);
+
+						if (timeMade >= 0) {
+							long age = System.currentTimeMillis() - timeMade;
+							if (age >= deleteAfter) {
+								deleteFile(child);
+								deleted.add(age);
 							}
-						} catch (Exception e) {
-							// Ignore file as it doesn't follow the backup format.
 						}
+					} catch (Exception e) {
+						// Ignore file as it doesn't follow the backup format.
 					}
 				}
 			}
+		}
 
-			if (deleted.size() > 0) {
-				System.out.println(String.format("[Towny] Deleting %d Old Backups (%s).", deleted.size(), (deleted.size() > 1 ? String.format("%d-%d days old", TimeUnit.MILLISECONDS.toDays(deleted.first()), TimeUnit.MILLISECONDS.toDays(deleted.last())) : String.format("%d days old", TimeUnit.MILLISECONDS.toDays(deleted.first())))));
-			}
-		} finally {
-			writeLock.unlock();
+		if (deleted.size() > 0) {
+			System.out.println(String.format("[Towny] Deleting %d Old Backups (%s).", deleted.size(), (deleted.size() > 1 ? String.format("%d-%d days old", TimeUnit.MILLISECONDS.toDays(deleted.first()), TimeUnit.MILLISECONDS.toDays(deleted.last())) : String.format("%d days old", TimeUnit.MILLISECONDS.toDays(deleted.first())))));
 		}
 	}
 
@@ -553,24 +592,40 @@ public final class FileMgmt {
 	 */
 	public static HashMap<String, String> loadFileIntoHashMap(File file) {
 		
-		try {
-			readLock.lock();
-			HashMap<String, String> keys = new HashMap<>();
-			try (FileInputStream fis = new FileInputStream(file);
-				 InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8)) {
-				Properties properties = new Properties();
-				properties.load(isr);
-				for (String key : properties.stringPropertyNames()) {
-					String value = properties.getProperty(key);
-					keys.put(key, String.valueOf(value));
-				}
-			} catch (IOException e) {
-				e.printStackTrace();
+		return readProperties(file);
+	}
+
+	/**
+	 * Reads many object files at once, spread over the common fork-join pool.
+	 * Files which do not exist are left out of the returned map.
+	 *
+	 * @param files - Files from which the HashMaps will be made.
+	 * @return Map of each file to its keys and values.
+	 */
+	public static Map<File, HashMap<String, String>> loadFilesIntoHashMaps(Collection<File> files) {
+
+		Map<File, HashMap<String, String>> loaded = new ConcurrentHashMap<>(files.size());
+		files.parallelStream()
+			.filter(File::isFile)
+			.forEach(file -> loaded.put(file, readProperties(file)));
+		return loaded;
+	}
+
+	private static HashMap<String, String> readProperties(File file) {
+
+		HashMap<String, String> keys = new HashMap<>();
+		try (FileInputStream fis = new FileInputStream(file);
+			 InputStreamReader isr = new InputStreamReader(fis, StandardCharsets.UTF_8)) {
+			Properties properties = new Properties();
+			properties.load(isr);
+			for (String key : properties.stringPropertyNames()) {
+				String value = properties.getProperty(key);
+				keys.put(key, String.valueOf(value));
 			}
-			return keys;
-		} finally {
-			readLock.unlock();
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
+		return keys;
 	}
 	
 	/**
@@ -582,23 +637,44 @@ public final class FileMgmt {
 	 */
 	public static void savePlotData(PlotBlockData data, File file, String path) {
 		checkOrCreateFolder(file.getPath()); // Make the folder if it doesn't exist.
-		try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(path), StandardCharsets.UTF_8)) {
-			writeLock.lock();
-			output.putNextEntry(new ZipEntry(data.getX() + "_" + data.getZ() + "_" + data.getSize() + ".data")); // Create x_z_size.data file inside of .zip
-			try (DataOutputStream fout = new DataOutputStream(output)) {
-				// Data version goes first.
-				fout.write("VER".getBytes(StandardCharsets.UTF_8));
-				fout.write(data.getVersion());
-				// Write the plot height (who knows Mojang might change it a second time.
-				fout.writeInt(data.getHeight());
-				// Write the actual blocks with their BlockData included.
-				for (String block : new ArrayList<>(data.getBlockList()))
-					fout.writeUTF(block);
-			}
+		try {
+			writeAtomically(new File(path), out -> {
+				ZipOutputStream output = new ZipOutputStream(out, StandardCharsets.UTF_8);
+				output.putNextEntry(new ZipEntry(data.getX() + "_" + data.getZ() + "_" + data.getSize() + ".data")); // Create x_z_size.data file inside of .zip
+				try (DataOutputStream fout = new DataOutputStream(output)) {
+					// Data version goes first.
+					fout.write("VER".getBytes(StandardCharsets.UTF_8));
+					fout.write(data.getVersion());
+					// Write the plot height (who knows Mojang might change it a second time.
+					fout.writeInt(data.getHeight());
+					BlockPalette blocks = data.getBlocks();
+					if (data.getVersion() >= 5) {
+						// Write each distinct block once, with its BlockData included.
+						List<String> palette = blocks.getPalette();
+						fout.writeInt(palette.size());
+						for (String block : palette)
+							fout.writeUTF(block);
+						// Write the blocks as runs of palette indexes.
+						fout.writeInt(blocks.size());
+						int i = 0;
+						while (i < blocks.size()) {
+							int paletteIndex = blocks.getPaletteIndex(i);
+							int run = 1;
+							while (i + run < blocks.size() && blocks.getPaletteIndex(i + run) == paletteIndex)
+								run++;
+							fout.writeInt(paletteIndex);
+							fout.writeInt(run);
+							i += run;
+						}
+					} else {
+						// Older snapshots keep their original layout of one string per block.
+						for (int i = 0; i < blocks.size(); i++)
+							fout.writeUTF(blocks.get(i));
+					}
+				}
+			});
 		} catch (IOException e1) {
 			e1.printStackTrace();
-		} finally {
-			writeLock.unlock();
 		}
 	}
 
@@ -0,0 +1,246 @@
+package com.palmergames.util;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Open-addressing hash map keyed on primitive longs, avoiding the boxing and
+ * key object allocation a {@link java.util.HashMap} would need.
+ *
+ * Lookups are lock-free in the common case (optimistic reads which are
+ * retried under a read lock if a write raced them), writes are serialised.
+ * Null values are not supported, null is used to signal a missing key.
+ *
+ * @param <V> type of value stored.
+ */
+public class LongObjectMap<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.6f;
+
+	/**
+	 * Keys and values are swapped as a unit on resize so that a racing reader
+	 * never indexes arrays of mismatched length.
+	 */
+	private static final class Table {
+		final long[] keys;
+		final Object[] values;
+		final int mask;
+
+		Table(int capacity) {
+			keys = new long[capacity];
+			values = new Object[capacity];
+			mask = capacity - 1;
+		}
+	}
+
+	private final StampedLock lock = new StampedLock();
+	private volatile Table table;
+	private int size;
+	private int resizeAt;
+
+	public LongObjectMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public LongObjectMap(int expectedSize) {
+		int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR));
+		table = new Table(capacity);
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	/**
+	 * Packs two ints into a single long key.
+	 *
+	 * @param x first int, stored in the high bits.
+	 * @param z second int, stored in the low bits.
+	 * @return packed key.
+	 */
+	public static long pack(int x, int z) {
+		return ((long) x << 32) | (z & 0xFFFFFFFFL);
+	}
+
+	public V get(long key) {
+		long stamp = lock.tryOptimisticRead();
+		if (stamp != 0L) {
+			V value = find(table, key);
+			if (lock.validate(stamp))
+				return value;
+		}
+
+		stamp = lock.readLock();
+		try {
+			return find(table, key);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * @param key key to store the value under.
+	 * @param value non-null value.
+	 * @return the previous value stored under the key, or null.
+	 */
+	public V put(long key, V value) {
+		if (value == null)
+			throw new IllegalArgumentException("Null values are not supported.");
+
+		long stamp = lock.writeLock();
+		try {
+			Table t = table;
+			int slot = mix(key) & t.mask;
+			while (t.values[slot] != null) {
+				if (t.keys[slot] == key) {
+					@SuppressWarnings("unchecked")
+					V old = (V) t.values[slot];
+					t.values[slot] = value;
+					return old;
+				}
+				slot = (slot + 1) & t.mask;
+			}
+			t.keys[slot] = key;
+			t.values[slot] = value;
+			if (++size > resizeAt)
+				resize(t.keys.length << 1);
+			return null;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * @param key key to remove.
+	 * @return the value which was stored under the key, or null.
+	 */
+	public V remove(long key) {
+		long stamp = lock.writeLock();
+		try {
+			Table t = table;
+			int slot = mix(key) & t.mask;
+			while (t.values[slot] != null) {
+				if (t.keys[slot] == key) {
+					@SuppressWarnings("unchecked")
+					V old = (V) t.values[slot];
+					shiftBack(t, slot);
+					size--;
+					return old;
+				}
+				slot = (slot + 1) & t.mask;
+			}
+			return null;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			table = new Table(DEFAULT_CAPACITY);
+			resizeAt = (int) (DEFAULT_CAPACITY * LOAD_FACTOR);
+			size = 0;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	public int size() {
+		long stamp = lock.readLock();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Runs the given action on every value, under the read lock.
+	 *
+	 * @param action Consumer to run.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachValue(Consumer<? super V> action) {
+		long stamp = lock.readLock();
+		try {
+			for (Object value : table.values)
+				if (value != null)
+					action.accept((V) value);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private V find(Table t, long key) {
+		int slot = mix(key) & t.mask;
+		// Bounded so that a torn optimistic read can never spin forever.
+		for (int probes = 0; probes <= t.mask; probes++) {
+			Object value = t.values[slot];
+			if (value == null)
+				return null;
+			if (t.keys[slot] == key)
+				return (V) value;
+			slot = (slot + 1) & t.mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Backward-shift deletion, keeps probe chains intact without tombstones.
+	 */
+	private void shiftBack(Table t, int gap) {
+		int slot = gap;
+		while (true) {
+			slot = (slot + 1) & t.mask;
+			Object value = t.values[slot];
+			if (value == null)
+				break;
+			int ideal = mix(t.keys[slot]) & t.mask;
+			// Move the entry into the gap if its ideal slot does not lie cyclically in (gap, slot].
+			if (((slot - ideal) & t.mask) >= ((slot - gap) & t.mask)) {
+				t.keys[gap] = t.keys[slot];
+				t.values[gap] = value;
+				gap = slot;
+			}
+		}
+		t.values[gap] = null;
+		t.keys[gap] = 0L;
+	}
+
+	private void resize(int capacity) {
+		Table old = table;
+		Table t = new Table(capacity);
+		for (int i = 0; i < old.values.length; i++) {
+			Object value = old.values[i];
+			if (value == null)
+				continue;
+			int slot = mix(old.keys[i]) & t.mask;
+			while (t.values[slot] != null)
+				slot = (slot + 1) & t.mask;
+			t.keys[slot] = old.keys[i];
+			t.values[slot] = value;
+		}
+		table = t;
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private static int mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	private static int tableSizeFor(int n) {
+		int capacity = Integer.highestOneBit(Math.max(n, 2) - 1) << 1;
+		return Math.max(capacity, DEFAULT_CAPACITY);
+	}
+}
@@ -0,0 +1,251 @@
+package com.palmergames.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Buckets values by their x/z cell into square grid buckets so that
+ * nearest-value queries only visit the buckets around the query point.
+ *
+ * Searches walk outwards ring by ring from the query bucket and stop as soon
+ * as no unvisited bucket could hold anything closer. If the rings grow past
+ * the number of occupied buckets the search switches to visiting every
+ * occupied bucket, skipping those which can't beat the best distance found,
+ * so sparse grids are never walked cell by cell.
+ *
+ * @param <T> type of value stored.
+ */
+public class SpatialGrid<T> {
+
+	// Buckets are 16x16 cells.
+	private static final int BUCKET_SHIFT = 4;
+	private static final int BUCKET_SIZE = 1 << BUCKET_SHIFT;
+
+	private static final class Entry<T> {
+		final int x, z;
+		final T value;
+
+		Entry(int x, int z, T value) {
+			this.x = x;
+			this.z = z;
+			this.value = value;
+		}
+	}
+
+	private static final class Bucket<T> {
+		final int bucketX, bucketZ;
+		final List<Entry<T>> entries = new ArrayList<>();
+
+		Bucket(int bucketX, int bucketZ) {
+			this.bucketX = bucketX;
+			this.bucketZ = bucketZ;
+		}
+	}
+
+	private final LongObjectMap<Bucket<T>> buckets = new LongObjectMap<>();
+	private int size = 0;
+
+	/**
+	 * Adds a value at the given cell, a value may be added more than once.
+	 *
+	 * @param x cell x.
+	 * @param z cell z.
+	 * @param value value to add.
+	 */
+	public synchronized void add(int x, int z, T value) {
+		int bucketX = x >> BUCKET_SHIFT, bucketZ = z >> BUCKET_SHIFT;
+		long key = LongObjectMap.pack(bucketX, bucketZ);
+		Bucket<T> bucket = buckets.get(key);
+		if (bucket == null) {
+			bucket = new Bucket<>(bucketX, bucketZ);
+			buckets.put(key, bucket);
+		}
+		bucket.entries.add(new Entry<>(x, z, value));
+		size++;
+	}
+
+	/**
+	 * Removes a value from the given cell.
+	 *
+	 * @param x cell x.
+	 * @param z cell z.
+	 * @param value value to remove, compared by identity.
+	 * @return true if the value was found.
+	 */
+	public synchronized boolean remove(int x, int z, T value) {
+		long key = LongObjectMap.pack(x >> BUCKET_SHIFT, z >> BUCKET_SHIFT);
+		Bucket<T> bucket = buckets.get(key);
+		if (bucket == null)
+			return false;
+
+		for (int i = 0; i < bucket.entries.size(); i++) {
+			Entry<T> entry = bucket.entries.get(i);
+			if (entry.x == x && entry.z == z && entry.value == value) {
+				bucket.entries.remove(i);
+				if (bucket.entries.isEmpty())
+					buckets.remove(key);
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public synchronized void clear() {
+		buckets.clear();
+		size = 0;
+	}
+
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the squared distance, in cells, from the given cell to the nearest
+	 * value accepted by the filter.
+	 *
+	 * @param x cell x.
+	 * @param z cell z.
+	 * @param filter only values passing this filter are considered.
+	 * @return the squared distance, or -1 if no value passes the filter.
+	 */
+	public synchronized long nearestDistanceSquared(int x, int z, Predicate<? super T> filter) {
+		Entry<T> nearest = nearestEntry(x, z, filter);
+		return nearest == null ? -1 : distanceSquared(x, z, nearest.x, nearest.z);
+	}
+
+	/**
+	 * Finds the nearest value to the given cell accepted by the filter.
+	 *
+	 * @param x cell x.
+	 * @param z cell z.
+	 * @param filter only values passing this filter are considered.
+	 * @return the nearest value, or null if no value passes the filter.
+	 */
+	public synchronized T nearest(int x, int z, Predicate<? super T> filter) {
+		Entry<T> nearest = nearestEntry(x, z, filter);
+		return nearest == null ? null : nearest.value;
+	}
+
+	/**
+	 * Passes every value inside the given area, bounds inclusive, to the action.
+	 *
+	 * @param minX lowest cell x.
+	 * @param minZ lowest cell z.
+	 * @param maxX highest cell x.
+	 * @param maxZ highest cell z.
+	 * @param action called for each value in the area.
+	 */
+	public synchronized void forEachWithin(int minX, int minZ, int maxX, int maxZ, Consumer<? super T> action) {
+		if (size == 0 || minX > maxX || minZ > maxZ)
+			return;
+
+		int minBucketX = minX >> BUCKET_SHIFT, minBucketZ = minZ >> BUCKET_SHIFT;
+		int maxBucketX = maxX >> BUCKET_SHIFT, maxBucketZ = maxZ >> BUCKET_SHIFT;
+
+		// Looking at every occupied bucket is cheaper than walking a large, mostly empty area.
+		if ((long) (maxBucketX - minBucketX + 1) * (maxBucketZ - minBucketZ + 1) > buckets.size()) {
+			buckets.forEachValue(bucket -> {
+				if (bucket.bucketX >= minBucketX && bucket.bucketX <= maxBucketX && bucket.bucketZ >= minBucketZ && bucket.bucketZ <= maxBucketZ)
+					acceptWithin(bucket, minX, minZ, maxX, maxZ, action);
+			});
+			return;
+		}
+
+		for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++)
+			for (int bucketZ = minBucketZ; bucketZ <= maxBucketZ; bucketZ++) {
+				Bucket<T> bucket = buckets.get(LongObjectMap.pack(bucketX, bucketZ));
+				if (bucket != null)
+					acceptWithin(bucket, minX, minZ, maxX, maxZ, action);
+			}
+	}
+
+	private static <T> void acceptWithin(Bucket<T> bucket, int minX, int minZ, int maxX, int maxZ, Consumer<? super T> action) {
+		for (Entry<T> entry : bucket.entries)
+			if (entry.x >= minX && entry.x <= maxX && entry.z >= minZ && entry.z <= maxZ)
+				action.accept(entry.value);
+	}
+
+	private Entry<T> nearestEntry(int x, int z, Predicate<? super T> filter) {
+		if (size == 0)
+			return null;
+
+		int centreX = x >> BUCKET_SHIFT, centreZ = z >> BUCKET_SHIFT;
+		int occupied = buckets.size();
+		int visited = 0;
+		Nearest<T> best = new Nearest<>();
+
+		for (int ring = 0; ; ring++) {
+			// Nothing in this ring, or any further out, can be closer than this.
+			long bound = ring == 0 ? 0 : (long) (ring - 1) * BUCKET_SIZE + 1;
+			if (best.entry != null && best.distanceSquared <= bound * bound)
+				return best.entry;
+
+			// Walking the rings has cost more than looking at every occupied bucket would.
+			if (visited > occupied)
+				break;
+
+			if (ring == 0) {
+				visited++;
+				searchBucket(centreX, centreZ, x, z, filter, best);
+				continue;
+			}
+			for (int i = -ring; i <= ring; i++) {
+				searchBucket(centreX + i, centreZ - ring, x, z, filter, best);
+				searchBucket(centreX + i, centreZ + ring, x, z, filter, best);
+			}
+			for (int i = -ring + 1; i < ring; i++) {
+				searchBucket(centreX - ring, centreZ + i, x, z, filter, best);
+				searchBucket(centreX + ring, centreZ + i, x, z, filter, best);
+			}
+			visited += ring * 8;
+		}
+
+		buckets.forEachValue(bucket -> {
+			if (best.entry != null && bucketDistanceSquared(bucket, x, z) >= best.distanceSquared)
+				return;
+			searchEntries(bucket, x, z, filter, best);
+		});
+		return best.entry;
+	}
+
+	private void searchBucket(int bucketX, int bucketZ, int x, int z, Predicate<? super T> filter, Nearest<T> best) {
+		Bucket<T> bucket = buckets.get(LongObjectMap.pack(bucketX, bucketZ));
+		if (bucket != null)
+			searchEntries(bucket, x, z, filter, best);
+	}
+
+	private static <T> void searchEntries(Bucket<T> bucket, int x, int z, Predicate<? super T> filter, Nearest<T> best) {
+		for (Entry<T> entry : bucket.entries) {
+			long distanceSquared = distanceSquared(x, z, entry.x, entry.z);
+			if (best.entry != null && distanceSquared >= best.distanceSquared)
+				continue;
+			if (!filter.test(entry.value))
+				continue;
+			best.entry = entry;
+			best.distanceSquared = distanceSquared;
+		}
+	}
+
+	/**
+	 * @return the squared distance from the cell to the closest cell the bucket covers.
+	 */
+	private static long bucketDistanceSquared(Bucket<?> bucket, int x, int z) {
+		int minX = bucket.bucketX << BUCKET_SHIFT, minZ = bucket.bucketZ << BUCKET_SHIFT;
+		long dx = Math.max(0, Math.max(minX - x, x - (minX + BUCKET_SIZE - 1)));
+		long dz = Math.max(0, Math.max(minZ - z, z - (minZ + BUCKET_SIZE - 1)));
+		return dx * dx + dz * dz;
+	}
+
+	private static long distanceSquared(int x1, int z1, int x2, int z2) {
+		long dx = (long) x1 - x2, dz = (long) z1 - z2;
+		return dx * dx + dz * dz;
+	}
+
+	private static final class Nearest<T> {
+		Entry<T> entry;
+		long distanceSquared;
+	}
+}
@@ -1,32 +1,36 @@
 package com.palmergames.util;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
 
 /**
- * Dynamic trie structure that can add/remove keys and recursively get matching strings for a key 
- * 
+ * Dynamic trie structure that can add/remove keys and get matching strings for a key
+ *
+ * Children are kept in arrays sorted by lower case character, so every case of a
+ * character sits together and is found by binary search. A node's children array is
+ * never changed once it is in the trie, adding or removing a child replaces the whole
+ * array. Keys are added and removed one at a time, while any number of threads can
+ * search the trie without locking.
+ *
  * @author stzups
  */
 public class Trie {
 
 	private static final int MAX_RETURNS = 100;
+	private static final TrieNode[] NO_CHILDREN = new TrieNode[0];
+
 	/**
 	 * TrieNode implementation that handles any character and keeps track of its own children and character
 	 */
 	public static class TrieNode {
-		List<TrieNode> children = new ArrayList<>();
-		char character;
-		boolean endOfWord = false;
+		final char character;
+		final char lowerCase;
+		volatile TrieNode[] children = NO_CHILDREN;
+		volatile boolean endOfWord = false;
 
 		TrieNode(char character) {
 			this.character = character;
+			this.lowerCase = Character.toLowerCase(character);
 		}
 	}
 
@@ -41,179 +45,182 @@ public class Trie {
 
 	/**
 	 * Adds and links new TrieNodes to the trie for each character in the string
-	 * 
+	 *
 	 * @param key key to add to trie, can be longer than one character
 	 */
-	public void addKey(String key) {
+	public synchronized void addKey(String key) {
+
+		if (key == null || key.isEmpty())
+			return;
+
 		// Current trieNode to crawl through
 		TrieNode trieNode = root;
 
 		// Loop through each character of key
 		for (int i = 0; i < key.length(); i++) {
-			char index = key.charAt(i);
-
-			TrieNode lastNode = trieNode;
-			trieNode = null;
-			for (TrieNode node : lastNode.children) {
-				if (node.character == index) {
-					trieNode = node;
-					break;
-				}
-			}
-
-			if (trieNode == null) {
-				trieNode = new TrieNode(index);
-				lastNode.children.add(trieNode); // Put this node as one of lastNode's children
-
-				if (i == key.length() - 1) { // Check if this is the last character of the key, indicating a word ending
-					trieNode.endOfWord = true;
-				}
+			char character = key.charAt(i);
+			TrieNode[] children = trieNode.children;
+			int index = indexOf(children, character);
+
+			if (index >= 0) {
+				trieNode = children[index];
+			} else {
+				// Put a new node in lastNode's children, in its sorted place.
+				index = -index - 1;
+				TrieNode node = new TrieNode(character);
+				TrieNode[] newChildren = new TrieNode[children.length + 1];
+				System.arraycopy(children, 0, newChildren, 0, index);
+				newChildren[index] = node;
+				System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+				trieNode.children = newChildren;
+				trieNode = node;
 			}
 		}
+
+		// The last character of the key is a word ending, even when the key is the start of a longer one.
+		trieNode.endOfWord = true;
 	}
 
 	/**
 	 * Removes TrieNodes for a key
-	 * 
+	 *
 	 * @param key key to remove
 	 */
-	public void removeKey(String key) {
-		
+	public synchronized void removeKey(String key) {
+
 		// Fast-fail if empty / null
 		if (key == null || key.isEmpty())
 			return;
-		
-		Queue<TrieNode> found = Collections.asLifoQueue(new LinkedList<>());
 
-		// Build a stack of nodes matching the key
-		TrieNode lastNode = root;
+		// Build the path of nodes matching the key, path[0] being the root.
+		TrieNode[] path = new TrieNode[key.length() + 1];
+		path[0] = root;
 		for (int i = 0; i < key.length(); i++) {
-			char currChar = key.charAt(i);
-			// Search for the node matching the character
-			TrieNode charNode = null;
-			for (TrieNode loopNode : lastNode.children) {
-				if (loopNode.character == currChar) {
-					charNode = loopNode;
-					// There should only be one so we can fast-exit.
-					break;
-				}
-			}
-			if (charNode != null) {
-				found.add(charNode);
-				lastNode = charNode;
-			}
-			else
-				break;
+			TrieNode[] children = path[i].children;
+			int index = indexOf(children, key.charAt(i));
+			// The key isn't in the trie.
+			if (index < 0)
+				return;
+			path[i + 1] = children[index];
 		}
-		
-		// Something clearly went wrong if this is the case.
-		if (found.isEmpty() ||
-			(found.peek().character != key.charAt(key.length() - 1)))
-			return;
-		
+
 		// Removal Part
-		
-		// Get the node matching the last character of the key.
-		TrieNode lastCharNode = found.poll();
-		// Set end of word to false
-		lastCharNode.endOfWord = false;
-		// Only remove the previous nodes if there are no children
-		if (lastCharNode.children.isEmpty()) {
-			char lastChar = lastCharNode.character;
-			while (!found.isEmpty()) {
-				lastCharNode = found.poll();
-				Iterator<TrieNode> nodeIterator = lastCharNode.children.iterator();
-				while (nodeIterator.hasNext()) {
-					if (nodeIterator.next().character == lastChar) {
-						nodeIterator.remove();
-						break;
-					}
-				}
-
-				if (lastCharNode.endOfWord || !lastCharNode.children.isEmpty())
-					break;
-				
-				lastChar = lastCharNode.character;
-			}
+
+		path[key.length()].endOfWord = false;
+		// Remove nodes which no longer lead to any word, from the end of the key back.
+		for (int i = key.length(); i > 0; i--) {
+			TrieNode node = path[i];
+			if (node.endOfWord || node.children.length > 0)
+				break;
+
+			TrieNode parent = path[i - 1];
+			TrieNode[] children = parent.children;
+			int index = indexOf(children, node.character);
+			if (index < 0)
+				break;
+
+			TrieNode[] newChildren = new TrieNode[children.length - 1];
+			System.arraycopy(children, 0, newChildren, 0, index);
+			System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+			parent.children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
 		}
 	}
 
 	/**
-	 * Gets all matching strings and their children for a key
-	 * 
+	 * Gets matching strings for a key, ignoring case. Matches are found
+	 * one at a time, stopping once there are enough.
+	 *
 	 * @param key string to search for in tree
-	 * @return matching strings and their children
+	 * @return up to MAX_RETURNS strings starting with the key
 	 */
 	public List<String> getStringsFromKey(String key) {
-		// Empty key means find all nodes, starting from the root node
-		if (key.length() == 0) {
-			return getChildrenStrings(root, new ArrayList<>());
-		}
 
 		List<String> strings = new ArrayList<>();
+		StringBuilder path = new StringBuilder(key.length() + 16);
+		// Empty key means find all nodes, starting from the root node
+		findMatches(root, key, 0, path, strings);
+		return strings;
+	}
 
-		Map<TrieNode, String> nodes = new HashMap<>(); // Contains a key for each TrieNode
-		nodes.put(root, ""); // Start with the root node
-
-		for (int i = 0; i < key.length(); i++) {
-			Map<TrieNode, String> newNodes = new HashMap<>(); // An updated version of nodes, will not contain the old values
-			char index = Character.toLowerCase(key.charAt(i));
-
-			for (Map.Entry<TrieNode, String> entry : nodes.entrySet()) { // Loop through the old nodes
-
-				for (TrieNode node : entry.getKey().children) {
-
-					if (Character.toLowerCase(node.character) == index) {
-						String realKey = entry.getValue()+node.character;
-						newNodes.put(node, realKey); // entry.getValue is the old key for the node, for example "bana" as entry.getValue() and "n" as listNode.character resulting in "banan" for listNode
+	/**
+	 * Follow every child matching the next character of the key, whatever its case.
+	 *
+	 * @return false once enough strings have been found.
+	 */
+	private static boolean findMatches(TrieNode node, String key, int depth, StringBuilder path, List<String> found) {
+
+		if (depth == key.length())
+			return addWords(node, path, found);
+
+		char lowerCase = Character.toLowerCase(key.charAt(depth));
+		TrieNode[] children = node.children;
+		for (int i = firstIndexOf(children, lowerCase); i < children.length && children[i].lowerCase == lowerCase; i++) {
+			path.append(children[i].character);
+			boolean more = findMatches(children[i], key, depth + 1, path, found);
+			path.setLength(path.length() - 1);
+			if (!more)
+				return false;
+		}
+		return true;
+	}
 
-						if (i == key.length() - 1) { // Check if this is the last character of the key, indicating a word ending. From here we need to find all the possible children
+	/**
+	 * Add the words ending at a node and below it, in character order.
+	 *
+	 * @return false once enough strings have been found.
+	 */
+	private static boolean addWords(TrieNode node, StringBuilder path, List<String> found) {
 
-							for (String string : getChildrenStrings(node, new ArrayList<>())) { // Recursively find all children
-								strings.add(realKey + string); // Add the key to the front of each child string
-							}
-						}
-					}
-				}
-			}
-			nodes = newNodes;
+		if (node.endOfWord) {
+			found.add(path.toString());
+			if (found.size() >= MAX_RETURNS)
+				return false;
 		}
 
-		return strings;
+		for (TrieNode child : node.children) {
+			path.append(child.character);
+			boolean more = addWords(child, path, found);
+			path.setLength(path.length() - 1);
+			if (!more)
+				return false;
+		}
+		return true;
 	}
 
 	/**
-	 * Recursively find all children of a TrieNode, and add to a list of strings
-	 * 
-	 * @param find the current TrieNode to search through its own children
-	 * @param found strings that have already been found
-	 * @return strings of all children found, with this TrieNode's character in front of each string
+	 * @return the index of the child with exactly this character, or (-(insertion point) - 1) if there isn't one.
 	 */
-	private static List<String> getChildrenStrings(TrieNode find, List<String> found) {
-		
-		List<String> childrenStrings = new ArrayList<>(); // Create re-usable list to prevent object allocation
-		for (TrieNode trieNode : find.children) { // Loop through each child
-
-			if (found.size() + 1 > MAX_RETURNS) {
-				return found;
-			}
-			
-			if (trieNode.endOfWord) // End of the word, so explicitly add this character.
-				found.add(String.valueOf(trieNode.character));
-			
-			// Only get children if the node has children.
-			if (!trieNode.children.isEmpty()) {
-				childrenStrings.clear();
-				for (String string : getChildrenStrings(trieNode, childrenStrings)) {
-					if (found.size() + 1 > MAX_RETURNS) {
-						return found;
-					} else {
-						found.add(trieNode.character + string);
-					}
-				}
-			}
+	private static int indexOf(TrieNode[] children, char character) {
+		char lowerCase = Character.toLowerCase(character);
+		int low = 0;
+		int high = children.length - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			TrieNode node = children[mid];
+			int compare = node.lowerCase != lowerCase ? Character.compare(node.lowerCase, lowerCase) : Character.compare(node.character, character);
+			if (compare < 0)
+				low = mid + 1;
+			else if (compare > 0)
+				high = mid - 1;
+			else
+				return mid;
 		}
+		return -(low + 1);
+	}
 
-		return found;
+	/**
+	 * @return the index of the first child which is any case of the character, or where it would be.
+	 */
+	private static int firstIndexOf(TrieNode[] children, char lowerCase) {
+		int low = 0;
+		int high = children.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (children[mid].lowerCase < lowerCase)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		return low;
 	}
 }
@@ -0,0 +1,141 @@
+package com.palmergames.bukkit.towny.db;
+
+import com.palmergames.bukkit.towny.Towny;
+import com.palmergames.bukkit.towny.TownySettings;
+import com.palmergames.bukkit.towny.TownyUniverse;
+import com.palmergames.bukkit.towny.object.Resident;
+import com.palmergames.bukkit.util.BukkitTools;
+import org.bukkit.Server;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_MOCKS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Saves, loads and deletes through {@link TownySQLSource} against an embedded
+ * H2 database, so the SQL path can be checked without a MySQL server.
+ *
+ * Every step closes the source and opens a new one on the same database file,
+ * the way Towny would across a restart. The server is mocked, scheduled tasks
+ * never run, queued writes are written by {@link TownySQLSource#finishTasks()}.
+ */
+class TownySQLSourceH2Test {
+
+	@TempDir
+	static Path pluginFolder;
+
+	private TownyUniverse universe;
+	private TownySQLSource source;
+
+	@BeforeAll
+	static void setUpServer() throws Exception {
+		Server server = mock(Server.class);
+		when(server.getLogger()).thenReturn(Logger.getLogger("TownySQLSourceH2Test"));
+		when(server.getScheduler()).thenReturn(mock(BukkitScheduler.class, RETURNS_MOCKS));
+
+		Towny towny = mock(Towny.class);
+		when(towny.getServer()).thenReturn(server);
+		when(towny.getDataFolder()).thenReturn(pluginFolder.toFile());
+
+		// Towny sets its instance in its constructor, which a mock never runs.
+		Field plugin = Towny.class.getDeclaredField("plugin");
+		plugin.setAccessible(true);
+		plugin.set(null, towny);
+		BukkitTools.initialize(towny);
+
+		TownySettings.loadConfig(pluginFolder.resolve("settings").resolve("config.yml").toString(), "0.97.0.5");
+	}
+
+	@BeforeEach
+	void setUp() {
+		universe = TownyUniverse.getInstance();
+		universe.clearAllObjects();
+		source = open();
+	}
+
+	@AfterEach
+	void tearDown() {
+		source.finishTasks();
+		universe.clearAllObjects();
+		new File(pluginFolder.toFile(), "data" + File.separator + "towny.mv.db").delete();
+	}
+
+	@Test
+	void savedResidentIsLoadedAgain() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		Resident saved = new Resident("Alice");
+		saved.setUUID(uuid);
+		saved.setRegistered(1000L);
+		saved.setLastOnline(2000L);
+		saved.setNPC(true);
+		assertTrue(source.saveResident(saved));
+
+		reopen();
+
+		Resident loaded = universe.getResident("Alice");
+		assertNotNull(loaded);
+		assertEquals(uuid, loaded.getUUID());
+		assertEquals(1000L, loaded.getRegistered());
+		assertEquals(2000L, loaded.getLastOnline());
+		assertTrue(loaded.isNPC());
+	}
+
+	@Test
+	void savingTwiceUpdatesTheRow() throws Exception {
+		Resident resident = new Resident("Bob");
+		resident.setLastOnline(1L);
+		source.saveResident(resident);
+		resident.setLastOnline(2L);
+		source.saveResident(resident);
+
+		reopen();
+
+		Resident loaded = universe.getResident("Bob");
+		assertNotNull(loaded);
+		assertEquals(2L, loaded.getLastOnline());
+	}
+
+	@Test
+	void deletedResidentIsNotLoaded() throws Exception {
+		source.saveResident(new Resident("Carol"));
+		reopen();
+
+		Resident loaded = universe.getResident("Carol");
+		assertNotNull(loaded);
+		source.deleteResident(loaded);
+		reopen();
+
+		assertNull(universe.getResident("Carol"));
+	}
+
+	private TownySQLSource open() {
+		return new TownySQLSource(Towny.getPlugin(), universe, SQL_Dialect.H2);
+	}
+
+	/**
+	 * Write everything queued, then load the residents back from a new source.
+	 */
+	private void reopen() {
+		source.finishTasks();
+		universe.clearAllObjects();
+		source = open();
+		assertTrue(source.loadResidentList());
+		assertTrue(source.loadResidents());
+	}
+}